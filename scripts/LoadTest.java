@@ -0,0 +1,82 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga mínimo, sin dependencias (se ejecuta con {@code java LoadTest.java}).
+ * <p>
+ * Uso: {@code java LoadTest.java <url> <payload.json> <concurrencia> <segundos> [content-type]}
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Uso: java LoadTest.java <url> <payload> <concurrencia> <segundos> [content-type]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        byte[] payload = Files.readAllBytes(Path.of(args[1]));
+        int concurrency = Integer.parseInt(args[2]);
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[3]));
+        String contentType = args.length > 4 ? args[4] : "application/json";
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            List<Long> own = new ArrayList<>();
+            latencies.add(own);
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    own.add(System.nanoTime() - start);
+                }
+                return null;
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        double seconds = durationNanos / 1e9;
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                all.size(), errors.get(), all.size() / seconds,
+                percentile(all, 50), percentile(all, 95), percentile(all, 99), percentile(all, 100));
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1e6;
+    }
+}
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Compara hilos de plataforma vs hilos virtuales sobre POST /api/xml/validate.
+# Requiere JAVA_HOME apuntando a un JDK 21.
+#
+# Uso: scripts/load-test.sh <payload.json> [concurrencia] [segundos]
+set -euo pipefail
+
+PAYLOAD=${1:?"Uso: scripts/load-test.sh <payload.json> [concurrencia] [segundos]"}
+CONCURRENCY=${2:-64}
+SECONDS_PER_RUN=${3:-30}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/xml/validate"
+JAR=target/xml-validator-0.0.1-SNAPSHOT.jar
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+cd "$(dirname "$0")/.."
+./mvnw -B -q -Pjava21 package -DskipTests
+
+# run <modo> <opciones JVM> [argumentos de la aplicación...]
+run() {
+  local mode=$1 jvm_opts=$2; shift 2
+  "$JAVA" $jvm_opts -jar "$JAR" --server.port="$PORT" "$@" > "target/load-test-${mode}.log" 2>&1 &
+  local pid=$!
+  until curl -s "http://localhost:${PORT}/health" > /dev/null; do sleep 0.5; done
+  # Calentamiento: compila el XSD y el JIT antes de medir
+  "$JAVA" scripts/LoadTest.java "$URL" "$PAYLOAD" 4 5 > /dev/null
+  echo -n "${mode}: "
+  "$JAVA" scripts/LoadTest.java "$URL" "$PAYLOAD" "$CONCURRENCY" "$SECONDS_PER_RUN"
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+}
+
+run platform ""
+# tracePinnedThreads deja en el log cualquier sección que fije el hilo portador
+run virtual "-Djdk.tracePinnedThreads=short" --spring.profiles.active=virtual
+grep -c "<== monitors" target/load-test-virtual.log | xargs echo "Trazas de pinning:" || true
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Mide el arranque en frío: sin calentamiento, con calentamiento y con calentamiento + AppCDS.
+# Por cada modo reporta la mediana del tiempo hasta readiness (desde que se lanza el proceso), del
+# "Started ... in" de Spring y de la latencia de la primera validación tras estar listo.
+#
+# Uso: scripts/startup-test.sh [repeticiones]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+BASE="http://localhost:${PORT}"
+SAMPLE=src/main/resources/warmup/invoice.xml
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+cd "$(dirname "$0")/.."
+./mvnw -B -q -Pcds package -DskipTests
+
+now_ms() { date +%s%3N; }
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+# run <modo> <opciones JVM> <jar> [argumentos de la aplicación...]
+run() {
+  local mode=$1 jvm_opts=$2 jar=$3; shift 3
+  local log="target/startup-test-${mode}.log" ready started first
+  : > "target/startup-test-${mode}.tsv"
+  for _ in $(seq "$RUNS"); do
+    local start; start=$(now_ms)
+    "$JAVA" $jvm_opts -jar "$jar" --server.port="$PORT" "$@" > "$log" 2>&1 &
+    local pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "${BASE}/actuator/health/readiness")" = 200 ]; do
+      sleep 0.05
+    done
+    ready=$(( $(now_ms) - start ))
+    first=$(curl -s -o /dev/null -w '%{time_total}' -H 'Content-Type: application/xml' \
+      --data-binary @"$SAMPLE" "${BASE}/api/xml/validate?documentType=INVOICE" | awk '{ print int($1 * 1000) }')
+    started=$(grep -oP 'Started \S+ in \K[0-9.]+' "$log" | awk '{ print int($1 * 1000) }')
+    printf '%s\t%s\t%s\n' "$ready" "$started" "$first" >> "target/startup-test-${mode}.tsv"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+  done
+  printf '%-10s readiness %5s ms   started %5s ms   primera validación %4s ms\n' "$mode" \
+    "$(cut -f1 "target/startup-test-${mode}.tsv" | median)" \
+    "$(cut -f2 "target/startup-test-${mode}.tsv" | median)" \
+    "$(cut -f3 "target/startup-test-${mode}.tsv" | median)"
+}
+
+run frio "" target/xml-validator-0.0.1-SNAPSHOT.jar --dian.validator.warmup.enabled=false
+run warmup "" target/xml-validator-0.0.1-SNAPSHOT.jar
+run cds "-XX:SharedArchiveFile=target/cds/application.jsa" target/cds/xml-validator-0.0.1-SNAPSHOT.jar
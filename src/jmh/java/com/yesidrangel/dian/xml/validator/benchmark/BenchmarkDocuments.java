@@ -0,0 +1,55 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+
+/**
+ * Documentos firmados compartidos por los benchmarks de un mismo fork. El certificado y cada
+ * documento se generan una sola vez: firmar 10k líneas tarda más que una iteración de medición.
+ */
+final class BenchmarkDocuments {
+
+    private static final Map<String, String> DOCUMENTS = new ConcurrentHashMap<>();
+    private static volatile TestCertificate certificate;
+
+    private BenchmarkDocuments() {
+    }
+
+    static String signed(DianSchemaType type, int lines) {
+        return DOCUMENTS.computeIfAbsent(type + ":" + lines,
+                key -> SyntheticDocumentGenerator.signed(type, lines, certificate()));
+    }
+
+    /**
+     * Parsea el documento sin validar contra esquema, con los parsers del pool.
+     */
+    static Document parse(XmlInfrastructure xmlInfrastructure, String xml) {
+        try {
+            return xmlInfrastructure.parse(new InputSource(new StringReader(xml)), null, null);
+        } catch (SAXParseException e) {
+            throw new IllegalStateException("El documento sintético no está bien formado", e);
+        }
+    }
+
+    private static TestCertificate certificate() {
+        TestCertificate current = certificate;
+        if (current == null) {
+            synchronized (BenchmarkDocuments.class) {
+                current = certificate;
+                if (current == null) {
+                    current = TestCertificate.generate();
+                    certificate = current;
+                }
+            }
+        }
+        return current;
+    }
+}
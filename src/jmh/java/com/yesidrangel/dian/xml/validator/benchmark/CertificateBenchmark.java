@@ -0,0 +1,63 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.io.DefaultResourceLoader;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.service.signature.CertificateCache;
+import com.yesidrangel.dian.xml.validator.service.signature.CertificateInfo;
+import com.yesidrangel.dian.xml.validator.service.signature.CertificateTrustValidator;
+
+/**
+ * Obtener el certificado firmante desde sus bytes DER: {@link CertificateCache} con acierto frente
+ * a {@code CertificateFactory} por documento (la implementación anterior) más las
+ * verificaciones de uso de clave y emisor.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CertificateBenchmark {
+
+    private byte[] der;
+    private CertificateCache cache;
+
+    @Setup
+    public void setUp() throws Exception {
+        der = TestCertificate.generate().getCertificate().getEncoded();
+        DianValidatorProperties properties = new DianValidatorProperties();
+        CertificateTrustValidator trust = new CertificateTrustValidator(properties, new DefaultResourceLoader());
+        cache = new CertificateCache(properties, trust);
+        cache.get(der);
+    }
+
+    @Benchmark
+    public CertificateInfo cached() throws Exception {
+        return cache.get(der);
+    }
+
+    @Benchmark
+    public boolean legacyParse() throws Exception {
+        CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        X509Certificate certificate = (X509Certificate) factory.generateCertificate(new ByteArrayInputStream(der));
+        boolean[] usage = certificate.getKeyUsage();
+        return usage != null && usage[1] && certificate.getIssuerX500Principal().getName().contains("CERTICAMARA");
+    }
+}
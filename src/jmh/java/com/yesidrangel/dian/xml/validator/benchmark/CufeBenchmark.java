@@ -0,0 +1,91 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.util.CufeGeneratorUtil;
+import com.yesidrangel.dian.xml.validator.util.DianFieldExtractorUtil;
+
+/**
+ * {@link CufeGeneratorUtil#sha384} sobre la cadena del CUFE, y el cálculo completo desde los
+ * campos extraídos. El número de líneas no cambia la entrada del CUFE.
+ * <p>
+ * Los métodos {@code legacy*} reproducen la implementación anterior ({@code getInstance} por
+ * llamada y {@code String.format("%02x")} por byte) como línea base.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CufeBenchmark {
+
+    private DianDocumentFields fields;
+    private String input;
+
+    @Setup
+    public void setUp() {
+        Document doc = BenchmarkDocuments.parse(new XmlInfrastructure(new DianValidatorProperties()),
+                BenchmarkDocuments.signed(DianSchemaType.INVOICE, 1));
+        fields = DianFieldExtractorUtil.extract(doc, DianSchemaType.INVOICE);
+        input = CufeGeneratorUtil.buildInput(fields, SyntheticDocumentGenerator.TECHNICAL_KEY);
+        if (!CufeGeneratorUtil.generate(fields, SyntheticDocumentGenerator.TECHNICAL_KEY).equals(legacy(input))) {
+            throw new IllegalStateException("El CUFE optimizado no coincide con la implementación anterior");
+        }
+    }
+
+    private static String legacy(String value) {
+        try {
+            return legacySha384(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public String sha384() {
+        return CufeGeneratorUtil.sha384(input);
+    }
+
+    @Benchmark
+    public String generate() {
+        return CufeGeneratorUtil.generate(fields, SyntheticDocumentGenerator.TECHNICAL_KEY);
+    }
+
+    @Benchmark
+    public String legacySha384() throws Exception {
+        return legacySha384(input);
+    }
+
+    @Benchmark
+    public String legacyGenerate() throws Exception {
+        return legacySha384(CufeGeneratorUtil.buildInput(fields, SyntheticDocumentGenerator.TECHNICAL_KEY));
+    }
+
+    private static String legacySha384(String value) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-384").digest(value.getBytes(StandardCharsets.UTF_8));
+        StringBuilder result = new StringBuilder();
+        for (byte b : hash) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+}
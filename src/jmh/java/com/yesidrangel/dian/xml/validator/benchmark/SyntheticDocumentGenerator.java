@@ -0,0 +1,244 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.MessageDigest;
+import java.security.cert.X509Certificate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import javax.xml.crypto.dom.DOMStructure;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.DigestMethod;
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.SignatureMethod;
+import javax.xml.crypto.dsig.SignedInfo;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.XMLObject;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMSignContext;
+import javax.xml.crypto.dsig.keyinfo.KeyInfo;
+import javax.xml.crypto.dsig.keyinfo.KeyInfoFactory;
+import javax.xml.crypto.dsig.spec.C14NMethodParameterSpec;
+import javax.xml.crypto.dsig.spec.TransformParameterSpec;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.util.CufeGeneratorUtil;
+import com.yesidrangel.dian.xml.validator.util.DianFieldExtractorUtil;
+
+/**
+ * Genera facturas y notas crédito UBL 2.1 sintéticas, válidas contra los XSD DIAN, con el número
+ * de líneas pedido, CUFE/CUDE correcto para {@link #TECHNICAL_KEY} y firma XAdES enveloped
+ * (RSA-SHA256) con un {@link TestCertificate}.
+ * <p>
+ * La firma solo referencia el documento ({@code URI=""}); las propiedades XAdES van en un
+ * {@code ds:Object} sin referencia, suficiente para ejercitar la validación criptográfica y las
+ * reglas XAdES sin registrar atributos ID en el DOM.
+ */
+public final class SyntheticDocumentGenerator {
+
+    public static final String TECHNICAL_KEY = "fc8eac422eba16e22ffd8c6f94b3f40a6e38162c";
+
+    private static final String EXT_NS = "urn:oasis:names:specification:ubl:schema:xsd:CommonExtensionComponents-2";
+    private static final String XADES_NS = "http://uri.etsi.org/01903/v1.3.2#";
+    private static final String DS_NS = "http://www.w3.org/2000/09/xmldsig#";
+    private static final String DIAN_POLICY_URL =
+            "https://facturaelectronica.dian.gov.co/politicadefirma/v2/politicadefirmav2.pdf";
+    private static final String CUFE_PLACEHOLDER = "CUFE-PLACEHOLDER";
+
+    private SyntheticDocumentGenerator() {
+    }
+
+    /**
+     * Documento firmado listo para validar.
+     */
+    public static String signed(DianSchemaType type, int lines, TestCertificate certificate) {
+        try {
+            Document doc = parse(unsigned(type, lines));
+            sign(doc, certificate);
+            StringWriter out = new StringWriter();
+            // Sin indentación: cualquier cambio de espacios invalidaría la firma
+            TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(out));
+            return out.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo firmar el documento sintético", e);
+        }
+    }
+
+    /**
+     * Documento sin firma con CUFE/CUDE calculado.
+     */
+    public static String unsigned(DianSchemaType type, int lines) {
+        String xml = build(type, lines);
+        try {
+            String cufe = CufeGeneratorUtil.generate(DianFieldExtractorUtil.extract(parse(xml), type), TECHNICAL_KEY);
+            return xml.replace(CUFE_PLACEHOLDER, cufe);
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo calcular el CUFE del documento sintético", e);
+        }
+    }
+
+    private static String build(DianSchemaType type, int lines) {
+        boolean creditNote = type == DianSchemaType.CREDIT_NOTE;
+        String root = creditNote ? "CreditNote" : "Invoice";
+        String lineElement = creditNote ? "CreditNoteLine" : "InvoiceLine";
+        String quantityElement = creditNote ? "CreditedQuantity" : "InvoicedQuantity";
+        long total = 200L * lines;
+        long tax = 38L * lines;
+        StringBuilder xml = new StringBuilder(1024 + lines * 1100);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append('<').append(root)
+                .append(" xmlns=\"urn:oasis:names:specification:ubl:schema:xsd:").append(root).append("-2\"")
+                .append(" xmlns:cac=\"urn:oasis:names:specification:ubl:schema:xsd:CommonAggregateComponents-2\"")
+                .append(" xmlns:cbc=\"urn:oasis:names:specification:ubl:schema:xsd:CommonBasicComponents-2\"")
+                .append(" xmlns:ext=\"").append(EXT_NS).append("\">\n")
+                .append("  <cbc:UBLVersionID>UBL 2.1</cbc:UBLVersionID>\n")
+                .append("  <cbc:CustomizationID>10</cbc:CustomizationID>\n")
+                .append("  <cbc:ProfileID>DIAN 2.1</cbc:ProfileID>\n")
+                .append("  <cbc:ProfileExecutionID>2</cbc:ProfileExecutionID>\n")
+                .append("  <cbc:ID>SETP990000001</cbc:ID>\n")
+                .append("  <cbc:UUID schemeID=\"2\" schemeName=\"").append(creditNote ? "CUDE-SHA384" : "CUFE-SHA384")
+                .append("\">").append(CUFE_PLACEHOLDER).append("</cbc:UUID>\n")
+                .append("  <cbc:IssueDate>2024-01-15</cbc:IssueDate>\n")
+                .append("  <cbc:IssueTime>10:00:00-05:00</cbc:IssueTime>\n")
+                .append(creditNote ? "  <cbc:CreditNoteTypeCode>91</cbc:CreditNoteTypeCode>\n"
+                        : "  <cbc:InvoiceTypeCode>01</cbc:InvoiceTypeCode>\n")
+                .append("  <cbc:DocumentCurrencyCode>COP</cbc:DocumentCurrencyCode>\n")
+                .append("  <cbc:LineCountNumeric>").append(lines).append("</cbc:LineCountNumeric>\n");
+        party(xml, "AccountingSupplierParty", "Emisor", "900373115");
+        party(xml, "AccountingCustomerParty", "Adquiriente", "800197268");
+        taxTotal(xml, "  ", total, tax);
+        xml.append("  <cac:LegalMonetaryTotal>\n");
+        amount(xml, "    ", "LineExtensionAmount", total);
+        amount(xml, "    ", "TaxExclusiveAmount", total);
+        amount(xml, "    ", "TaxInclusiveAmount", total + tax);
+        amount(xml, "    ", "PayableAmount", total + tax);
+        xml.append("  </cac:LegalMonetaryTotal>\n");
+        for (int i = 1; i <= lines; i++) {
+            xml.append("  <cac:").append(lineElement).append(">\n")
+                    .append("    <cbc:ID>").append(i).append("</cbc:ID>\n")
+                    .append("    <cbc:").append(quantityElement).append(" unitCode=\"EA\">2</cbc:")
+                    .append(quantityElement).append(">\n");
+            amount(xml, "    ", "LineExtensionAmount", 200);
+            taxTotal(xml, "    ", 200, 38);
+            xml.append("    <cac:Item><cbc:Description>Producto ").append(i).append("</cbc:Description></cac:Item>\n")
+                    .append("    <cac:Price><cbc:PriceAmount currencyID=\"COP\">100.00</cbc:PriceAmount>")
+                    .append("<cbc:BaseQuantity unitCode=\"EA\">1</cbc:BaseQuantity></cac:Price>\n")
+                    .append("  </cac:").append(lineElement).append(">\n");
+        }
+        return xml.append("</").append(root).append(">\n").toString();
+    }
+
+    private static void party(StringBuilder xml, String role, String name, String nit) {
+        xml.append("  <cac:").append(role).append("><cbc:AdditionalAccountID>1</cbc:AdditionalAccountID>")
+                .append("<cac:Party><cac:PartyTaxScheme><cbc:RegistrationName>").append(name)
+                .append("</cbc:RegistrationName><cbc:CompanyID schemeID=\"9\" schemeName=\"31\">").append(nit)
+                .append("</cbc:CompanyID><cac:TaxScheme><cbc:ID>01</cbc:ID><cbc:Name>IVA</cbc:Name></cac:TaxScheme>")
+                .append("</cac:PartyTaxScheme></cac:Party></cac:").append(role).append(">\n");
+    }
+
+    private static void taxTotal(StringBuilder xml, String indent, long taxable, long tax) {
+        xml.append(indent).append("<cac:TaxTotal>\n");
+        amount(xml, indent + "  ", "TaxAmount", tax);
+        xml.append(indent).append("  <cac:TaxSubtotal>\n");
+        amount(xml, indent + "    ", "TaxableAmount", taxable);
+        amount(xml, indent + "    ", "TaxAmount", tax);
+        xml.append(indent).append("    <cac:TaxCategory><cbc:Percent>19.00</cbc:Percent>")
+                .append("<cac:TaxScheme><cbc:ID>01</cbc:ID><cbc:Name>IVA</cbc:Name></cac:TaxScheme></cac:TaxCategory>\n")
+                .append(indent).append("  </cac:TaxSubtotal>\n")
+                .append(indent).append("</cac:TaxTotal>\n");
+    }
+
+    private static void amount(StringBuilder xml, String indent, String element, long value) {
+        xml.append(indent).append("<cbc:").append(element).append(" currencyID=\"COP\">").append(value)
+                .append(".00</cbc:").append(element).append(">\n");
+    }
+
+    private static void sign(Document doc, TestCertificate certificate) throws Exception {
+        Element root = doc.getDocumentElement();
+        Element extensions = doc.createElementNS(EXT_NS, "ext:UBLExtensions");
+        Element extension = doc.createElementNS(EXT_NS, "ext:UBLExtension");
+        Element content = doc.createElementNS(EXT_NS, "ext:ExtensionContent");
+        extensions.appendChild(extension);
+        extension.appendChild(content);
+        root.insertBefore(extensions, root.getFirstChild());
+
+        XMLSignatureFactory factory = XMLSignatureFactory.getInstance("DOM");
+        Reference reference = factory.newReference("", factory.newDigestMethod(DigestMethod.SHA256, null),
+                List.of(factory.newTransform(Transform.ENVELOPED, (TransformParameterSpec) null)), null, null);
+        SignedInfo signedInfo = factory.newSignedInfo(
+                factory.newCanonicalizationMethod(CanonicalizationMethod.INCLUSIVE, (C14NMethodParameterSpec) null),
+                factory.newSignatureMethod(SignatureMethod.RSA_SHA256, null), List.of(reference));
+        KeyInfoFactory keyInfoFactory = factory.getKeyInfoFactory();
+        KeyInfo keyInfo = keyInfoFactory.newKeyInfo(
+                List.of(keyInfoFactory.newX509Data(List.of(certificate.getCertificate()))));
+        XMLObject qualifyingProperties = factory.newXMLObject(
+                List.of(new DOMStructure(qualifyingProperties(doc, certificate))), null, null, null);
+        XMLSignature signature = factory.newXMLSignature(signedInfo, keyInfo, List.of(qualifyingProperties),
+                "xmldsig-benchmark", null);
+        DOMSignContext context = new DOMSignContext(certificate.getPrivateKey(), content);
+        context.setDefaultNamespacePrefix("ds");
+        signature.sign(context);
+    }
+
+    private static Element qualifyingProperties(Document doc, TestCertificate certificate) throws Exception {
+        Element properties = xades(doc, "QualifyingProperties");
+        properties.setAttribute("Target", "#xmldsig-benchmark");
+        Element signedSignature = append(append(properties, xades(doc, "SignedProperties")),
+                xades(doc, "SignedSignatureProperties"));
+        append(signedSignature, xades(doc, "SigningTime"))
+                .setTextContent(OffsetDateTime.now(ZoneOffset.ofHours(-5)).withNano(0).toString());
+
+        X509Certificate cert = certificate.getCertificate();
+        Element signingCert = append(append(signedSignature, xades(doc, "SigningCertificate")), xades(doc, "Cert"));
+        digest(doc, append(signingCert, xades(doc, "CertDigest")),
+                MessageDigest.getInstance("SHA-256").digest(cert.getEncoded()));
+        Element issuerSerial = append(signingCert, xades(doc, "IssuerSerial"));
+        append(issuerSerial, doc.createElementNS(DS_NS, "ds:X509IssuerName"))
+                .setTextContent(cert.getIssuerX500Principal().getName());
+        append(issuerSerial, doc.createElementNS(DS_NS, "ds:X509SerialNumber"))
+                .setTextContent(cert.getSerialNumber().toString());
+
+        Element policyId = append(append(signedSignature, xades(doc, "SignaturePolicyIdentifier")),
+                xades(doc, "SignaturePolicyId"));
+        append(append(policyId, xades(doc, "SigPolicyId")), xades(doc, "Identifier")).setTextContent(DIAN_POLICY_URL);
+        digest(doc, append(policyId, xades(doc, "SigPolicyHash")),
+                MessageDigest.getInstance("SHA-256").digest(DIAN_POLICY_URL.getBytes()));
+
+        append(append(append(signedSignature, xades(doc, "SignerRole")), xades(doc, "ClaimedRoles")),
+                xades(doc, "ClaimedRole")).setTextContent("supplier");
+        return properties;
+    }
+
+    private static void digest(Document doc, Element parent, byte[] value) {
+        Element method = append(parent, doc.createElementNS(DS_NS, "ds:DigestMethod"));
+        method.setAttribute("Algorithm", DigestMethod.SHA256);
+        append(parent, doc.createElementNS(DS_NS, "ds:DigestValue")).setTextContent(Base64.getEncoder().encodeToString(value));
+    }
+
+    private static Element xades(Document doc, String localName) {
+        return doc.createElementNS(XADES_NS, "xades:" + localName);
+    }
+
+    private static Element append(Element parent, Element child) {
+        parent.appendChild(child);
+        return child;
+    }
+
+    private static Document parse(String xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.TaxTotals;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DianXPath;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XPathEvaluator;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.util.DianFieldExtractorUtil;
+import com.yesidrangel.dian.xml.validator.util.DianTaxExtractorUtil;
+
+/**
+ * Extracción de impuestos con XPath, como se hacía antes, frente a la extracción de una sola pasada
+ * de {@link DianFieldExtractorUtil}, que además trae todos los campos del CUFE.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TaxExtractionBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    private int lines;
+
+    private XmlInfrastructure xmlInfrastructure;
+    private Document doc;
+
+    @Setup
+    public void setUp() {
+        xmlInfrastructure = new XmlInfrastructure(new DianValidatorProperties());
+        doc = BenchmarkDocuments.parse(xmlInfrastructure,
+                BenchmarkDocuments.signed(DianSchemaType.INVOICE, lines));
+    }
+
+    @Benchmark
+    public Map<String, String> extractTaxesByCode() {
+        return xmlInfrastructure.withXPath(
+                xpath -> extractTaxesByXPath(xpath, DianSchemaType.INVOICE, doc));
+    }
+
+    @Benchmark
+    public DianDocumentFields extractFieldsSinglePass() {
+        return DianFieldExtractorUtil.extract(doc, DianSchemaType.INVOICE);
+    }
+
+    // Línea base: un XPath por cac:TaxTotal y dos por cada uno para el código y el monto
+    private static Map<String, String> extractTaxesByXPath(XPathEvaluator xpath, DianSchemaType type, Document doc) {
+        TaxTotals taxes = new TaxTotals();
+        try {
+            NodeList taxTotals = xpath.getNodes(DianXPath.TAX_TOTALS, type, doc);
+            for (int i = 0; i < taxTotals.getLength(); i++) {
+                Node taxTotal = taxTotals.item(i);
+                String code = xpath.getTag(DianXPath.TAX_TOTAL_SCHEME_ID, type, taxTotal);
+                String amount = xpath.getTag(DianXPath.TAX_TOTAL_AMOUNT, type, taxTotal);
+                DianTaxExtractorUtil.addTaxTotal(taxes, code, amount);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error extrayendo impuestos DIAN", e);
+        }
+        return taxes.toAmounts();
+    }
+}
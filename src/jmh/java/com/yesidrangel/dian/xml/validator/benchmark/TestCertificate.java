@@ -0,0 +1,82 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Certificado autofirmado de prueba generado localmente con {@code keytool} del JDK en ejecución,
+ * sin red ni archivos versionados. Tiene uso de no repudio y un emisor que contiene CERTICAMARA
+ * para pasar las mismas validaciones que un certificado real.
+ */
+public final class TestCertificate {
+
+    private static final char[] PASSWORD = "benchmark".toCharArray();
+    private static final String ALIAS = "dian-benchmark";
+
+    private final PrivateKey privateKey;
+    private final X509Certificate certificate;
+
+    private TestCertificate(PrivateKey privateKey, X509Certificate certificate) {
+        this.privateKey = privateKey;
+        this.certificate = certificate;
+    }
+
+    public static TestCertificate generate() {
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("dian-benchmark-cert");
+            Path keystore = dir.resolve("test.p12");
+            Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+            Process process = new ProcessBuilder(List.of(keytool.toString(),
+                    "-genkeypair", "-alias", ALIAS, "-keyalg", "RSA", "-keysize", "2048",
+                    "-sigalg", "SHA256withRSA", "-validity", "3650",
+                    "-dname", "CN=Benchmark DIAN, O=CERTICAMARA S.A., C=CO",
+                    "-ext", "KeyUsage:critical=digitalSignature,nonRepudiation",
+                    "-storetype", "PKCS12", "-keystore", keystore.toString(),
+                    "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD)))
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes());
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("keytool falló: " + output);
+            }
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(keystore)) {
+                store.load(in, PASSWORD);
+            }
+            return new TestCertificate((PrivateKey) store.getKey(ALIAS, PASSWORD),
+                    (X509Certificate) store.getCertificate(ALIAS));
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo generar el certificado de prueba", e);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    private static void delete(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException ignored) {
+            // Directorio temporal: si no se puede borrar lo limpia el sistema
+        }
+    }
+}
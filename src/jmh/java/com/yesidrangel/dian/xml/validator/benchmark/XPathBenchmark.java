@@ -0,0 +1,76 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DianXPath;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.service.signature.DianNamespaceContext;
+import com.yesidrangel.dian.xml.validator.util.XmlXPathUtil;
+
+/**
+ * {@link XmlXPathUtil#getTag}: expresión compilada en cada llamada frente a la precompilada del
+ * catálogo {@link DianXPath}. Se usa una expresión de encabezado y una con {@code //} que recorre
+ * todo el documento.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class XPathBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    private int lines;
+
+    private Document doc;
+    private XPath xpath;
+    private String uuidExpression;
+    private XPathExpression uuidCompiled;
+    private XPathExpression certificateCompiled;
+
+    @Setup
+    public void setUp() throws Exception {
+        doc = BenchmarkDocuments.parse(new XmlInfrastructure(new DianValidatorProperties()),
+                BenchmarkDocuments.signed(DianSchemaType.INVOICE, lines));
+        xpath = XPathFactory.newInstance().newXPath();
+        xpath.setNamespaceContext(DianNamespaceContext.INSTANCE);
+        uuidExpression = DianXPath.UUID.expressionFor(DianSchemaType.INVOICE);
+        uuidCompiled = xpath.compile(uuidExpression);
+        certificateCompiled = xpath.compile(DianXPath.X509_CERTIFICATE.getTemplate());
+    }
+
+    @Benchmark
+    public String getTagUncompiled() {
+        return XmlXPathUtil.getTag(xpath, doc, uuidExpression);
+    }
+
+    @Benchmark
+    public String getTagCompiled() {
+        return XmlXPathUtil.getTag(uuidCompiled, doc);
+    }
+
+    @Benchmark
+    public String getTagDescendant() {
+        return XmlXPathUtil.getTag(certificateCompiled, doc);
+    }
+}
@@ -0,0 +1,80 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.w3c.dom.Document;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.service.signature.CertificateCache;
+import com.yesidrangel.dian.xml.validator.service.signature.CertificateTrustValidator;
+import com.yesidrangel.dian.xml.validator.service.signature.XadesSignatureValidator;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationSource;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationStatusCache;
+
+/**
+ * {@link XadesSignatureValidator#validate} sobre un documento firmado: canonicalización y digest
+ * del documento completo, verificación RSA y reglas XAdES, con y sin la verificación de
+ * referencias en streaming.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class XadesSignatureBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    private int lines;
+
+    /**
+     * true: resúmenes en streaming antes de RSA; false: {@code XMLSignature.validate} del proveedor.
+     */
+    @Param({ "true", "false" })
+    private boolean streamingDigest;
+
+    private XadesSignatureValidator validator;
+    private Document doc;
+
+    @Setup
+    public void setUp() {
+        DianValidatorProperties properties = new DianValidatorProperties();
+        properties.getSignature().setStreamingDigest(streamingDigest);
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure(properties);
+        CertificateTrustValidator trust = new CertificateTrustValidator(properties, new DefaultResourceLoader());
+        // Sin fuente de revocación: mide solo la firma, como con mode=NONE
+        RevocationStatusCache revocation = new RevocationStatusCache(properties,
+                new StaticListableBeanFactory().getBeanProvider(RevocationSource.class));
+        validator = new XadesSignatureValidator(xmlInfrastructure, new CertificateCache(properties, trust), revocation,
+                properties);
+        doc = BenchmarkDocuments.parse(xmlInfrastructure,
+                BenchmarkDocuments.signed(DianSchemaType.INVOICE, lines));
+        FindingCollector errors = validator.validate(doc);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("La firma sintética no es válida: "
+                    + errors.findings().stream().map(ValidationFinding::render).toList());
+        }
+    }
+
+    @Benchmark
+    public FindingCollector validate() {
+        return validator.validate(doc);
+    }
+}
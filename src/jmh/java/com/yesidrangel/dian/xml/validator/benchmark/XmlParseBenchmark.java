@@ -0,0 +1,55 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlSecurityPolicy;
+import com.yesidrangel.dian.xml.validator.util.XmlParserUtil;
+
+/**
+ * {@link XmlParserUtil#parse} sin esquema: costo del DOM por tamaño de documento.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class XmlParseBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    private int lines;
+
+    private String xml;
+    private DocumentBuilder builder;
+
+    @Setup
+    public void setUp() throws Exception {
+        xml = BenchmarkDocuments.signed(DianSchemaType.INVOICE, lines);
+        XmlSecurityPolicy policy = new XmlSecurityPolicy(new DianValidatorProperties().getXml());
+        builder = XmlParserUtil.newDocumentBuilderFactory(null, policy).newDocumentBuilder();
+    }
+
+    @Benchmark
+    public Document parse() throws Exception {
+        return XmlParserUtil.parse(builder, new InputSource(new StringReader(xml)), null);
+    }
+}
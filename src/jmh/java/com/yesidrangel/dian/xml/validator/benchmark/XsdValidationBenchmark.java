@@ -0,0 +1,89 @@
+package com.yesidrangel.dian.xml.validator.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.validation.Schema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.dto.ValidationErrorDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlSecurityPolicy;
+import com.yesidrangel.dian.xml.validator.service.schema.DianSchemaRegistry;
+import com.yesidrangel.dian.xml.validator.util.XsdValidationUtil;
+
+/**
+ * {@link XsdValidationUtil#validate} por tipo de documento con el esquema ya compilado.
+ * DOCUMENTO_SOPORTE no se incluye porque su XSD no está en el repositorio.
+ * <p>
+ * Con {@code valid=false} cada línea trae una cantidad no numérica (dos errores XSD por línea), y
+ * {@link #response()} incluye además lo que el servicio arma con los hallazgos antes de serializar.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XsdValidationBenchmark {
+
+    @Param({ "INVOICE", "CREDIT_NOTE" })
+    private DianSchemaType type;
+
+    @Param({ "1", "100", "10000" })
+    private int lines;
+
+    @Param({ "true", "false" })
+    private boolean valid;
+
+    private String xml;
+    private Schema schema;
+    private XmlSecurityPolicy policy;
+
+    @Setup
+    public void setUp() {
+        String signed = BenchmarkDocuments.signed(type, lines);
+        xml = valid ? signed : signed.replace("unitCode=\"EA\">2</cbc:", "unitCode=\"EA\">dos</cbc:");
+        DianValidatorProperties properties = new DianValidatorProperties();
+        schema = new DianSchemaRegistry(properties).getSchema(type);
+        policy = new XmlSecurityPolicy(properties.getXml());
+        FindingCollector errors = XsdValidationUtil.validate(xml, schema, policy);
+        if (errors.isEmpty() != valid) {
+            throw new IllegalStateException("Resultado XSD inesperado del documento sintético: "
+                    + errors.findings().stream().limit(3).map(ValidationFinding::render).toList());
+        }
+    }
+
+    @Benchmark
+    public FindingCollector validate() {
+        return XsdValidationUtil.validate(xml, schema, policy);
+    }
+
+    @Benchmark
+    public List<ValidationErrorDto> response() {
+        FindingCollector findings = XsdValidationUtil.validate(xml, schema, policy);
+        List<ValidationErrorDto> errors = new ArrayList<>(findings.size());
+        for (ValidationFinding finding : findings.findings()) {
+            errors.add(ValidationErrorDto.of(finding));
+        }
+        if (findings.maxSeverity() == null) {
+            throw new IllegalStateException();
+        }
+        return errors;
+    }
+}
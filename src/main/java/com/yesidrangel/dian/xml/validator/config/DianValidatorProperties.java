@@ -0,0 +1,322 @@
+package com.yesidrangel.dian.xml.validator.config;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Propiedades de configuración del validador DIAN (prefijo {@code dian.validator}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "dian.validator")
+public class DianValidatorProperties {
+
+	private Xsd xsd = new Xsd();
+	private Warmup warmup = new Warmup();
+	private Xml xml = new Xml();
+	private Batch batch = new Batch();
+	private Jobs jobs = new Jobs();
+	private Pipeline pipeline = new Pipeline();
+	private Cache cache = new Cache();
+	private Metrics metrics = new Metrics();
+	private Rules rules = new Rules();
+	private Signature signature = new Signature();
+
+	@Getter
+	@Setter
+	public static class Xsd {
+		/**
+		 * Compila todos los esquemas al iniciar la aplicación. Si es false, cada esquema se
+		 * compila en la primera solicitud que lo necesite.
+		 */
+		private boolean eagerInit = false;
+	}
+
+	@Getter
+	@Setter
+	public static class Warmup {
+		/**
+		 * Calienta el validador al arrancar: compila todos los esquemas y valida una factura de
+		 * muestra. La aplicación no se declara lista (readiness) hasta terminar.
+		 */
+		private boolean enabled = true;
+		/**
+		 * Validaciones de la factura de muestra, para que el JIT compile el camino de validación.
+		 */
+		private int iterations = 20;
+		/**
+		 * Cierra la aplicación al terminar el calentamiento. Solo para la ejecución de entrenamiento
+		 * que genera el archivo AppCDS (perfil Maven {@code cds}).
+		 */
+		private boolean exitAfter = false;
+	}
+
+	@Getter
+	@Setter
+	public static class Xml {
+		/**
+		 * Máximo de DocumentBuilder/XPath inactivos que conserva cada pool.
+		 */
+		private int poolMaxIdle = 2 * Runtime.getRuntime().availableProcessors();
+		/**
+		 * Tamaño máximo del documento. Un stream se corta al superarlo, sin terminar de leerlo.
+		 */
+		private DataSize maxDocumentSize = DataSize.ofMegabytes(20);
+		/**
+		 * Profundidad máxima de elementos ({@code jdk.xml.maxElementDepth}).
+		 */
+		private int maxElementDepth = 64;
+		/**
+		 * Máximo de atributos por elemento, incluidas las declaraciones xmlns
+		 * ({@code jdk.xml.elementAttributeLimit}).
+		 */
+		private int maxAttributes = 64;
+		/**
+		 * Máximo de expansiones de entidades ({@code jdk.xml.entityExpansionLimit}). Los documentos
+		 * no admiten DTD; el límite cubre los XSD, que sí declaran entidades.
+		 */
+		private int maxEntityExpansions = 100;
+	}
+
+	@Getter
+	@Setter
+	public static class Batch {
+		/**
+		 * Documentos validados en paralelo (hilos del executor de validación).
+		 */
+		private int parallelism = Runtime.getRuntime().availableProcessors();
+		/**
+		 * Máximo de documentos aceptados en un lote.
+		 */
+		private int maxSize = 1000;
+		/**
+		 * Tiempo máximo de una respuesta de lote en streaming (NDJSON), que corre como solicitud
+		 * asíncrona. Sin valor, el peor caso de un lote de {@code maxSize} documentos en el que
+		 * cada uno agota los presupuestos de sus etapas, {@code parallelism} a la vez.
+		 */
+		private Duration streamTimeout;
+	}
+
+	@Getter
+	@Setter
+	public static class Jobs {
+		/**
+		 * Trabajos asíncronos que se validan a la vez.
+		 */
+		private int workers = 2;
+		/**
+		 * Trabajos en espera. Con la cola llena, un trabajo nuevo se rechaza con HTTP 429.
+		 */
+		private int queueCapacity = 100;
+		/**
+		 * Tiempo que se conserva un trabajo terminado para consultar su resultado.
+		 */
+		private Duration retention = Duration.ofHours(1);
+		/**
+		 * Cada cuánto se eliminan los trabajos terminados que superaron la retención.
+		 */
+		private Duration purgeInterval = Duration.ofMinutes(1);
+		/**
+		 * Almacén de los trabajos; FILE los conserva entre reinicios.
+		 */
+		private JobStoreMode store = JobStoreMode.MEMORY;
+		/**
+		 * Directorio del almacén FILE.
+		 */
+		private String directory = "jobs";
+	}
+
+	public enum JobStoreMode {
+		MEMORY, FILE
+	}
+
+	@Getter
+	@Setter
+	public static class Pipeline {
+		/**
+		 * Valor por defecto de failFast: detiene las etapas restantes al primer ERROR/FATAL.
+		 */
+		private boolean failFast = false;
+		/**
+		 * Máximo de hallazgos por solicitud. Al alcanzarlo la etapa en curso se detiene y las
+		 * siguientes se omiten; la respuesta lo indica con el total registrado.
+		 */
+		private int maxFindings = 1_000;
+		/**
+		 * Hallazgos de un documento que se escriben en el log; del resto solo se registra la cuenta.
+		 */
+		private int loggedFindings = 5;
+		/**
+		 * Presupuesto de tiempo del parseo con XSD. Se comprueba en cada bloque que el parser lee del
+		 * documento y en cada error reportado, así que corta también un documento sin errores.
+		 */
+		private Duration parseBudget = Duration.ofSeconds(10);
+		/**
+		 * Presupuesto de tiempo de las reglas semánticas; se comprueba entre reglas.
+		 */
+		private Duration semanticBudget = Duration.ofSeconds(5);
+		/**
+		 * Tiempo máximo que se espera la verificación de firma cuando corre en paralelo con las
+		 * reglas. Si el executor de etapas está lleno la firma corre en el hilo de la validación y
+		 * no se interrumpe: este límite no la acota.
+		 */
+		private Duration signatureBudget = Duration.ofSeconds(10);
+	}
+
+	@Getter
+	@Setter
+	public static class Cache {
+		/**
+		 * Activa el caché de resultados por hash del contenido.
+		 */
+		private boolean enabled = false;
+		/**
+		 * Máximo de resultados en el caché en memoria (LRU).
+		 */
+		private int maxEntries = 10_000;
+		/**
+		 * Tiempo máximo que se conserva un resultado, acotado además por su horizonte de validez.
+		 */
+		private Duration ttl = Duration.ofMinutes(10);
+		/**
+		 * Versión del conjunto de reglas; forma parte de la clave, así que cambiarla invalida el caché.
+		 */
+		private String rulesetVersion = "2";
+	}
+
+	@Getter
+	@Setter
+	public static class Metrics {
+		/**
+		 * Validaciones que tarden al menos esto se registran en el log con su desglose por etapa.
+		 */
+		private Duration slowThreshold = Duration.ofSeconds(2);
+		/**
+		 * Fracción (0..1) de las validaciones lentas que se registran en el log.
+		 */
+		private double slowSampleRate = 1.0;
+	}
+
+	@Getter
+	@Setter
+	public static class Rules {
+		/**
+		 * A partir de este número de líneas las reglas por línea se evalúan en paralelo (fork-join).
+		 */
+		private int parallelThreshold = 2_000;
+		/**
+		 * Diferencia máxima aceptada por redondeo al comparar montos calculados con los declarados.
+		 */
+		private BigDecimal amountTolerance = new BigDecimal("1.00");
+		/**
+		 * Catálogo de reglas: ajusta las reglas registradas como beans (por id) o declara reglas
+		 * nuevas de campo obligatorio.
+		 */
+		private List<RuleDefinition> catalog = new ArrayList<>();
+	}
+
+	@Getter
+	@Setter
+	public static class Signature {
+		/**
+		 * Máximo de certificados firmantes parseados que se conservan (LRU).
+		 */
+		private int certificateCacheSize = 1_000;
+		/**
+		 * Tiempo máximo que se reutiliza la evaluación de un certificado, acotado además por su
+		 * vigencia.
+		 */
+		private Duration certificateCacheTtl = Duration.ofHours(1);
+		/**
+		 * Almacén de CAs de confianza (acreditadas por ONAC), como recurso de Spring
+		 * ({@code file:...}, {@code classpath:...}). Sin almacén, la confianza se decide por el
+		 * nombre del emisor y solo genera advertencias.
+		 */
+		private String trustStore;
+		private String trustStoreType = "PKCS12";
+		private String trustStorePassword = "";
+		/**
+		 * Verifica los resúmenes de las referencias antes de la firma RSA, canonicalizando directo
+		 * hacia el digest; false usa {@code XMLSignature.validate} del proveedor.
+		 */
+		private boolean streamingDigest = true;
+		private Revocation revocation = new Revocation();
+	}
+
+	@Getter
+	@Setter
+	public static class Revocation {
+		/**
+		 * Fuente del estado de revocación; NONE no lo verifica.
+		 */
+		private RevocationMode mode = RevocationMode.NONE;
+		/**
+		 * Directorio con las CRL espejadas localmente (modo CRL).
+		 */
+		private String crlDirectory;
+		/**
+		 * Responder OCSP que reemplaza al del certificado (modo OCSP); vacío usa el del AIA.
+		 */
+		private String ocspResponder;
+		/**
+		 * Seriales (hexadecimal) revocados del responder local de prueba (modo LOCAL).
+		 */
+		private List<String> localRevokedSerials = new ArrayList<>();
+		/**
+		 * Tiempo máximo que se usa un estado de revocación consultado.
+		 */
+		private Duration ttl = Duration.ofHours(6);
+		/**
+		 * Cada cuánto se refrescan en segundo plano los estados próximos a vencer y las CRL.
+		 */
+		private Duration refreshInterval = Duration.ofMinutes(30);
+		private int maxEntries = 10_000;
+	}
+
+	public enum RevocationMode {
+		NONE, CRL, OCSP, LOCAL
+	}
+
+	/**
+	 * Entrada del catálogo de reglas. Si {@code id} corresponde a un bean, los valores no nulos
+	 * sobrescriben los de la regla; si no, se declara una regla que exige {@code field}.
+	 */
+	@Getter
+	@Setter
+	public static class RuleDefinition {
+		private String id;
+		/**
+		 * Código del anexo técnico DIAN (por ejemplo FAD06).
+		 */
+		private String dianCode;
+		/**
+		 * Tipos de documento a los que aplica; vacío conserva los de la regla (todos si es nueva).
+		 */
+		private Set<DianSchemaType> documentTypes = EnumSet.noneOf(DianSchemaType.class);
+		private DianSeverityLevel severity;
+		private boolean enabled = true;
+		/**
+		 * Campo obligatorio, solo para reglas nuevas.
+		 */
+		private DianField field;
+		/**
+		 * Mensaje del hallazgo, solo para reglas nuevas.
+		 */
+		private String message;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.yesidrangel.dian.xml.validator.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.SerializationMetricsAdvice;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+	private final SerializationMetricsAdvice serializationMetrics;
+	private final DianValidatorProperties properties;
+
+	public WebMvcConfig(SerializationMetricsAdvice serializationMetrics, DianValidatorProperties properties) {
+		this.serializationMetrics = serializationMetrics;
+		this.properties = properties;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(serializationMetrics).addPathPatterns("/api/xml/**");
+	}
+
+	/**
+	 * La única solicitud asíncrona es el lote NDJSON ({@code StreamingResponseBody}). Sin este
+	 * timeout aplica el del contenedor (30 s en Tomcat), que corta a mitad de respuesta un lote que
+	 * tarda más; el lote sin streaming no tiene ese límite.
+	 */
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(streamTimeout().toMillis());
+	}
+
+	private Duration streamTimeout() {
+		DianValidatorProperties.Batch batch = properties.getBatch();
+		if (batch.getStreamTimeout() != null) {
+			return batch.getStreamTimeout();
+		}
+		DianValidatorProperties.Pipeline pipeline = properties.getPipeline();
+		Duration perDocument = pipeline.getParseBudget().plus(pipeline.getSemanticBudget())
+				.plus(pipeline.getSignatureBudget());
+		int parallelism = Math.max(batch.getParallelism(), 1);
+		return perDocument.multipliedBy((batch.getMaxSize() + parallelism - 1) / parallelism);
+	}
+
+	/**
+	 * Un error en una solicitud NDJSON ({@code Accept: application/x-ndjson}), como un lote vacío, se
+	 * responde con el mismo {@code ApiResponseDto}, como una única línea JSON.
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		for (HttpMessageConverter<?> converter : converters) {
+			if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+				List<MediaType> mediaTypes = new ArrayList<>(jackson.getSupportedMediaTypes());
+				mediaTypes.add(MediaType.APPLICATION_NDJSON);
+				jackson.setSupportedMediaTypes(mediaTypes);
+			}
+		}
+	}
+
+}
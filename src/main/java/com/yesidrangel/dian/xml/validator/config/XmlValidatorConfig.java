@@ -0,0 +1,186 @@
+package com.yesidrangel.dian.xml.validator.config;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yesidrangel.dian.xml.validator.repository.FileValidationJobStore;
+import com.yesidrangel.dian.xml.validator.repository.InMemoryValidationJobStore;
+import com.yesidrangel.dian.xml.validator.repository.ValidationJobStore;
+import com.yesidrangel.dian.xml.validator.service.cache.InMemoryValidationResultCache;
+import com.yesidrangel.dian.xml.validator.service.cache.ValidationResultCache;
+import com.yesidrangel.dian.xml.validator.service.signature.CertificateTrustValidator;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.CrlRevocationSource;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.LocalRevocationSource;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.OcspRevocationSource;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationSource;
+
+@Configuration
+@EnableConfigurationProperties(DianValidatorProperties.class)
+public class XmlValidatorConfig {
+
+	public static final String VALIDATION_EXECUTOR = "validationExecutor";
+	public static final String STAGE_EXECUTOR = "stageExecutor";
+	public static final String JOB_EXECUTOR = "jobExecutor";
+
+	private static final String REVOCATION = "dian.validator.signature.revocation";
+	private static final String JOBS = "dian.validator.jobs";
+
+	/**
+	 * Executor acotado para validar documentos en paralelo. Cuando la cola se llena, el hilo que
+	 * envía la tarea la ejecuta él mismo (CallerRuns), lo que frena al productor sin rechazar.
+	 */
+	@Bean(name = VALIDATION_EXECUTOR)
+	@ConditionalOnThreading(Threading.PLATFORM)
+	public ThreadPoolTaskExecutor validationExecutor(DianValidatorProperties properties) {
+		DianValidatorProperties.Batch batch = properties.getBatch();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(batch.getParallelism());
+		executor.setMaxPoolSize(batch.getParallelism());
+		executor.setQueueCapacity(batch.getMaxSize());
+		executor.setThreadNamePrefix("xml-validation-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	/**
+	 * Variante con hilos virtuales ({@code spring.threads.virtual.enabled=true}, Java 21+): un hilo
+	 * virtual por tarea, con el mismo límite de paralelismo porque la validación es sobre todo CPU.
+	 * El límite bloquea al productor con un Lock, no con synchronized, así que no fija el portador.
+	 */
+	@Bean(name = VALIDATION_EXECUTOR)
+	@ConditionalOnThreading(Threading.VIRTUAL)
+	public SimpleAsyncTaskExecutor virtualValidationExecutor(DianValidatorProperties properties) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("xml-validation-");
+		executor.setVirtualThreads(true);
+		executor.setConcurrencyLimit(properties.getBatch().getParallelism());
+		executor.setTaskTerminationTimeout(30_000);
+		return executor;
+	}
+
+	/**
+	 * Executor de las etapas que una validación corre en paralelo (la firma), separado de
+	 * {@link #VALIDATION_EXECUTOR}: un documento de un lote ocupa un cupo de ese executor y no puede
+	 * esperar otro cupo del mismo para su firma. Sin cola ni CallerRuns: lleno, rechaza la tarea
+	 * ({@code TaskRejectedException}) y la validación ejecuta la etapa en su propio hilo.
+	 */
+	@Bean(name = STAGE_EXECUTOR)
+	@ConditionalOnThreading(Threading.PLATFORM)
+	public ThreadPoolTaskExecutor stageExecutor(DianValidatorProperties properties) {
+		int parallelism = properties.getBatch().getParallelism();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(parallelism);
+		executor.setMaxPoolSize(parallelism);
+		executor.setQueueCapacity(0);
+		executor.setThreadNamePrefix("xml-validation-stage-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		return executor;
+	}
+
+	/**
+	 * Variante con hilos virtuales: al llegar al límite rechaza la tarea en lugar de bloquear al
+	 * que la envía.
+	 */
+	@Bean(name = STAGE_EXECUTOR)
+	@ConditionalOnThreading(Threading.VIRTUAL)
+	public SimpleAsyncTaskExecutor virtualStageExecutor(DianValidatorProperties properties) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("xml-validation-stage-");
+		executor.setVirtualThreads(true);
+		executor.setConcurrencyLimit(properties.getBatch().getParallelism());
+		executor.setRejectTasksWhenLimitReached(true);
+		return executor;
+	}
+
+	/**
+	 * Executor de los trabajos asíncronos, con cola acotada y sin CallerRuns: con la cola llena la
+	 * tarea se rechaza ({@code TaskRejectedException}) y el envío responde 429, en lugar de
+	 * ejecutarse en el hilo HTTP. Al apagar espera a los trabajos en curso hasta 30 s.
+	 */
+	@Bean(name = JOB_EXECUTOR)
+	public ThreadPoolTaskExecutor jobExecutor(DianValidatorProperties properties) {
+		DianValidatorProperties.Jobs jobs = properties.getJobs();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(jobs.getWorkers());
+		executor.setMaxPoolSize(jobs.getWorkers());
+		executor.setQueueCapacity(jobs.getQueueCapacity());
+		executor.setThreadNamePrefix("xml-validation-job-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		return executor;
+	}
+
+	/**
+	 * Almacén de trabajos según {@code dian.validator.jobs.store}, salvo que se declare otro.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = JOBS, name = "store", havingValue = "MEMORY", matchIfMissing = true)
+	@ConditionalOnMissingBean(ValidationJobStore.class)
+	public ValidationJobStore inMemoryValidationJobStore() {
+		return new InMemoryValidationJobStore();
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = JOBS, name = "store", havingValue = "FILE")
+	@ConditionalOnMissingBean(ValidationJobStore.class)
+	public ValidationJobStore fileValidationJobStore(DianValidatorProperties properties, ObjectMapper objectMapper) {
+		return new FileValidationJobStore(Path.of(properties.getJobs().getDirectory()), objectMapper);
+	}
+
+	/**
+	 * Caché de resultados en memoria, solo si {@code dian.validator.cache.enabled=true} y no se
+	 * declaró otra implementación (por ejemplo una distribuida).
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "dian.validator.cache", name = "enabled", havingValue = "true")
+	@ConditionalOnMissingBean(ValidationResultCache.class)
+	public ValidationResultCache validationResultCache(DianValidatorProperties properties) {
+		DianValidatorProperties.Cache cache = properties.getCache();
+		return new InMemoryValidationResultCache(cache.getMaxEntries(), cache.getTtl());
+	}
+
+	/**
+	 * Fuente de revocación según {@code dian.validator.signature.revocation.mode}; con NONE no se
+	 * declara ninguna y el estado no se verifica.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = REVOCATION, name = "mode", havingValue = "CRL")
+	@ConditionalOnMissingBean(RevocationSource.class)
+	public RevocationSource crlRevocationSource(DianValidatorProperties properties,
+			CertificateTrustValidator trustValidator) {
+		String directory = properties.getSignature().getRevocation().getCrlDirectory();
+		if (directory == null || directory.isBlank()) {
+			throw new IllegalStateException(REVOCATION + ".crl-directory es obligatorio con mode=CRL");
+		}
+		return new CrlRevocationSource(Path.of(directory), trustValidator.trustedCertificates());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = REVOCATION, name = "mode", havingValue = "OCSP")
+	@ConditionalOnMissingBean(RevocationSource.class)
+	public RevocationSource ocspRevocationSource(DianValidatorProperties properties) {
+		return new OcspRevocationSource(properties.getSignature().getRevocation().getOcspResponder());
+	}
+
+	/**
+	 * Responder local de prueba, para ambientes sin red.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = REVOCATION, name = "mode", havingValue = "LOCAL")
+	@ConditionalOnMissingBean(RevocationSource.class)
+	public RevocationSource localRevocationSource(DianValidatorProperties properties) {
+		return new LocalRevocationSource(properties.getSignature().getRevocation().getLocalRevokedSerials());
+	}
+
+}
@@ -1,34 +1,195 @@
 package com.yesidrangel.dian.xml.validator.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.yesidrangel.dian.xml.validator.domain.dto.ApiResponseDto;
 import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
 import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.SerializationMetricsAdvice;
 import com.yesidrangel.dian.xml.validator.infrastructure.reponse.ApiResponseFactory;
+import com.yesidrangel.dian.xml.validator.infrastructure.reponse.NdjsonResponseWriter;
+import com.yesidrangel.dian.xml.validator.service.ValidationJobService;
+import com.yesidrangel.dian.xml.validator.service.XmlBatchValidationService;
 import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
 
 @RestController
 @RequestMapping("/api/xml")
 public class XmlValidationController {
 	public static final String XML_VALIDATION = "XML_VALIDATION";
+	public static final String XML_BATCH_VALIDATION = "XML_BATCH_VALIDATION";
+	public static final String XML_VALIDATION_JOB = "XML_VALIDATION_JOB";
 
 	private final XmlValidationService xmlService;
+	private final XmlBatchValidationService batchService;
+	private final ValidationJobService jobService;
+	private final NdjsonResponseWriter ndjsonWriter;
 
-	public XmlValidationController(XmlValidationService xmlService) {
+	public XmlValidationController(XmlValidationService xmlService, XmlBatchValidationService batchService,
+			ValidationJobService jobService, NdjsonResponseWriter ndjsonWriter) {
 		this.xmlService = xmlService;
+		this.batchService = batchService;
+		this.jobService = jobService;
+		this.ndjsonWriter = ndjsonWriter;
 	}
 
 	@PostMapping("/validate")
 	public ResponseEntity<ApiResponseDto<XmlValidationResponseDto>> validate(
 			@RequestBody XmlValidationRequestDto request) {
+		SerializationMetricsAdvice.markDocumentType(request.getDocumentType());
 		XmlValidationResponseDto result = xmlService.validate(request);
 		return ResponseEntity.ok(
 				ApiResponseFactory.success(XML_VALIDATION, result)
 		);
 	}
+
+	/**
+	 * Valida el XML enviado como cuerpo crudo ({@code application/xml}). El parser lee directamente
+	 * del stream del servlet; los metadatos llegan por headers o query params.
+	 */
+	@PostMapping(value = "/validate", consumes = { MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE })
+	public ResponseEntity<ApiResponseDto<XmlValidationResponseDto>> validateRaw(
+			InputStream xml,
+			@RequestHeader(value = "X-Document-Type", required = false) String documentTypeHeader,
+			@RequestParam(value = "documentType", required = false) String documentType,
+			@RequestHeader(value = "X-Technical-Key", required = false) String technicalKeyHeader,
+			@RequestParam(value = "technicalKey", required = false) String technicalKey,
+			@RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+			@RequestParam(value = "failFast", required = false) Boolean failFast) {
+		XmlValidationRequestDto metadata = metadata(firstNonBlank(documentTypeHeader, documentType),
+				firstNonBlank(technicalKeyHeader, technicalKey), correlationId, failFast);
+		SerializationMetricsAdvice.markDocumentType(metadata.getDocumentType());
+		XmlValidationResponseDto result = xmlService.validate(xml, metadata);
+		return ResponseEntity.ok(
+				ApiResponseFactory.success(XML_VALIDATION, result)
+		);
+	}
+
+	/**
+	 * Valida el XML enviado como archivo en la parte {@code file} de un formulario multipart.
+	 */
+	@PostMapping(value = "/validate", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<ApiResponseDto<XmlValidationResponseDto>> validateUpload(
+			@RequestPart("file") MultipartFile file,
+			@RequestHeader(value = "X-Document-Type", required = false) String documentTypeHeader,
+			@RequestParam(value = "documentType", required = false) String documentType,
+			@RequestHeader(value = "X-Technical-Key", required = false) String technicalKeyHeader,
+			@RequestParam(value = "technicalKey", required = false) String technicalKey,
+			@RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+			@RequestParam(value = "failFast", required = false) Boolean failFast) throws IOException {
+		XmlValidationRequestDto metadata = metadata(firstNonBlank(documentTypeHeader, documentType),
+				firstNonBlank(technicalKeyHeader, technicalKey), correlationId, failFast);
+		SerializationMetricsAdvice.markDocumentType(metadata.getDocumentType());
+		try (InputStream xml = file.getInputStream()) {
+			XmlValidationResponseDto result = xmlService.validate(xml, metadata);
+			return ResponseEntity.ok(
+					ApiResponseFactory.success(XML_VALIDATION, result)
+			);
+		}
+	}
+
+	@PostMapping("/validate/batch")
+	public ResponseEntity<ApiResponseDto<List<XmlValidationResponseDto>>> validateBatch(
+			@RequestBody List<XmlValidationRequestDto> requests) {
+		SerializationMetricsAdvice.markBatch();
+		List<XmlValidationResponseDto> results = batchService.validateBatch(requests);
+		return ResponseEntity.ok(
+				ApiResponseFactory.success(XML_BATCH_VALIDATION, results)
+		);
+	}
+
+	/**
+	 * Lote en streaming ({@code Accept: application/x-ndjson}): cada resultado se escribe como una
+	 * línea JSON apenas termina su documento, en orden de finalización y con su correlationId. Un
+	 * lote vacío o demasiado grande se rechaza antes de empezar a responder.
+	 */
+	@PostMapping(value = "/validate/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> validateBatchStream(
+			@RequestBody List<XmlValidationRequestDto> requests) {
+		Stream<XmlValidationResponseDto> results = batchService.streamBatch(requests);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(ndjsonWriter.body(results, SerializationMetricsAdvice.BATCH));
+	}
+
+	/**
+	 * Encola la validación de un documento y responde 202 con el id del trabajo, sin esperar el
+	 * resultado. Con la cola llena responde 429.
+	 */
+	@PostMapping("/jobs")
+	public ResponseEntity<ApiResponseDto<ValidationJob>> submitJob(@RequestBody XmlValidationRequestDto request) {
+		return accepted(jobService.submit(request));
+	}
+
+	@PostMapping(value = "/jobs", consumes = { MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE })
+	public ResponseEntity<ApiResponseDto<ValidationJob>> submitRawJob(
+			InputStream xml,
+			@RequestHeader(value = "X-Document-Type", required = false) String documentTypeHeader,
+			@RequestParam(value = "documentType", required = false) String documentType,
+			@RequestHeader(value = "X-Technical-Key", required = false) String technicalKeyHeader,
+			@RequestParam(value = "technicalKey", required = false) String technicalKey,
+			@RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+			@RequestParam(value = "failFast", required = false) Boolean failFast) {
+		XmlValidationRequestDto metadata = metadata(firstNonBlank(documentTypeHeader, documentType),
+				firstNonBlank(technicalKeyHeader, technicalKey), correlationId, failFast);
+		return accepted(jobService.submit(xml, metadata));
+	}
+
+	@PostMapping("/jobs/batch")
+	public ResponseEntity<ApiResponseDto<ValidationJob>> submitBatchJob(
+			@RequestBody List<XmlValidationRequestDto> requests) {
+		return accepted(jobService.submitBatch(requests));
+	}
+
+	/**
+	 * Estado del trabajo; los resultados vienen cuando termina (COMPLETED). 404 si no existe o ya
+	 * superó la retención.
+	 */
+	@GetMapping("/jobs/{id}")
+	public ResponseEntity<ApiResponseDto<?>> getJob(@PathVariable String id) {
+		return jobService.find(id)
+				.<ResponseEntity<ApiResponseDto<?>>>map(job -> ResponseEntity.ok(
+						ApiResponseFactory.success(XML_VALIDATION_JOB, job)))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+						.body(ApiResponseFactory.notFound("No existe el trabajo " + id)));
+	}
+
+	private static ResponseEntity<ApiResponseDto<ValidationJob>> accepted(ValidationJob job) {
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/xml/jobs/" + job.id()))
+				.body(ApiResponseFactory.accepted(XML_VALIDATION_JOB, job));
+	}
+
+	private static XmlValidationRequestDto metadata(String documentType, String technicalKey,
+			String correlationId, Boolean failFast) {
+		XmlValidationRequestDto metadata = new XmlValidationRequestDto();
+		metadata.setDocumentType(documentType);
+		metadata.setTechnicalKey(technicalKey);
+		metadata.setCorrelationId(correlationId);
+		metadata.setFailFast(failFast);
+		return metadata;
+	}
+
+	private static String firstNonBlank(String first, String second) {
+		return first != null && !first.isBlank() ? first : second;
+	}
 }
@@ -1,12 +1,54 @@
 package com.yesidrangel.dian.xml.validator.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 public class ValidationErrorDto {
-    private String type;      // XSD | SEMANTIC | SIGNATURE
-    private String severity;  // INFO | WARNING | ERROR
+    private String type;      // REQUEST | XSD | SEMANTIC | SIGNATURE | PIPELINE
+    private String severity;  // INFO | WARNING | ERROR | FATAL
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String code;      // Código DIAN (FAD06...), si aplica
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String location;  // XPath del elemento, si se conoce
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer line;     // Posición SAX (errores XSD)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer column;
     private String message;
+
+    // Origen del mensaje: se arma en getMessage(), al serializar
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ValidationFinding finding;
+
+    public static ValidationErrorDto of(ValidationFinding finding) {
+        ValidationErrorDto dto = new ValidationErrorDto();
+        dto.type = finding.type().name();
+        dto.severity = finding.severity().getLabel();
+        dto.code = finding.dianCode();
+        dto.location = finding.location();
+        dto.line = position(finding.line());
+        dto.column = position(finding.column());
+        dto.finding = finding;
+        return dto;
+    }
+
+    private static Integer position(int value) {
+        return value == ValidationFinding.UNKNOWN_POSITION ? null : value;
+    }
+
+    public String getMessage() {
+        if (message == null && finding != null) {
+            message = finding.render();
+        }
+        return message;
+    }
 }
@@ -8,5 +8,7 @@ public class XmlValidationRequestDto {
 	private String xml;
 	private String documentType;
 	private String technicalKey;
+	private String correlationId; // Opcional, se devuelve en la respuesta
+	private Boolean failFast; // Opcional, por defecto dian.validator.pipeline.fail-fast
 
 }
@@ -9,6 +9,7 @@ import lombok.Data;
 @Data
 public class XmlValidationResponseDto {
 
+	private String correlationId;
 	private boolean valid;
 	private List<ValidationErrorDto> errors;
 	private DianSeverityLevel maxSeverity;
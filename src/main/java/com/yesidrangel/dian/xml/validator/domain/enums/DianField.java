@@ -0,0 +1,53 @@
+package com.yesidrangel.dian.xml.validator.domain.enums;
+
+/**
+ * Campos que el extractor puede leer del documento. Cada regla declara los que necesita y el plan
+ * de cada tipo de documento extrae solo la unión de ellos.
+ */
+public enum DianField {
+
+	/** cbc:ID */
+	ID("cbc:ID"),
+
+	/** cbc:UUID (CUFE/CUDE) */
+	UUID("cbc:UUID"),
+
+	/** cbc:IssueDate */
+	ISSUE_DATE("cbc:IssueDate"),
+
+	/** cbc:IssueTime */
+	ISSUE_TIME("cbc:IssueTime"),
+
+	/** cbc:ProfileExecutionID */
+	PROFILE_EXECUTION_ID("cbc:ProfileExecutionID"),
+
+	/** cac:AccountingSupplierParty/cac:Party/cac:PartyTaxScheme/cbc:CompanyID */
+	SUPPLIER_COMPANY_ID("cac:AccountingSupplierParty/cac:Party/cac:PartyTaxScheme/cbc:CompanyID"),
+
+	/** cac:AccountingCustomerParty/cac:Party/cac:PartyTaxScheme/cbc:CompanyID */
+	CUSTOMER_COMPANY_ID("cac:AccountingCustomerParty/cac:Party/cac:PartyTaxScheme/cbc:CompanyID"),
+
+	/** cac:LegalMonetaryTotal */
+	MONETARY_TOTALS("cac:LegalMonetaryTotal"),
+
+	/** cac:TaxTotal del encabezado */
+	TAX_TOTALS("cac:TaxTotal"),
+
+	/** Líneas del documento (cac:InvoiceLine, cac:CreditNoteLine, cac:DebitNoteLine) */
+	LINES(null);
+
+	/**
+	 * Ruta relativa a la raíz del documento, para ubicar los hallazgos; null en las líneas, cuyo
+	 * elemento depende del tipo de documento.
+	 */
+	private final String path;
+
+	DianField(String path) {
+		this.path = path;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+}
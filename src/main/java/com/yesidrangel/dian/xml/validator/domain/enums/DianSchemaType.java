@@ -11,18 +11,23 @@ import lombok.Getter;
 @Getter
 public enum DianSchemaType {
 
-	INVOICE("INVOICE", "xsd/factura/maindoc/UBL-Invoice-2.1.xsd"),
+	INVOICE("INVOICE", "xsd/factura/maindoc/UBL-Invoice-2.1.xsd", "Invoice"),
 
-	CREDIT_NOTE("CREDIT_NOTE", "xsd/factura/maindoc/UBL-CreditNote-2.1.xsd"),
+	CREDIT_NOTE("CREDIT_NOTE", "xsd/factura/maindoc/UBL-CreditNote-2.1.xsd", "CreditNote"),
 
-	DOCUMENTO_SOPORTE("DOCUMENTO_SOPORTE", "xsd/documento-soporte/maindoc/UBL-Invoice-2.1.xsd");
+	DOCUMENTO_SOPORTE("DOCUMENTO_SOPORTE", "xsd/documento-soporte/maindoc/UBL-Invoice-2.1.xsd", "Invoice");
 
 	private final String code;
 	private final String xsdPath;
+	/**
+	 * Nombre local del elemento raíz; las líneas son {@code cac:<raíz>Line}.
+	 */
+	private final String rootElement;
 
-	DianSchemaType(String code, String xsdPath) {
+	DianSchemaType(String code, String xsdPath, String rootElement) {
 		this.code = code;
 		this.xsdPath = xsdPath;
+		this.rootElement = rootElement;
 	}
 
 	private static final Map<String, DianSchemaType> BY_NAME = Arrays.stream(values())
@@ -5,8 +5,9 @@ import lombok.Getter;
 @Getter
 public enum ResponseCodeEnum {
 
-	SUCCESS("200", "Operación exitosa"), VALIDATION_ERROR("400", "Error de validación"), NOT_FOUND("404",
-			"Recurso no encontrado"), INTERNAL_ERROR("500", "Error interno del servidor");
+	SUCCESS("200", "Operación exitosa"), ACCEPTED("202", "Solicitud aceptada"),
+	VALIDATION_ERROR("400", "Error de validación"), NOT_FOUND("404", "Recurso no encontrado"),
+	TOO_MANY_REQUESTS("429", "Demasiadas solicitudes"), INTERNAL_ERROR("500", "Error interno del servidor");
 
 	private final String code;
 	private final String message;
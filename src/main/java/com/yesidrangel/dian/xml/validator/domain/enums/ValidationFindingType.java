@@ -0,0 +1,23 @@
+package com.yesidrangel.dian.xml.validator.domain.enums;
+
+/**
+ * Origen de un hallazgo ({@code ValidationErrorDto.type}).
+ */
+public enum ValidationFindingType {
+
+	/** La solicitud no se pudo validar (por ejemplo, dentro de un lote). */
+	REQUEST,
+
+	/** Buena formación, límites del parser y esquema XSD. */
+	XSD,
+
+	/** Reglas semánticas DIAN. */
+	SEMANTIC,
+
+	/** Firma XAdES y certificado. */
+	SIGNATURE,
+
+	/** Avisos del propio pipeline, como las etapas omitidas por failFast. */
+	PIPELINE
+
+}
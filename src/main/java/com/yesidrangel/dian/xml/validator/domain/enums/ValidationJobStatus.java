@@ -0,0 +1,14 @@
+package com.yesidrangel.dian.xml.validator.domain.enums;
+
+/**
+ * Estado de un trabajo de validación asíncrono.
+ */
+public enum ValidationJobStatus {
+
+	QUEUED, RUNNING, COMPLETED, FAILED;
+
+	public boolean isFinished() {
+		return this == COMPLETED || this == FAILED;
+	}
+
+}
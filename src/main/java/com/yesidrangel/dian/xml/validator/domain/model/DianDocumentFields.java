@@ -0,0 +1,40 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import java.util.Map;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+
+/**
+ * Campos de encabezado de un documento DIAN extraídos en una sola pasada. Son las entradas del
+ * CUFE/CUDE y de las reglas semánticas de encabezado. Los valores vienen recortados y vacíos si
+ * el elemento no existe.
+ *
+ * @param totals     {@code cac:LegalMonetaryTotal} en centavos
+ * @param lines      montos por línea ({@code cac:InvoiceLine}/{@code cac:CreditNoteLine})
+ * @param taxAmounts monto de {@code cac:TaxTotal/cbc:TaxAmount} del encabezado por código de
+ *                   tributo (01=IVA, 04=INC, 03=ICA siempre presentes)
+ */
+public record DianDocumentFields(
+        DianSchemaType documentType,
+        String uuid,
+        String id,
+        String issueDate,
+        String issueTime,
+        String profileExecutionId,
+        String lineExtensionAmount,
+        String payableAmount,
+        String supplierCompanyId,
+        String customerCompanyId,
+        MonetaryTotals totals,
+        DianLineItems lines,
+        Map<String, String> taxAmounts) {
+
+    public DianDocumentFields {
+        taxAmounts = Map.copyOf(taxAmounts);
+    }
+
+    public int lineCount() {
+        return lines.size();
+    }
+
+}
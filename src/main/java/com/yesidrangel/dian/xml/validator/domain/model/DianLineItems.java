@@ -0,0 +1,199 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.yesidrangel.dian.xml.validator.util.DianAmountUtil;
+
+/**
+ * Montos de las líneas del documento ({@code cac:InvoiceLine}, {@code cac:CreditNoteLine}) en
+ * arreglos primitivos, uno por campo, con montos en centavos y cantidades/precios con
+ * {@link DianAmountUtil#QUANTITY} decimales. Ocupa unos pocos bytes por línea y las sumas son un
+ * recorrido lineal sin objetos intermedios.
+ * <p>
+ * Inmutable una vez construido con {@link Builder}. Cantidad y precio valen
+ * {@link DianAmountUtil#ABSENT} si la línea no los trae.
+ */
+public final class DianLineItems {
+
+    public static final DianLineItems EMPTY = new Builder().build();
+
+    // 1 con escala DianAmountUtil.QUANTITY
+    private static final long ONE_UNIT = 1_000_000L;
+
+    private final int size;
+    private final long[] lineExtensionCents;
+    private final long[] quantity;
+    private final long[] priceAmount;
+    private final long[] baseQuantity;
+    private final long[] allowanceCents;
+    private final long[] chargeCents;
+    private final Map<String, long[]> taxCentsByCode;
+
+    private DianLineItems(Builder builder) {
+        this.size = builder.size;
+        this.lineExtensionCents = Arrays.copyOf(builder.lineExtensionCents, size);
+        this.quantity = Arrays.copyOf(builder.quantity, size);
+        this.priceAmount = Arrays.copyOf(builder.priceAmount, size);
+        this.baseQuantity = Arrays.copyOf(builder.baseQuantity, size);
+        this.allowanceCents = Arrays.copyOf(builder.allowanceCents, size);
+        this.chargeCents = Arrays.copyOf(builder.chargeCents, size);
+        Map<String, long[]> taxes = new HashMap<>();
+        builder.taxCentsByCode.forEach((code, values) -> taxes.put(code, Arrays.copyOf(values, size)));
+        this.taxCentsByCode = Map.copyOf(taxes);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@code cbc:LineExtensionAmount} de la línea {@code index}, en centavos.
+     */
+    public long lineExtensionCents(int index) {
+        return lineExtensionCents[index];
+    }
+
+    /**
+     * {@code cbc:InvoicedQuantity} (o {@code CreditedQuantity}/{@code DebitedQuantity}).
+     */
+    public long quantity(int index) {
+        return quantity[index];
+    }
+
+    /**
+     * {@code cac:Price/cbc:PriceAmount}.
+     */
+    public long priceAmount(int index) {
+        return priceAmount[index];
+    }
+
+    /**
+     * {@code cac:Price/cbc:BaseQuantity}; 1 si no viene o es cero.
+     */
+    public long baseQuantity(int index) {
+        return baseQuantity[index];
+    }
+
+    /**
+     * Suma de los {@code cac:AllowanceCharge} de la línea con {@code ChargeIndicator=false}.
+     */
+    public long allowanceCents(int index) {
+        return allowanceCents[index];
+    }
+
+    /**
+     * Suma de los {@code cac:AllowanceCharge} de la línea con {@code ChargeIndicator=true}.
+     */
+    public long chargeCents(int index) {
+        return chargeCents[index];
+    }
+
+    /**
+     * Códigos de tributo que aparecen en alguna línea.
+     */
+    public Set<String> taxCodes() {
+        return taxCentsByCode.keySet();
+    }
+
+    /**
+     * Suma de {@code cbc:LineExtensionAmount} de las líneas {@code [from, to)}.
+     */
+    public long lineExtensionSum(int from, int to) {
+        return sum(lineExtensionCents, from, to);
+    }
+
+    /**
+     * Suma de los impuestos del tributo en las líneas {@code [from, to)}.
+     */
+    public long taxSum(String code, int from, int to) {
+        long[] taxes = taxCentsByCode.get(code);
+        return taxes == null ? 0L : sum(taxes, from, to);
+    }
+
+    private static long sum(long[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Acumula líneas en arreglos que crecen al doble, como un {@code ArrayList} sin boxing.
+     */
+    public static final class Builder {
+
+        private int size;
+        private long[] lineExtensionCents = new long[16];
+        private long[] quantity = new long[16];
+        private long[] priceAmount = new long[16];
+        private long[] baseQuantity = new long[16];
+        private long[] allowanceCents = new long[16];
+        private long[] chargeCents = new long[16];
+        private final Map<String, long[]> taxCentsByCode = new HashMap<>();
+
+        /**
+         * Abre una nueva línea; los valores siguientes se asignan a ella.
+         */
+        public Builder nextLine() {
+            if (size == lineExtensionCents.length) {
+                int capacity = size * 2;
+                lineExtensionCents = Arrays.copyOf(lineExtensionCents, capacity);
+                quantity = Arrays.copyOf(quantity, capacity);
+                priceAmount = Arrays.copyOf(priceAmount, capacity);
+                baseQuantity = Arrays.copyOf(baseQuantity, capacity);
+                allowanceCents = Arrays.copyOf(allowanceCents, capacity);
+                chargeCents = Arrays.copyOf(chargeCents, capacity);
+                taxCentsByCode.replaceAll((code, taxes) -> Arrays.copyOf(taxes, capacity));
+            }
+            quantity[size] = DianAmountUtil.ABSENT;
+            priceAmount[size] = DianAmountUtil.ABSENT;
+            baseQuantity[size] = ONE_UNIT;
+            size++;
+            return this;
+        }
+
+        public Builder lineExtension(long cents) {
+            lineExtensionCents[size - 1] = cents;
+            return this;
+        }
+
+        public Builder quantity(long value) {
+            quantity[size - 1] = value;
+            return this;
+        }
+
+        public Builder priceAmount(long value) {
+            priceAmount[size - 1] = value;
+            return this;
+        }
+
+        public Builder baseQuantity(long value) {
+            if (value != DianAmountUtil.ABSENT && value != 0) {
+                baseQuantity[size - 1] = value;
+            }
+            return this;
+        }
+
+        public Builder addAllowanceCharge(boolean charge, long cents) {
+            if (charge) {
+                chargeCents[size - 1] += cents;
+            } else {
+                allowanceCents[size - 1] += cents;
+            }
+            return this;
+        }
+
+        public Builder addTax(String code, long cents) {
+            taxCentsByCode.computeIfAbsent(code, c -> new long[lineExtensionCents.length])[size - 1] += cents;
+            return this;
+        }
+
+        public DianLineItems build() {
+            return new DianLineItems(this);
+        }
+    }
+}
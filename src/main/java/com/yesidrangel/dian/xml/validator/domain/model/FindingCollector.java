@@ -0,0 +1,203 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.xml.sax.SAXParseException;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+
+/**
+ * Acumula los hallazgos de una etapa con su {@link ValidationFindingType}. Lleva la cuenta por
+ * severidad y la severidad máxima a medida que se agregan, así que consultar si hay un error
+ * bloqueante es O(1) y no recorre ni compara mensajes.
+ * <p>
+ * Un colector acotado ({@link #bounded}) guarda hasta un máximo de hallazgos: los siguientes solo
+ * se cuentan. Al llegar a ese máximo o al vencer el presupuesto de tiempo queda agotado
+ * ({@link #exhausted()}), y la etapa que lo llena debe detenerse y marcarlo con {@link #abort()}.
+ * <p>
+ * No es seguro entre hilos: cada etapa usa el suyo y el pipeline los combina con
+ * {@link #addAll(FindingCollector)}.
+ */
+public final class FindingCollector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ValidationFindingType type;
+    private final List<ValidationFinding> findings;
+    private final int[] counts = new int[DianSeverityLevel.values().length];
+    private final int limit;
+    private final long deadline;
+    private final boolean timed;
+    private DianSeverityLevel maxSeverity = DianSeverityLevel.INFO;
+    private int dropped;
+    private boolean aborted;
+
+    public FindingCollector(ValidationFindingType type) {
+        this(type, INITIAL_CAPACITY);
+    }
+
+    public FindingCollector(ValidationFindingType type, int expectedSize) {
+        this(type, expectedSize, Integer.MAX_VALUE, null);
+    }
+
+    private FindingCollector(ValidationFindingType type, int expectedSize, int limit, Duration budget) {
+        this.type = type;
+        this.findings = new ArrayList<>(Math.min(expectedSize, limit));
+        this.limit = limit;
+        this.timed = budget != null;
+        this.deadline = timed ? System.nanoTime() + budget.toNanos() : 0;
+    }
+
+    /**
+     * Colector que guarda hasta {@code limit} hallazgos y cuyo presupuesto de tiempo corre desde
+     * ahora.
+     *
+     * @param budget tiempo disponible para la etapa, o null sin límite
+     */
+    public static FindingCollector bounded(ValidationFindingType type, int limit, Duration budget) {
+        return new FindingCollector(type, INITIAL_CAPACITY, Math.max(limit, 1), budget);
+    }
+
+    public void add(DianSeverityLevel severity, String message) {
+        add(ValidationFinding.of(type, severity, message));
+    }
+
+    /**
+     * @param pattern   texto con marcadores {@code {}}; se arma solo al serializar
+     * @param arguments valores de los marcadores
+     */
+    public void add(DianSeverityLevel severity, String dianCode, String location, String pattern,
+            Object... arguments) {
+        add(new ValidationFinding(type, severity, dianCode, location, ValidationFinding.UNKNOWN_POSITION,
+                ValidationFinding.UNKNOWN_POSITION, pattern, arguments));
+    }
+
+    /**
+     * Error del parser o del esquema, con su línea y columna.
+     */
+    public void add(DianSeverityLevel severity, SAXParseException e) {
+        add(new ValidationFinding(type, severity, null, null, e.getLineNumber(), e.getColumnNumber(),
+                e.getMessage(), ValidationFinding.NO_ARGUMENTS));
+    }
+
+    public void add(ValidationFinding finding) {
+        if (findings.size() < limit) {
+            findings.add(finding);
+        } else {
+            dropped++;
+        }
+        track(finding.severity(), 1);
+    }
+
+    /**
+     * Nota del pipeline (etapas omitidas, validación detenida): se guarda aunque se haya alcanzado
+     * el máximo.
+     */
+    public void note(ValidationFinding finding) {
+        findings.add(finding);
+        track(finding.severity(), 1);
+    }
+
+    /**
+     * Agrega los hallazgos de otra etapa, en su orden y hasta el máximo, sin recalcular sus cuentas.
+     */
+    public void addAll(FindingCollector other) {
+        int room = Math.max(limit - findings.size(), 0);
+        if (other.findings.size() <= room) {
+            findings.addAll(other.findings);
+        } else {
+            findings.addAll(other.findings.subList(0, room));
+            dropped += other.findings.size() - room;
+        }
+        dropped += other.dropped;
+        for (DianSeverityLevel level : DianSeverityLevel.values()) {
+            if (other.counts[level.ordinal()] > 0) {
+                track(level, other.counts[level.ordinal()]);
+            }
+        }
+    }
+
+    private void track(DianSeverityLevel severity, int count) {
+        counts[severity.ordinal()] += count;
+        if (severity.compareTo(maxSeverity) > 0) {
+            maxSeverity = severity;
+        }
+    }
+
+    /**
+     * Se alcanzó el máximo de hallazgos o venció el presupuesto de tiempo.
+     */
+    public boolean exhausted() {
+        return findings.size() >= limit || expired();
+    }
+
+    public boolean expired() {
+        return timed && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Marca la etapa como detenida antes de terminar.
+     */
+    public void abort() {
+        aborted = true;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Hallazgos guardados.
+     */
+    public int size() {
+        return findings.size();
+    }
+
+    /**
+     * Hallazgos contados pero no guardados por superar el máximo.
+     */
+    public int dropped() {
+        return dropped;
+    }
+
+    /**
+     * Hallazgos registrados, guardados o no.
+     */
+    public int total() {
+        return findings.size() + dropped;
+    }
+
+    public boolean isEmpty() {
+        return findings.isEmpty();
+    }
+
+    public int count(DianSeverityLevel severity) {
+        return counts[severity.ordinal()];
+    }
+
+    /**
+     * Severidad más alta registrada; INFO si no hay hallazgos.
+     */
+    public DianSeverityLevel maxSeverity() {
+        return maxSeverity;
+    }
+
+    /**
+     * Hay al menos un hallazgo ERROR o FATAL.
+     */
+    public boolean hasBlocking() {
+        return maxSeverity.compareTo(DianSeverityLevel.ERROR) >= 0;
+    }
+
+    public List<ValidationFinding> findings() {
+        return Collections.unmodifiableList(findings);
+    }
+}
@@ -0,0 +1,33 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import com.yesidrangel.dian.xml.validator.util.DianAmountUtil;
+
+/**
+ * Montos de {@code cac:LegalMonetaryTotal} en centavos. Un elemento ausente vale
+ * {@link DianAmountUtil#ABSENT}.
+ */
+public record MonetaryTotals(
+        long lineExtensionCents,
+        long taxExclusiveCents,
+        long taxInclusiveCents,
+        long allowanceTotalCents,
+        long chargeTotalCents,
+        long prepaidCents,
+        long payableRoundingCents,
+        long payableCents) {
+
+    public static final MonetaryTotals ABSENT = new MonetaryTotals(DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+            DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+            DianAmountUtil.ABSENT, DianAmountUtil.ABSENT);
+
+    public static boolean isPresent(long cents) {
+        return cents != DianAmountUtil.ABSENT;
+    }
+
+    /**
+     * El monto, o 0 si no viene en el documento.
+     */
+    public static long orZero(long cents) {
+        return isPresent(cents) ? cents : 0L;
+    }
+}
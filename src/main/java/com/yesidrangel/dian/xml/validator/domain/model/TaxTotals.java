@@ -0,0 +1,43 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.yesidrangel.dian.xml.validator.util.DianAmountUtil;
+
+/**
+ * Suma de impuestos por código de tributo (01=IVA, 04=INC, 03=ICA...) en centavos. Cada monto se
+ * parsea una vez al agregarlo; las sumas nunca vuelven a pasar por texto.
+ */
+public class TaxTotals {
+
+    private static final String[] REQUIRED_CODES = { "01", "04", "03" };
+
+    private final Map<String, long[]> cents = new HashMap<>();
+
+    public void add(String code, long amountCents) {
+        cents.computeIfAbsent(code, c -> new long[1])[0] += amountCents;
+    }
+
+    public long get(String code) {
+        long[] value = cents.get(code);
+        return value == null ? 0L : value[0];
+    }
+
+    public Iterable<String> codes() {
+        return cents.keySet();
+    }
+
+    /**
+     * Montos formateados con dos decimales, con los códigos que exige el CUFE siempre presentes.
+     */
+    public Map<String, String> toAmounts() {
+        Map<String, String> amounts = new LinkedHashMap<>();
+        for (String code : REQUIRED_CODES) {
+            amounts.put(code, DianAmountUtil.formatCents(get(code)));
+        }
+        cents.forEach((code, value) -> amounts.putIfAbsent(code, DianAmountUtil.formatCents(value[0])));
+        return amounts;
+    }
+}
@@ -0,0 +1,53 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+
+/**
+ * Hallazgo de validación estructurado: origen, severidad, código DIAN, ubicación y posición en el
+ * documento. El texto se guarda como patrón ({@code {}} al estilo SLF4J) y argumentos, y solo se
+ * arma en {@link #message()}, normalmente al serializar la respuesta.
+ *
+ * @param dianCode código del anexo técnico, o null
+ * @param location XPath del elemento, o null
+ * @param line     línea en el documento (SAX), o {@link #UNKNOWN_POSITION}
+ * @param column   columna en el documento (SAX), o {@link #UNKNOWN_POSITION}
+ */
+public record ValidationFinding(
+        ValidationFindingType type,
+        DianSeverityLevel severity,
+        String dianCode,
+        String location,
+        int line,
+        int column,
+        String pattern,
+        Object[] arguments) {
+
+    public static final int UNKNOWN_POSITION = -1;
+
+    static final Object[] NO_ARGUMENTS = new Object[0];
+
+    public static ValidationFinding of(ValidationFindingType type, DianSeverityLevel severity, String message) {
+        return new ValidationFinding(type, severity, null, null, UNKNOWN_POSITION, UNKNOWN_POSITION, message,
+                NO_ARGUMENTS);
+    }
+
+    /**
+     * Texto del hallazgo, sin severidad ni código.
+     */
+    public String message() {
+        return arguments.length == 0 ? pattern : MessageFormatter.arrayFormat(pattern, arguments).getMessage();
+    }
+
+    /**
+     * Mensaje completo con el formato histórico de la API: {@code SEVERIDAD: [CÓDIGO] texto}.
+     */
+    public String render() {
+        String text = message();
+        return dianCode == null
+                ? severity.getLabel() + ": " + text
+                : severity.getLabel() + ": [" + dianCode + "] " + text;
+    }
+}
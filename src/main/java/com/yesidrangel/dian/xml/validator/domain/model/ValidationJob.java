@@ -0,0 +1,44 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationJobStatus;
+
+/**
+ * Trabajo de validación asíncrono. Inmutable: cada cambio de estado produce una copia que se guarda
+ * en el almacén, así que quien consulta nunca ve un estado a medio escribir.
+ *
+ * @param documents número de documentos del trabajo
+ * @param results   un resultado por documento, en el orden enviado; null hasta que termina
+ * @param error     causa de un trabajo FAILED
+ */
+public record ValidationJob(
+        String id,
+        ValidationJobStatus status,
+        int documents,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        List<XmlValidationResponseDto> results,
+        String error) {
+
+    public static ValidationJob queued(String id, int documents, Instant now) {
+        return new ValidationJob(id, ValidationJobStatus.QUEUED, documents, now, null, null, null, null);
+    }
+
+    public ValidationJob running(Instant now) {
+        return new ValidationJob(id, ValidationJobStatus.RUNNING, documents, submittedAt, now, null, null, null);
+    }
+
+    public ValidationJob completed(Instant now, List<XmlValidationResponseDto> results) {
+        return new ValidationJob(id, ValidationJobStatus.COMPLETED, documents, submittedAt, startedAt, now,
+                results, null);
+    }
+
+    public ValidationJob failed(Instant now, String error) {
+        return new ValidationJob(id, ValidationJobStatus.FAILED, documents, submittedAt, startedAt, now, null,
+                error);
+    }
+}
@@ -0,0 +1,33 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instante hasta el cual el resultado de una validación sigue siendo el mismo. Las reglas que
+ * dependen del reloj (IssueDate futura, vigencia del certificado) lo acotan; el caché de
+ * resultados no sirve una entrada más allá de él.
+ * <p>
+ * Seguro entre hilos: las etapas semántica y de firma lo acotan en paralelo.
+ */
+public class ValidityHorizon {
+
+    private final AtomicReference<Instant> until = new AtomicReference<>();
+
+    /**
+     * Indica que el resultado puede cambiar a partir de {@code instant}.
+     */
+    public void changesAt(Instant instant) {
+        until.accumulateAndGet(instant, (current, candidate) ->
+                current == null || candidate.isBefore(current) ? candidate : current);
+    }
+
+    /**
+     * @return el primer instante en que el resultado puede cambiar, o vacío si no depende del reloj
+     */
+    public Optional<Instant> until() {
+        return Optional.ofNullable(until.get());
+    }
+
+}
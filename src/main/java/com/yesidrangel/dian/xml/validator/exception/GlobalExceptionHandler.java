@@ -1,6 +1,8 @@
 package com.yesidrangel.dian.xml.validator.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -14,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+	private static final int RETRY_AFTER_SECONDS = 5;
+
 	@ExceptionHandler(IllegalArgumentException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public ApiResponseDto handleIllegalArgument(IllegalArgumentException ex) {
@@ -35,4 +39,13 @@ public class GlobalExceptionHandler {
 		return ApiResponseFactory.badRequest(ex.getMessage());
 	}
 
+	// Cola de trabajos llena → 429 Too Many Requests, con el tiempo sugerido para reintentar
+	@ExceptionHandler(JobQueueFullException.class)
+	public ResponseEntity<ApiResponseDto<Void>> handleJobQueueFull(JobQueueFullException ex) {
+		log.warn(ex.getMessage());
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+				.body(ApiResponseFactory.tooManyRequests(ex.getMessage()));
+	}
+
 }
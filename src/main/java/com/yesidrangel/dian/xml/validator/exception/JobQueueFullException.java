@@ -0,0 +1,12 @@
+package com.yesidrangel.dian.xml.validator.exception;
+
+/**
+ * La cola de trabajos asíncronos está llena; el cliente debe reintentar más tarde (HTTP 429).
+ */
+public class JobQueueFullException extends RuntimeException {
+
+	public JobQueueFullException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
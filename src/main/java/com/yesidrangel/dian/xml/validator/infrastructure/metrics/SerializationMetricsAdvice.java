@@ -0,0 +1,84 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.yesidrangel.dian.xml.validator.controller.XmlValidationController;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Mide la etapa de serialización: marca el inicio justo antes de que el converter escriba el cuerpo
+ * ({@link ResponseBodyAdvice}) y registra el tiempo al terminar la solicitud
+ * ({@link HandlerInterceptor#afterCompletion}). El controlador indica el tipo de documento con
+ * {@link #markDocumentType(String)} o {@link #markBatch()}.
+ */
+@ControllerAdvice(assignableTypes = XmlValidationController.class)
+public class SerializationMetricsAdvice implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    public static final String BATCH = "BATCH";
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String DOCUMENT_TYPE_ATTRIBUTE = SerializationMetricsAdvice.class.getName() + ".documentType";
+    private static final String START_ATTRIBUTE = SerializationMetricsAdvice.class.getName() + ".start";
+
+    private final ValidationMetrics metrics;
+
+    public SerializationMetricsAdvice(ValidationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Etiqueta la serialización de la solicitud actual con el tipo de documento. Valores fuera de
+     * {@link DianSchemaType} se agrupan como UNKNOWN para acotar la cardinalidad del tag.
+     */
+    public static void markDocumentType(String documentType) {
+        mark(DianSchemaType.forName(documentType).map(Enum::name).orElse(UNKNOWN));
+    }
+
+    public static void markBatch() {
+        mark(BATCH);
+    }
+
+    private static void mark(String documentType) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DOCUMENT_TYPE_ATTRIBUTE, documentType, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start
+                && request.getAttribute(DOCUMENT_TYPE_ATTRIBUTE) instanceof String documentType) {
+            metrics.recordSerialization(documentType, System.nanoTime() - start,
+                    ex == null ? ValidationTimings.OUTCOME_OK : ValidationTimings.OUTCOME_ERROR);
+        }
+    }
+}
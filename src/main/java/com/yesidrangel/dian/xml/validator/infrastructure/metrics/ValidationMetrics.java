@@ -0,0 +1,160 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.metrics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Métricas Micrometer del pipeline de validación:
+ * <ul>
+ * <li>{@code dian.validation.stage}: timer por etapa, tags {@code stage}, {@code documentType},
+ * {@code outcome}</li>
+ * <li>{@code dian.validation.document.size} y {@code dian.validation.document.lines}: tamaño y
+ * número de líneas por {@code documentType}</li>
+ * <li>{@code dian.validation.signature.canonicalized}: bytes canonicalizados para verificar las
+ * referencias de la firma, por {@code documentType}</li>
+ * <li>{@code dian.validation.findings}: hallazgos por {@code severity} y {@code documentType}</li>
+ * </ul>
+ * Las validaciones más lentas que {@code dian.validator.metrics.slow-threshold} se registran en el
+ * log con su desglose por etapa, muestreadas con {@code slow-sample-rate}.
+ */
+@Slf4j
+@Component
+public class ValidationMetrics {
+
+    public static final String STAGE_TIMER = "dian.validation.stage";
+    public static final String DOCUMENT_SIZE = "dian.validation.document.size";
+    public static final String DOCUMENT_LINES = "dian.validation.document.lines";
+    public static final String FINDINGS = "dian.validation.findings";
+    public static final String CANONICALIZED_BYTES = "dian.validation.signature.canonicalized";
+
+    private final MeterRegistry registry;
+    private final DianValidatorProperties.Metrics properties;
+    private final Map<String, DocumentMeters> byDocumentType = new ConcurrentHashMap<>();
+
+    public ValidationMetrics(MeterRegistry registry, DianValidatorProperties properties) {
+        this.registry = registry;
+        this.properties = properties.getMetrics();
+    }
+
+    /**
+     * Registra etapas, tamaño, líneas y hallazgos de una validación terminada.
+     */
+    public void record(ValidationTimings timings, FindingCollector findings) {
+        DocumentMeters meters = meters(timings.getDocumentType());
+        for (ValidationStage stage : ValidationStage.values()) {
+            String outcome = timings.getOutcome(stage);
+            if (outcome != null) {
+                meters.stageTimer(stage, outcome).record(timings.getNanos(stage), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (timings.getDocumentSize() >= 0) {
+            meters.size.record(timings.getDocumentSize());
+        }
+        if (timings.getLineCount() >= 0) {
+            meters.lines.record(timings.getLineCount());
+        }
+        if (timings.getCanonicalizedBytes() >= 0) {
+            meters.canonicalized.record(timings.getCanonicalizedBytes());
+        }
+        // Un incremento por severidad con las cuentas del colector, no uno por hallazgo
+        for (DianSeverityLevel severity : DianSeverityLevel.values()) {
+            int count = findings.count(severity);
+            if (count > 0) {
+                meters.findings[severity.ordinal()].increment(count);
+            }
+        }
+        logIfSlow(timings);
+    }
+
+    /**
+     * Tiempo de serialización de la respuesta, medido fuera del servicio.
+     */
+    public void recordSerialization(String documentType, long nanos, String outcome) {
+        meters(documentType).stageTimer(ValidationStage.SERIALIZATION, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private DocumentMeters meters(String documentType) {
+        DocumentMeters meters = byDocumentType.get(documentType);
+        return meters != null ? meters : byDocumentType.computeIfAbsent(documentType, DocumentMeters::new);
+    }
+
+    private void logIfSlow(ValidationTimings timings) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - timings.getStartNanos());
+        if (elapsed.compareTo(properties.getSlowThreshold()) < 0
+                || ThreadLocalRandom.current().nextDouble() >= properties.getSlowSampleRate()) {
+            return;
+        }
+        log.warn("Validación lenta {} ({}) en {} ms, {} bytes, {} líneas: {}", timings.getCorrelationId(),
+                timings.getDocumentType(), elapsed.toMillis(), timings.getDocumentSize(), timings.getLineCount(),
+                timings.breakdown());
+    }
+
+    /**
+     * Medidores de un tipo de documento, registrados una sola vez: registrar una validación es
+     * buscarlos aquí, sin armar builders ni consultar el registro.
+     */
+    private final class DocumentMeters {
+
+        private final String documentType;
+        private final DistributionSummary size;
+        private final DistributionSummary lines;
+        private final DistributionSummary canonicalized;
+        private final Counter[] findings = new Counter[DianSeverityLevel.values().length];
+        // Un mapa por etapa, de outcome a timer
+        private final Map<ValidationStage, Map<String, Timer>> stageTimers = new EnumMap<>(ValidationStage.class);
+
+        private DocumentMeters(String documentType) {
+            this.documentType = documentType;
+            this.size = DistributionSummary.builder(DOCUMENT_SIZE)
+                    .baseUnit("bytes")
+                    .tag("documentType", documentType)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.lines = DistributionSummary.builder(DOCUMENT_LINES)
+                    .tag("documentType", documentType)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.canonicalized = DistributionSummary.builder(CANONICALIZED_BYTES)
+                    .baseUnit("bytes")
+                    .tag("documentType", documentType)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            for (DianSeverityLevel severity : DianSeverityLevel.values()) {
+                findings[severity.ordinal()] = Counter.builder(FINDINGS)
+                        .tag("severity", severity.getLabel())
+                        .tag("documentType", documentType)
+                        .register(registry);
+            }
+            for (ValidationStage stage : ValidationStage.values()) {
+                stageTimers.put(stage, new ConcurrentHashMap<>());
+            }
+        }
+
+        private Timer stageTimer(ValidationStage stage, String outcome) {
+            Map<String, Timer> timers = stageTimers.get(stage);
+            Timer timer = timers.get(outcome);
+            return timer != null ? timer : timers.computeIfAbsent(outcome, o -> Timer.builder(STAGE_TIMER)
+                    .tag("stage", stage.getTag())
+                    .tag("documentType", documentType)
+                    .tag("outcome", o)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
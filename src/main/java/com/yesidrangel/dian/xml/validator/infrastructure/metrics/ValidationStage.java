@@ -0,0 +1,24 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.metrics;
+
+import lombok.Getter;
+
+/**
+ * Etapas medidas del pipeline de validación (tag {@code stage}).
+ * <p>
+ * {@link #PARSE} incluye la validación XSD: el esquema se valida en línea durante el único parseo
+ * del documento, así que no hay un tiempo XSD separable.
+ */
+@Getter
+public enum ValidationStage {
+
+    PARSE("parse"),
+    SEMANTIC("semantic"),
+    SIGNATURE("signature"),
+    SERIALIZATION("serialization");
+
+    private final String tag;
+
+    ValidationStage(String tag) {
+        this.tag = tag;
+    }
+}
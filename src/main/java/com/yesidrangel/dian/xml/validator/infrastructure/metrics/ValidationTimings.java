@@ -0,0 +1,88 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Tiempos por etapa de una validación. Las etapas semántica y de firma corren en hilos distintos,
+ * por eso cada etapa se guarda en su propia posición atómica.
+ */
+public class ValidationTimings {
+
+    public static final String OUTCOME_OK = "ok";
+    public static final String OUTCOME_VALID = "valid";
+    public static final String OUTCOME_INVALID = "invalid";
+    public static final String OUTCOME_MALFORMED = "malformed";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_ABORTED = "aborted";
+    public static final String OUTCOME_TIMEOUT = "timeout";
+
+    @Getter
+    private final String documentType;
+    @Getter
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(ValidationStage.values().length);
+    private final AtomicReferenceArray<String> outcomes = new AtomicReferenceArray<>(ValidationStage.values().length);
+    @Getter
+    @Setter
+    private String correlationId;
+    @Getter
+    @Setter
+    private long documentSize = -1;
+    @Getter
+    @Setter
+    private int lineCount = -1;
+    /**
+     * Bytes canonicalizados para verificar las referencias de la firma; lo escribe el hilo de la
+     * etapa de firma.
+     */
+    @Getter
+    @Setter
+    private volatile long canonicalizedBytes = -1;
+
+    public ValidationTimings(String documentType) {
+        this.documentType = documentType;
+    }
+
+    /**
+     * Registra la etapa desde {@code stageStartNanos} hasta ahora.
+     */
+    public void record(ValidationStage stage, long stageStartNanos, String outcome) {
+        nanos.set(stage.ordinal(), System.nanoTime() - stageStartNanos);
+        outcomes.set(stage.ordinal(), outcome);
+    }
+
+    /**
+     * @return el resultado de la etapa, o {@code null} si no se ejecutó
+     */
+    public String getOutcome(ValidationStage stage) {
+        return outcomes.get(stage.ordinal());
+    }
+
+    public long getNanos(ValidationStage stage) {
+        return nanos.get(stage.ordinal());
+    }
+
+    /**
+     * Desglose legible para el log: {@code parse=12 ms (valid), semantic=1 ms (invalid)...}
+     */
+    public String breakdown() {
+        StringBuilder text = new StringBuilder();
+        for (ValidationStage stage : ValidationStage.values()) {
+            String outcome = getOutcome(stage);
+            if (outcome == null) {
+                continue;
+            }
+            if (!text.isEmpty()) {
+                text.append(", ");
+            }
+            text.append(stage.getTag()).append('=').append(TimeUnit.NANOSECONDS.toMillis(getNanos(stage)))
+                    .append(" ms (").append(outcome).append(')');
+        }
+        return text.toString();
+    }
+}
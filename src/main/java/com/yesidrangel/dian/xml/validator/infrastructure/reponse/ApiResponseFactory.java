@@ -15,6 +15,17 @@ public class ApiResponseFactory {
 					.build();
 		}
 
+		public static <T> ApiResponseDto<T> accepted(String action, T data) {
+			return ApiResponseDto.<T>builder()
+					.status("SUCCESS")
+					.success(true)
+					.code(ResponseCodeEnum.ACCEPTED.getCode())
+					.action(action)
+					.lastAction(ResponseCodeEnum.ACCEPTED.getMessage())
+					.data(data)
+					.build();
+		}
+
 		public static ApiResponseDto<Void> badRequest(String message) {
 			return ApiResponseDto.<Void>builder()
 					.status("ERROR")
@@ -25,6 +36,26 @@ public class ApiResponseFactory {
 					.build();
 		}
 
+		public static ApiResponseDto<Void> notFound(String message) {
+			return ApiResponseDto.<Void>builder()
+					.status("ERROR")
+					.success(false)
+					.code(ResponseCodeEnum.NOT_FOUND.getCode())
+					.action("NOT_FOUND")
+					.lastAction(message)
+					.build();
+		}
+
+		public static ApiResponseDto<Void> tooManyRequests(String message) {
+			return ApiResponseDto.<Void>builder()
+					.status("ERROR")
+					.success(false)
+					.code(ResponseCodeEnum.TOO_MANY_REQUESTS.getCode())
+					.action("TOO_MANY_REQUESTS")
+					.lastAction(message)
+					.build();
+		}
+
 		public static ApiResponseDto<Void> internalError(String message) {
 			return ApiResponseDto.<Void>builder()
 					.status("ERROR")
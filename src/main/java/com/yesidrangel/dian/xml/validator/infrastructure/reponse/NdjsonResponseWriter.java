@@ -0,0 +1,60 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.reponse;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.ValidationMetrics;
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.ValidationTimings;
+
+/**
+ * Escribe resultados como NDJSON (un objeto JSON por línea) a medida que se producen. Cada línea se
+ * vacía al cliente apenas se escribe y después se descarta, así que ni la respuesta completa ni el
+ * árbol JSON existen en memoria. El tiempo de escritura, sin las esperas entre resultados, se
+ * registra como etapa de serialización.
+ */
+@Component
+public class NdjsonResponseWriter {
+
+	private final ObjectWriter writer;
+	private final ValidationMetrics metrics;
+
+	public NdjsonResponseWriter(ObjectMapper objectMapper, ValidationMetrics metrics) {
+		// El stream es del contenedor: no se cierra al terminar
+		this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Cuerpo que consume {@code results} y lo cierra al terminar, también si el cliente se
+	 * desconecta a mitad de la respuesta.
+	 *
+	 * @param documentType etiqueta de la métrica de serialización
+	 */
+	public StreamingResponseBody body(Stream<?> results, String documentType) {
+		return out -> {
+			long nanos = 0;
+			String outcome = ValidationTimings.OUTCOME_ERROR;
+			try (results; JsonGenerator generator = writer.createGenerator(out)) {
+				generator.setRootValueSeparator(null);
+				Iterator<?> iterator = results.iterator();
+				while (iterator.hasNext()) {
+					Object result = iterator.next();
+					long start = System.nanoTime();
+					writer.writeValue(generator, result);
+					generator.writeRaw('\n');
+					generator.flush();
+					nanos += System.nanoTime() - start;
+				}
+				outcome = ValidationTimings.OUTCOME_OK;
+			} finally {
+				metrics.recordSerialization(documentType, nanos, outcome);
+			}
+		};
+	}
+}
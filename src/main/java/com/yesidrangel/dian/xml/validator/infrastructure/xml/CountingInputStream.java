@@ -0,0 +1,61 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Cuenta los bytes leídos del stream, para conocer el tamaño de un documento que se parsea sin
+ * cargarlo antes en memoria. Con un máximo, la lectura falla con {@link DocumentTooLargeException}
+ * en cuanto se supera, así que el resto del documento nunca se lee.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long count;
+
+    public CountingInputStream(InputStream in) {
+        this(in, Long.MAX_VALUE);
+    }
+
+    public CountingInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    private void advance(long n) throws DocumentTooLargeException {
+        count += n;
+        if (count > maxBytes) {
+            throw new DocumentTooLargeException(maxBytes);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
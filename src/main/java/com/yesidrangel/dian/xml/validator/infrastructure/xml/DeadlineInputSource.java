@@ -0,0 +1,84 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.function.BooleanSupplier;
+
+import org.xml.sax.InputSource;
+
+/**
+ * Acota el tiempo de un parseo: el parser lee el documento por bloques a medida que avanza, y cada
+ * lectura falla con {@link ParseBudgetExceededException} una vez vencido el plazo. Así se corta
+ * también un documento sin errores que tarda en validarse contra el XSD. El último bloque leído
+ * todavía se procesa, así que el exceso queda acotado por lo que tarda un bloque.
+ */
+public final class DeadlineInputSource {
+
+    private DeadlineInputSource() {
+    }
+
+    /**
+     * @param expired indica si venció el plazo; se consulta en cada lectura
+     */
+    public static InputSource of(InputSource source, BooleanSupplier expired) {
+        if (source.getCharacterStream() != null) {
+            source.setCharacterStream(new DeadlineReader(source.getCharacterStream(), expired));
+        } else if (source.getByteStream() != null) {
+            source.setByteStream(new DeadlineInputStream(source.getByteStream(), expired));
+        }
+        return source;
+    }
+
+    private static void check(BooleanSupplier expired) throws ParseBudgetExceededException {
+        if (expired.getAsBoolean()) {
+            throw new ParseBudgetExceededException();
+        }
+    }
+
+    private static final class DeadlineInputStream extends FilterInputStream {
+
+        private final BooleanSupplier expired;
+
+        private DeadlineInputStream(InputStream in, BooleanSupplier expired) {
+            super(in);
+            this.expired = expired;
+        }
+
+        @Override
+        public int read() throws IOException {
+            check(expired);
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            check(expired);
+            return super.read(buffer, offset, length);
+        }
+    }
+
+    private static final class DeadlineReader extends FilterReader {
+
+        private final BooleanSupplier expired;
+
+        private DeadlineReader(Reader in, BooleanSupplier expired) {
+            super(in);
+            this.expired = expired;
+        }
+
+        @Override
+        public int read() throws IOException {
+            check(expired);
+            return super.read();
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            check(expired);
+            return super.read(buffer, offset, length);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+
+import lombok.Getter;
+
+/**
+ * Catálogo de expresiones XPath DIAN. Las expresiones con {@code {root}} dependen del tipo de
+ * documento y se compilan una vez por {@link DianSchemaType} (ver {@link XPathEvaluator}).
+ */
+@Getter
+public enum DianXPath {
+
+    // Encabezado del documento
+    UUID("{root}/cbc:UUID"),
+    ID("{root}/cbc:ID"),
+    ISSUE_DATE("{root}/cbc:IssueDate"),
+    ISSUE_TIME("{root}/cbc:IssueTime"),
+    PROFILE_EXECUTION_ID("{root}/cbc:ProfileExecutionID"),
+    LINE_EXTENSION_AMOUNT("{root}/cac:LegalMonetaryTotal/cbc:LineExtensionAmount"),
+    PAYABLE_AMOUNT("{root}/cac:LegalMonetaryTotal/cbc:PayableAmount"),
+    SUPPLIER_COMPANY_ID("{root}/cac:AccountingSupplierParty/cac:Party/cac:PartyTaxScheme/cbc:CompanyID"),
+    CUSTOMER_COMPANY_ID("{root}/cac:AccountingCustomerParty/cac:Party/cac:PartyTaxScheme/cbc:CompanyID"),
+    TAX_TOTALS("{root}/cac:TaxTotal"),
+
+    // Relativas a un cac:TaxTotal
+    TAX_TOTAL_SCHEME_ID("cac:TaxSubtotal/cac:TaxCategory/cac:TaxScheme/cbc:ID"),
+    TAX_TOTAL_AMOUNT("cbc:TaxAmount"),
+
+    // Firma XAdES
+    SIGNATURE("//ds:Signature"),
+    X509_CERTIFICATE("//ds:X509Certificate"),
+    SIGNATURE_POLICY_ID("//xades:SigPolicyId/xades:Identifier"),
+    SIGNING_TIME("//xades:SigningTime"),
+    CLAIMED_ROLE("//xades:SignerRole/xades:ClaimedRoles/xades:ClaimedRole"),
+    DIGEST_METHOD("//ds:Reference/ds:DigestMethod/@Algorithm"),
+    SIGNATURE_METHOD("//ds:SignatureMethod/@Algorithm");
+
+    private static final String ROOT = "{root}";
+
+    private final String template;
+
+    DianXPath(String template) {
+        this.template = template;
+    }
+
+    public boolean isDocumentTypeDependent() {
+        return template.contains(ROOT);
+    }
+
+    /**
+     * Expresión concreta para el tipo de documento (prefijos de {@code DianNamespaceContext}).
+     */
+    public String expressionFor(DianSchemaType type) {
+        return isDocumentTypeDependent() ? template.replace(ROOT, rootPath(type)) : template;
+    }
+
+    private static String rootPath(DianSchemaType type) {
+        return switch (type) {
+            case INVOICE, DOCUMENTO_SOPORTE -> "/inv:Invoice";
+            case CREDIT_NOTE -> "/cn:CreditNote";
+        };
+    }
+}
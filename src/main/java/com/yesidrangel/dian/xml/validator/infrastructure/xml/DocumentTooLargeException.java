@@ -0,0 +1,16 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.io.IOException;
+
+/**
+ * El documento superó {@code dian.validator.xml.max-document-size} mientras se leía. Es una
+ * {@link IOException} para que el parser la propague tal cual desde el stream.
+ */
+public class DocumentTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DocumentTooLargeException(long maxBytes) {
+        super("El documento supera el tamaño máximo de " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,16 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.io.IOException;
+
+/**
+ * Venció el presupuesto de tiempo del parseo mientras se leía el documento. Es una
+ * {@link IOException} para que el parser la propague tal cual desde el stream.
+ */
+public class ParseBudgetExceededException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ParseBudgetExceededException() {
+        super("Se agotó el presupuesto de tiempo del parseo");
+    }
+}
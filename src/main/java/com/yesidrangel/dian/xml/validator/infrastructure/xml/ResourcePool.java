@@ -0,0 +1,46 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado de objetos no thread-safe (DocumentBuilder, XPath...).
+ * <p>
+ * No usa ThreadLocal: con hilos virtuales cada solicitud tiene su propio hilo y el caché por hilo
+ * nunca se reutilizaría. {@link #borrow()} nunca bloquea: si no hay instancias libres crea una
+ * nueva, y {@link #release(Object)} descarta la instancia si el pool ya está lleno.
+ */
+public class ResourcePool<T> {
+
+    private final ArrayBlockingQueue<T> idle;
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+
+    public ResourcePool(int maxIdle, Supplier<T> factory, Consumer<T> reset) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+        this.factory = factory;
+        this.reset = reset;
+    }
+
+    public T borrow() {
+        T resource = idle.poll();
+        return resource != null ? resource : factory.get();
+    }
+
+    /**
+     * Devuelve la instancia al pool después de restablecer su estado.
+     */
+    public void release(T resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            reset.accept(resource);
+        } catch (RuntimeException e) {
+            // Una instancia que no se puede restablecer no vuelve al pool
+            return;
+        }
+        idle.offer(resource);
+    }
+}
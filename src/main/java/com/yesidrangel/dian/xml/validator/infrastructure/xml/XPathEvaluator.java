@@ -0,0 +1,93 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.util.XmlXPathUtil;
+
+/**
+ * {@link XPath} con todas las expresiones de {@link DianXPath} precompiladas por tipo de documento.
+ * <p>
+ * {@link XPathExpression} no es thread-safe, por eso cada instancia del pool de
+ * {@link XmlInfrastructure} tiene su propio juego compilado y solo la usa un hilo a la vez.
+ */
+public class XPathEvaluator {
+
+    private final XPath xpath;
+    private final Map<DianSchemaType, XPathExpression[]> compiled = new EnumMap<>(DianSchemaType.class);
+
+    XPathEvaluator(XPath xpath) {
+        this.xpath = xpath;
+        XPathExpression[] shared = new XPathExpression[DianXPath.values().length];
+        for (DianXPath expression : DianXPath.values()) {
+            if (!expression.isDocumentTypeDependent()) {
+                shared[expression.ordinal()] = compile(expression.getTemplate());
+            }
+        }
+        for (DianSchemaType type : DianSchemaType.values()) {
+            XPathExpression[] byType = shared.clone();
+            for (DianXPath expression : DianXPath.values()) {
+                if (expression.isDocumentTypeDependent()) {
+                    byType[expression.ordinal()] = compile(expression.expressionFor(type));
+                }
+            }
+            compiled.put(type, byType);
+        }
+    }
+
+    /**
+     * Evalúa la expresión como texto (recortado, vacío si no existe el nodo).
+     */
+    public String getTag(DianXPath expression, DianSchemaType type, Node node) {
+        return XmlXPathUtil.getTag(lookup(expression, type), node);
+    }
+
+    public NodeList getNodes(DianXPath expression, DianSchemaType type, Node node) {
+        return XmlXPathUtil.getNodes(lookup(expression, type), node);
+    }
+
+    /**
+     * Variante para expresiones que no dependen del tipo de documento (firma).
+     */
+    public String getTag(DianXPath expression, Node node) {
+        return getTag(expression, null, node);
+    }
+
+    public NodeList getNodes(DianXPath expression, Node node) {
+        return getNodes(expression, null, node);
+    }
+
+    /**
+     * Acceso al {@link XPath} subyacente para expresiones fuera del catálogo.
+     */
+    public XPath getXPath() {
+        return xpath;
+    }
+
+    private XPathExpression lookup(DianXPath expression, DianSchemaType type) {
+        if (type == null) {
+            if (expression.isDocumentTypeDependent()) {
+                throw new IllegalArgumentException("La expresión " + expression + " requiere tipo de documento");
+            }
+            type = DianSchemaType.INVOICE;
+        }
+        return compiled.get(type)[expression.ordinal()];
+    }
+
+    private XPathExpression compile(String expression) {
+        try {
+            return xpath.compile(expression);
+        } catch (XPathExpressionException e) {
+            throw new TechnicalException("Error compilando XPath: " + expression, e);
+        }
+    }
+}
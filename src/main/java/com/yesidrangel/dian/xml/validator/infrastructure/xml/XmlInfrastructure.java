@@ -0,0 +1,113 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.validation.Schema;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.service.signature.DianNamespaceContext;
+import com.yesidrangel.dian.xml.validator.util.XmlParserUtil;
+
+/**
+ * Infraestructura XML compartida: factories configuradas una sola vez y pools de
+ * {@link DocumentBuilder} (uno por esquema) y {@link XPathEvaluator} (XPath con el catálogo
+ * {@link DianXPath} precompilado).
+ * <p>
+ * Evita el lookup de ServiceLoader de {@code newInstance()} en cada llamada. Las instancias se
+ * restablecen con {@code reset()} al devolverse al pool. Las factories se configuran con
+ * {@link XmlSecurityPolicy}.
+ */
+@Component
+public class XmlInfrastructure {
+
+    private final XPathFactory xpathFactory;
+    private final XmlSecurityPolicy securityPolicy;
+    private final Map<Schema, ResourcePool<DocumentBuilder>> validatingBuilders = new ConcurrentHashMap<>();
+    private final ResourcePool<DocumentBuilder> builders;
+    private final ResourcePool<XPathEvaluator> xpaths;
+    private final int maxIdle;
+
+    public XmlInfrastructure(DianValidatorProperties properties) {
+        this.maxIdle = properties.getXml().getPoolMaxIdle();
+        this.securityPolicy = new XmlSecurityPolicy(properties.getXml());
+        this.xpathFactory = XPathFactory.newInstance();
+        this.builders = newBuilderPool(null);
+        this.xpaths = new ResourcePool<>(maxIdle, this::newXPathEvaluator, evaluator -> {
+            // Las expresiones compiladas ya resolvieron sus prefijos; solo se limpia el XPath crudo
+            XPath xpath = evaluator.getXPath();
+            xpath.reset();
+            xpath.setNamespaceContext(DianNamespaceContext.INSTANCE);
+        });
+    }
+
+    /**
+     * Restricciones y límites con que se configuran todos los parsers.
+     */
+    public XmlSecurityPolicy getSecurityPolicy() {
+        return securityPolicy;
+    }
+
+    /**
+     * Parsea el XML validándolo en línea contra el esquema, en una sola pasada.
+     * <p>
+     * Los errores de validación se reportan al {@code errorHandler} y el DOM se construye igual.
+     * Un error de buena formación se reporta como fatal y se relanza como {@link SAXParseException}.
+     *
+     * @param schema esquema compilado o {@code null} para parsear sin validar
+     */
+    public Document parse(InputSource source, Schema schema, ErrorHandler errorHandler) throws SAXParseException {
+        ResourcePool<DocumentBuilder> pool = schema == null
+                ? builders
+                : validatingBuilders.computeIfAbsent(schema, this::newBuilderPool);
+        DocumentBuilder builder = pool.borrow();
+        try {
+            return XmlParserUtil.parse(builder, source, errorHandler);
+        } finally {
+            pool.release(builder);
+        }
+    }
+
+    /**
+     * Ejecuta la acción con un {@link XPathEvaluator} del pool, configurado con
+     * {@link DianNamespaceContext}.
+     */
+    public <T> T withXPath(Function<XPathEvaluator, T> action) {
+        XPathEvaluator evaluator = xpaths.borrow();
+        try {
+            return action.apply(evaluator);
+        } finally {
+            xpaths.release(evaluator);
+        }
+    }
+
+    private ResourcePool<DocumentBuilder> newBuilderPool(Schema schema) {
+        DocumentBuilderFactory factory = XmlParserUtil.newDocumentBuilderFactory(schema, securityPolicy);
+        return new ResourcePool<>(maxIdle, () -> {
+            try {
+                return factory.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new TechnicalException("Error creando DocumentBuilder", e);
+            }
+        }, DocumentBuilder::reset);
+    }
+
+    private XPathEvaluator newXPathEvaluator() {
+        XPath xpath = xpathFactory.newXPath();
+        xpath.setNamespaceContext(DianNamespaceContext.INSTANCE);
+        return new XPathEvaluator(xpath);
+    }
+}
@@ -0,0 +1,145 @@
+package com.yesidrangel.dian.xml.validator.infrastructure.xml;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.validation.SchemaFactory;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+
+/**
+ * Configuración segura de todos los parsers XML, en un solo lugar: procesamiento seguro, sin DTD
+ * ni acceso externo, y los límites {@code jdk.xml} de {@code dian.validator.xml} (profundidad,
+ * atributos, expansión de entidades). Un documento que los supera falla en el parseo como error
+ * FATAL, sin construir el resto del DOM.
+ * <p>
+ * Los XSD se compilan con procesamiento seguro y sin acceso externo, pero admiten DTD internos:
+ * el de xmldsig declara entidades. Los imports se resuelven con el {@code LSResourceResolver} del
+ * registro de esquemas, nunca por red.
+ */
+public class XmlSecurityPolicy {
+
+    private static final String DISALLOW_DOCTYPE = "http://apache.org/xml/features/disallow-doctype-decl";
+    private static final String EXTERNAL_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
+    private static final String EXTERNAL_PARAMETER_ENTITIES =
+            "http://xml.org/sax/features/external-parameter-entities";
+
+    private final long maxDocumentBytes;
+    private final Map<String, String> limits;
+    private final SAXParserFactory saxParserFactory;
+
+    public XmlSecurityPolicy(DianValidatorProperties.Xml xml) {
+        this.maxDocumentBytes = xml.getMaxDocumentSize().toBytes();
+        this.limits = Map.of(
+                "jdk.xml.maxElementDepth", String.valueOf(xml.getMaxElementDepth()),
+                "jdk.xml.elementAttributeLimit", String.valueOf(xml.getMaxAttributes()),
+                "jdk.xml.entityExpansionLimit", String.valueOf(xml.getMaxEntityExpansions()));
+        this.saxParserFactory = newSaxParserFactory();
+    }
+
+    public long getMaxDocumentBytes() {
+        return maxDocumentBytes;
+    }
+
+    /**
+     * Tamaño en bytes UTF-8 de un documento recibido como texto, para compararlo con el máximo igual
+     * que uno recibido como bytes: con caracteres multibyte supera a {@code length()}. Se calcula
+     * sin codificar el texto.
+     */
+    public static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Envuelve el stream para cortarlo al superar el tamaño máximo.
+     */
+    public CountingInputStream limit(InputStream in) {
+        return new CountingInputStream(in, maxDocumentBytes);
+    }
+
+    public DocumentBuilderFactory configure(DocumentBuilderFactory factory) {
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(DISALLOW_DOCTYPE, true);
+            factory.setXIncludeAware(false);
+            factory.setExpandEntityReferences(false);
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            limits.forEach(factory::setAttribute);
+            return factory;
+        } catch (ParserConfigurationException | IllegalArgumentException e) {
+            throw new TechnicalException("Error configurando el parser XML", e);
+        }
+    }
+
+    public SchemaFactory configure(SchemaFactory factory) {
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            for (Map.Entry<String, String> limit : limits.entrySet()) {
+                factory.setProperty(limit.getKey(), limit.getValue());
+            }
+            return factory;
+        } catch (SAXException e) {
+            throw new TechnicalException("Error configurando la compilación de XSD", e);
+        }
+    }
+
+    /**
+     * Lector SAX con la misma configuración que el DOM, para validar con {@code Validator} sin que
+     * este cree su propio parser (que ignora la prohibición de DTD).
+     */
+    public XMLReader newXmlReader() {
+        try {
+            SAXParser parser = saxParserFactory.newSAXParser();
+            for (Map.Entry<String, String> limit : limits.entrySet()) {
+                parser.setProperty(limit.getKey(), limit.getValue());
+            }
+            parser.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            parser.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            return parser.getXMLReader();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new TechnicalException("Error creando el lector SAX", e);
+        }
+    }
+
+    // Solo se lee después de configurarla: newSAXParser no modifica la factory
+    private static SAXParserFactory newSaxParserFactory() {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setXIncludeAware(false);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(DISALLOW_DOCTYPE, true);
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+            return factory;
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new TechnicalException("Error configurando el parser SAX", e);
+        }
+    }
+}
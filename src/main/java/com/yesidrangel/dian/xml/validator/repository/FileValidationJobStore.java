@@ -0,0 +1,151 @@
+package com.yesidrangel.dian.xml.validator.repository;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Almacén en disco: un archivo JSON por trabajo ({@code <id>.json}), de modo que los resultados
+ * sobreviven a un reinicio. Cada escritura va a un temporal que luego se mueve sobre el archivo, así
+ * que una lectura nunca ve un JSON a medias.
+ * <p>
+ * Un índice en memoria (fin de los terminados, estado de los pendientes) se reconstruye al arrancar
+ * y evita leer los archivos para purgar.
+ */
+@Slf4j
+public class FileValidationJobStore implements ValidationJobStore {
+
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final Map<String, Instant> finishedAt = new ConcurrentHashMap<>();
+    private final Map<String, ValidationJob> unfinished = new ConcurrentHashMap<>();
+
+    public FileValidationJobStore(Path directory, ObjectMapper mapper) {
+        this.directory = directory;
+        this.mapper = mapper;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new TechnicalException("No se pudo crear el directorio de trabajos " + directory, e);
+        }
+        load();
+    }
+
+    @Override
+    public void save(ValidationJob job) {
+        Path target = file(job.id());
+        try {
+            Path temp = Files.createTempFile(directory, job.id(), ".tmp");
+            try {
+                mapper.writeValue(temp.toFile(), job);
+                move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new TechnicalException("No se pudo guardar el trabajo " + job.id(), e);
+        }
+        index(job);
+    }
+
+    @Override
+    public Optional<ValidationJob> find(String id) {
+        try {
+            return Optional.of(mapper.readValue(file(id).toFile(), ValidationJob.class));
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new TechnicalException("No se pudo leer el trabajo " + id, e);
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        finishedAt.remove(id);
+        unfinished.remove(id);
+        try {
+            Files.deleteIfExists(file(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int purge(Instant finishedBefore) {
+        int purged = 0;
+        for (Map.Entry<String, Instant> entry : finishedAt.entrySet()) {
+            if (entry.getValue().isBefore(finishedBefore)) {
+                try {
+                    delete(entry.getKey());
+                    purged++;
+                } catch (UncheckedIOException e) {
+                    log.warn("No se pudo eliminar el trabajo {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    public List<ValidationJob> findUnfinished() {
+        return List.copyOf(unfinished.values());
+    }
+
+    private void load() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    index(mapper.readValue(file.toFile(), ValidationJob.class));
+                } catch (IOException e) {
+                    log.warn("Se ignora el trabajo ilegible {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new TechnicalException("No se pudo leer el directorio de trabajos " + directory, e);
+        }
+        log.info("Almacén de trabajos en {}: {} terminados, {} sin terminar", directory, finishedAt.size(),
+                unfinished.size());
+    }
+
+    private void index(ValidationJob job) {
+        if (job.status().isFinished()) {
+            finishedAt.put(job.id(), job.finishedAt());
+            unfinished.remove(job.id());
+        } else {
+            unfinished.put(job.id(), job);
+            finishedAt.remove(job.id());
+        }
+    }
+
+    // El id ya viene validado como UUID por el servicio: no puede salir del directorio
+    private Path file(String id) {
+        return directory.resolve(id + EXTENSION);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
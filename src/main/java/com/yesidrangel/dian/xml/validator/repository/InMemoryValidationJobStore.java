@@ -0,0 +1,46 @@
+package com.yesidrangel.dian.xml.validator.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+
+/**
+ * Almacén en memoria; los trabajos se pierden al reiniciar. El tamaño lo acotan la cola de trabajos
+ * y la retención.
+ */
+public class InMemoryValidationJobStore implements ValidationJobStore {
+
+    private final Map<String, ValidationJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(ValidationJob job) {
+        jobs.put(job.id(), job);
+    }
+
+    @Override
+    public Optional<ValidationJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    @Override
+    public void delete(String id) {
+        jobs.remove(id);
+    }
+
+    @Override
+    public int purge(Instant finishedBefore) {
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(finishedBefore));
+        return Math.max(0, before - jobs.size());
+    }
+
+    @Override
+    public List<ValidationJob> findUnfinished() {
+        return jobs.values().stream().filter(job -> !job.status().isFinished()).toList();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.yesidrangel.dian.xml.validator.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+
+/**
+ * Almacén de trabajos de validación asíncronos.
+ * <p>
+ * {@code dian.validator.jobs.store} elige entre {@link InMemoryValidationJobStore} y
+ * {@link FileValidationJobStore}; otro almacén (JDBC, Redis...) se conecta declarando un bean que
+ * implemente esta interfaz.
+ */
+public interface ValidationJobStore {
+
+    /**
+     * Guarda el trabajo, reemplazando su estado anterior.
+     */
+    void save(ValidationJob job);
+
+    Optional<ValidationJob> find(String id);
+
+    void delete(String id);
+
+    /**
+     * Elimina los trabajos terminados antes de {@code finishedBefore}.
+     *
+     * @return trabajos eliminados
+     */
+    int purge(Instant finishedBefore);
+
+    /**
+     * Trabajos en cola o en ejecución. Al arrancar son los que dejó sin terminar el proceso anterior.
+     */
+    List<ValidationJob> findUnfinished();
+
+}
@@ -0,0 +1,28 @@
+package com.yesidrangel.dian.xml.validator.service;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+
+/**
+ * Validación asíncrona: cada envío se encola como un trabajo y responde de inmediato con su id; el
+ * resultado se consulta después con {@link #find(String)}. Si la cola está llena el envío se rechaza
+ * con {@code JobQueueFullException}.
+ */
+public interface ValidationJobService {
+
+	ValidationJob submit(XmlValidationRequestDto request);
+
+	/**
+	 * Encola el XML crudo; se lee completo (hasta {@code dian.validator.xml.max-document-size})
+	 * antes de responder, porque la validación ocurre después de cerrar la solicitud.
+	 */
+	ValidationJob submit(InputStream xml, XmlValidationRequestDto metadata);
+
+	ValidationJob submitBatch(List<XmlValidationRequestDto> requests);
+
+	Optional<ValidationJob> find(String id);
+}
@@ -0,0 +1,25 @@
+package com.yesidrangel.dian.xml.validator.service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+
+public interface XmlBatchValidationService {
+
+	/**
+	 * Valida un lote de documentos en paralelo. La respuesta conserva el orden del lote y cada
+	 * elemento lleva su correlationId.
+	 */
+	List<XmlValidationResponseDto> validateBatch(List<XmlValidationRequestDto> requests);
+
+	/**
+	 * Valida el lote en paralelo y entrega cada resultado apenas termina su documento, en orden de
+	 * finalización; el correlationId identifica a cuál corresponde. El lote se verifica en la llamada,
+	 * así que sus errores se lanzan antes de consumir el stream; los documentos, en cambio, se envían
+	 * al executor a medida que se consume, desde el hilo que lo consume y con a lo sumo
+	 * {@code batch.parallelism} en curso. Cerrar el stream descarta los que aún no empezaron.
+	 */
+	Stream<XmlValidationResponseDto> streamBatch(List<XmlValidationRequestDto> requests);
+}
@@ -1,9 +1,19 @@
 package com.yesidrangel.dian.xml.validator.service;
 
+import java.io.InputStream;
+
 import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
 import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
 
 public interface XmlValidationService {
 
 	XmlValidationResponseDto validate(XmlValidationRequestDto requestDto);
+
+	/**
+	 * Valida el XML leyéndolo directamente del stream, sin materializarlo como String. La
+	 * codificación se detecta de la declaración XML.
+	 *
+	 * @param metadata tipo de documento, clave técnica, correlationId y failFast; {@code xml} se ignora
+	 */
+	XmlValidationResponseDto validate(InputStream xml, XmlValidationRequestDto metadata);
 }
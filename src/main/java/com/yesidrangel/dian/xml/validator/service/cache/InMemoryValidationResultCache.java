@@ -0,0 +1,79 @@
+package com.yesidrangel.dian.xml.validator.service.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+
+/**
+ * Caché LRU en memoria acotado por número de entradas y TTL.
+ * <p>
+ * Usa un {@link ReentrantLock} y no synchronized para no fijar el hilo portador con hilos
+ * virtuales. Las operaciones bajo el lock son O(1).
+ */
+public class InMemoryValidationResultCache implements ValidationResultCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries;
+    private final Duration ttl;
+
+    public InMemoryValidationResultCache(int maxEntries, Duration ttl) {
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Optional<XmlValidationResponseDto> get(String key) {
+        Instant now = Instant.now();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (!now.isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.result());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Un resultado que ya no es válido (por ejemplo con la firma sin terminar o la revocación en
+     * consulta, que fijan el horizonte en el instante actual) no se guarda: no serviría a nadie y
+     * desalojaría una entrada vigente.
+     */
+    @Override
+    public void put(String key, XmlValidationResponseDto result, Instant validUntil) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        if (validUntil != null && validUntil.isBefore(expiresAt)) {
+            expiresAt = validUntil;
+        }
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.put(key, new Entry(result, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(XmlValidationResponseDto result, Instant expiresAt) {
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.yesidrangel.dian.xml.validator.service.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+
+/**
+ * Clave del caché de resultados: SHA-256 de los bytes del XML, la versión del conjunto de reglas
+ * y los parámetros que afectan el resultado (tipo de documento, clave técnica, failFast). Cambiar
+ * la versión invalida todo lo cacheado con reglas anteriores.
+ */
+public final class ValidationCacheKey {
+
+    private static final int CHUNK = 8192;
+
+    private ValidationCacheKey() {
+    }
+
+    /**
+     * Clave para XML recibido como String. Se codifica a UTF-8 por bloques, sin copiar el
+     * documento completo a un byte[].
+     */
+    public static String of(String xml, String rulesetVersion, String... parameters) {
+        MessageDigest digest = newDigest();
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        CharBuffer chars = CharBuffer.wrap(xml);
+        ByteBuffer bytes = ByteBuffer.allocate(CHUNK);
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            drain(digest, bytes);
+        } while (result.isOverflow());
+        while (encoder.flush(bytes).isOverflow()) {
+            drain(digest, bytes);
+        }
+        drain(digest, bytes);
+        return finish(digest, rulesetVersion, parameters);
+    }
+
+    /**
+     * Clave para XML recibido como bytes (cuerpo crudo o archivo).
+     */
+    public static String of(byte[] xml, String rulesetVersion, String... parameters) {
+        MessageDigest digest = newDigest();
+        digest.update(xml);
+        return finish(digest, rulesetVersion, parameters);
+    }
+
+    private static void drain(MessageDigest digest, ByteBuffer bytes) {
+        bytes.flip();
+        digest.update(bytes);
+        bytes.clear();
+    }
+
+    private static String finish(MessageDigest digest, String rulesetVersion, String... parameters) {
+        update(digest, rulesetVersion);
+        for (String parameter : parameters) {
+            update(digest, parameter);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Separador 0 para que ("A", "BC") y ("AB", "C") no produzcan la misma clave
+    private static void update(MessageDigest digest, String part) {
+        digest.update((byte) 0);
+        if (part != null) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new TechnicalException("SHA-256 no disponible", e);
+        }
+    }
+
+}
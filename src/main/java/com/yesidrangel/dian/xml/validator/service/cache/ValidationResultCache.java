@@ -0,0 +1,26 @@
+package com.yesidrangel.dian.xml.validator.service.cache;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+
+/**
+ * Caché de resultados de validación indexado por {@link ValidationCacheKey}.
+ * <p>
+ * La implementación por defecto es {@link InMemoryValidationResultCache}; un almacén distribuido
+ * (Redis, Hazelcast...) se conecta declarando otro bean que implemente esta interfaz.
+ */
+public interface ValidationResultCache {
+
+    Optional<XmlValidationResponseDto> get(String key);
+
+    /**
+     * Guarda el resultado. La entrada no debe servirse después de {@code validUntil}, aunque el TTL
+     * del caché sea mayor.
+     *
+     * @param validUntil horizonte de validez del resultado, o {@code null} si no depende del reloj
+     */
+    void put(String key, XmlValidationResponseDto result, Instant validUntil);
+
+}
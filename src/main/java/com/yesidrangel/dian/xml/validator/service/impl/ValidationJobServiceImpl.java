@@ -0,0 +1,185 @@
+package com.yesidrangel.dian.xml.validator.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.config.XmlValidatorConfig;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+import com.yesidrangel.dian.xml.validator.exception.FunctionalException;
+import com.yesidrangel.dian.xml.validator.exception.JobQueueFullException;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DocumentTooLargeException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.repository.ValidationJobStore;
+import com.yesidrangel.dian.xml.validator.service.ValidationJobService;
+import com.yesidrangel.dian.xml.validator.service.XmlBatchValidationService;
+import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trabajos de validación sobre un executor propio con cola acotada
+ * ({@code dian.validator.jobs.queue-capacity}): al llenarse, el envío se rechaza en lugar de
+ * bloquear el hilo HTTP. Los trabajos terminados se conservan {@code retention} y un hilo de fondo
+ * elimina los vencidos.
+ */
+@Service
+@Slf4j
+public class ValidationJobServiceImpl implements ValidationJobService, DisposableBean {
+
+	private final XmlValidationService validationService;
+	private final XmlBatchValidationService batchService;
+	private final Executor executor;
+	private final ValidationJobStore store;
+	private final XmlInfrastructure xmlInfrastructure;
+	private final DianValidatorProperties properties;
+	private final ScheduledExecutorService purger;
+
+	public ValidationJobServiceImpl(XmlValidationService validationService, XmlBatchValidationService batchService,
+			@Qualifier(XmlValidatorConfig.JOB_EXECUTOR) Executor executor, ValidationJobStore store,
+			XmlInfrastructure xmlInfrastructure, DianValidatorProperties properties) {
+		this.validationService = validationService;
+		this.batchService = batchService;
+		this.executor = executor;
+		this.store = store;
+		this.xmlInfrastructure = xmlInfrastructure;
+		this.properties = properties;
+		failInterrupted();
+		this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "validation-jobs-purge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = properties.getJobs().getPurgeInterval().toMillis();
+		purger.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public ValidationJob submit(XmlValidationRequestDto request) {
+		if (request == null) {
+			throw new FunctionalException("La solicitud no contiene documento");
+		}
+		return enqueue(1, () -> List.of(validationService.validate(request)));
+	}
+
+	@Override
+	public ValidationJob submit(InputStream xml, XmlValidationRequestDto metadata) {
+		byte[] content;
+		try {
+			content = xmlInfrastructure.getSecurityPolicy().limit(xml).readAllBytes();
+		} catch (DocumentTooLargeException e) {
+			throw new FunctionalException(e.getMessage());
+		} catch (IOException e) {
+			throw new TechnicalException("Error leyendo el XML del trabajo", e);
+		}
+		return enqueue(1, () -> List.of(validationService.validate(new ByteArrayInputStream(content), metadata)));
+	}
+
+	@Override
+	public ValidationJob submitBatch(List<XmlValidationRequestDto> requests) {
+		if (requests == null || requests.isEmpty()) {
+			throw new FunctionalException("El lote no contiene documentos");
+		}
+		int maxSize = properties.getBatch().getMaxSize();
+		if (requests.size() > maxSize) {
+			throw new FunctionalException("El lote supera el máximo de " + maxSize + " documentos");
+		}
+		return enqueue(requests.size(), () -> batchService.validateBatch(requests));
+	}
+
+	@Override
+	public Optional<ValidationJob> find(String id) {
+		// Solo ids con forma de UUID llegan al almacén (el de archivos los usa como nombre)
+		try {
+			UUID.fromString(id);
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+		return store.find(id);
+	}
+
+	private ValidationJob enqueue(int documents, Supplier<List<XmlValidationResponseDto>> work) {
+		ValidationJob job = ValidationJob.queued(UUID.randomUUID().toString(), documents, Instant.now());
+		store.save(job);
+		try {
+			executor.execute(() -> run(job, work));
+		} catch (RejectedExecutionException e) {
+			store.delete(job.id());
+			throw new JobQueueFullException("La cola de trabajos está llena ("
+					+ properties.getJobs().getQueueCapacity() + "); reintente más tarde", e);
+		}
+		log.info("Trabajo {} encolado con {} documentos", job.id(), documents);
+		return job;
+	}
+
+	private void run(ValidationJob queued, Supplier<List<XmlValidationResponseDto>> work) {
+		ValidationJob running = queued.running(Instant.now());
+		ValidationJob finished;
+		try {
+			store.save(running);
+			finished = running.completed(Instant.now(), work.get());
+		} catch (FunctionalException | IllegalArgumentException e) {
+			finished = running.failed(Instant.now(), e.getMessage());
+		} catch (RuntimeException e) {
+			log.error("Error técnico en el trabajo {}", queued.id(), e);
+			finished = running.failed(Instant.now(), "Error interno validando el trabajo");
+		}
+		try {
+			store.save(finished);
+			log.info("Trabajo {} {} en {} ms", finished.id(), finished.status(),
+					Duration.between(finished.startedAt(), finished.finishedAt()).toMillis());
+		} catch (RuntimeException e) {
+			log.error("No se pudo guardar el resultado del trabajo {}", queued.id(), e);
+		}
+	}
+
+	/**
+	 * La cola vive en memoria: los trabajos que un reinicio dejó en cola o en ejecución no se van a
+	 * terminar, así que se marcan FAILED para que el cliente sepa que debe reenviarlos.
+	 */
+	private void failInterrupted() {
+		List<ValidationJob> interrupted = store.findUnfinished();
+		Instant now = Instant.now();
+		for (ValidationJob job : interrupted) {
+			store.save(job.failed(now, "El servicio se reinició antes de terminar el trabajo; reenvíelo"));
+		}
+		if (!interrupted.isEmpty()) {
+			log.warn("{} trabajos interrumpidos por el reinicio marcados como FAILED", interrupted.size());
+		}
+	}
+
+	private void purge() {
+		try {
+			int purged = store.purge(Instant.now().minus(properties.getJobs().getRetention()));
+			if (purged > 0) {
+				log.debug("{} trabajos vencidos eliminados", purged);
+			}
+		} catch (RuntimeException e) {
+			log.warn("Fallo eliminando trabajos vencidos: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		purger.shutdownNow();
+	}
+}
@@ -0,0 +1,172 @@
+package com.yesidrangel.dian.xml.validator.service.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.config.XmlValidatorConfig;
+import com.yesidrangel.dian.xml.validator.domain.dto.ValidationErrorDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.exception.FunctionalException;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.service.XmlBatchValidationService;
+import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class XmlBatchValidationServiceImpl implements XmlBatchValidationService {
+
+	private static final String INTERNAL_ERROR = "Error interno validando el documento";
+
+	private final XmlValidationService validationService;
+	private final Executor executor;
+	private final DianValidatorProperties properties;
+
+	public XmlBatchValidationServiceImpl(XmlValidationService validationService,
+			@Qualifier(XmlValidatorConfig.VALIDATION_EXECUTOR) Executor executor,
+			DianValidatorProperties properties) {
+		this.validationService = validationService;
+		this.executor = executor;
+		this.properties = properties;
+	}
+
+	@Override
+	public List<XmlValidationResponseDto> validateBatch(List<XmlValidationRequestDto> requests) {
+		prepare(requests);
+		List<CompletableFuture<XmlValidationResponseDto>> futures = new ArrayList<>(requests.size());
+		for (XmlValidationRequestDto request : requests) {
+			futures.add(CompletableFuture.supplyAsync(() -> validateItem(request), executor));
+		}
+		return futures.stream().map(CompletableFuture::join).toList();
+	}
+
+	/**
+	 * Los resultados pasan por una cola en orden de finalización y no se conservan después de
+	 * entregarlos, así que el lote nunca se acumula completo en memoria.
+	 * <p>
+	 * Nada se envía al executor hasta que se consume el stream, y entonces en el hilo que lo
+	 * consume (el del cuerpo de la respuesta, no el hilo HTTP): una ventana de
+	 * {@code batch.parallelism} documentos en curso, y uno nuevo por cada resultado entregado. Si
+	 * el executor está lleno, el envío frena a ese hilo y no a la solicitud.
+	 */
+	@Override
+	public Stream<XmlValidationResponseDto> streamBatch(List<XmlValidationRequestDto> requests) {
+		prepare(requests);
+		StreamedBatch batch = new StreamedBatch(requests, properties.getBatch().getParallelism());
+		return Stream.generate(batch::next)
+				.limit(requests.size())
+				.onClose(batch::close);
+	}
+
+	private void prepare(List<XmlValidationRequestDto> requests) {
+		if (requests == null || requests.isEmpty()) {
+			throw new FunctionalException("El lote no contiene documentos");
+		}
+		int maxSize = properties.getBatch().getMaxSize();
+		if (requests.size() > maxSize) {
+			throw new FunctionalException("El lote supera el máximo de " + maxSize + " documentos");
+		}
+		log.info("Validando lote de {} documentos", requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			XmlValidationRequestDto request = requests.get(i);
+			if (request.getCorrelationId() == null || request.getCorrelationId().isBlank()) {
+				request.setCorrelationId(String.valueOf(i));
+			}
+		}
+	}
+
+	/**
+	 * Estado de un lote en streaming. Lo consume un solo hilo; solo la cola y la marca de cierre se
+	 * comparten con las tareas.
+	 */
+	private final class StreamedBatch {
+
+		private final Iterator<XmlValidationRequestDto> pending;
+		private final int window;
+		private final BlockingQueue<XmlValidationResponseDto> completed = new LinkedBlockingQueue<>();
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private int inFlight;
+
+		private StreamedBatch(List<XmlValidationRequestDto> requests, int window) {
+			this.pending = requests.iterator();
+			this.window = Math.max(window, 1);
+		}
+
+		private XmlValidationResponseDto next() {
+			while (inFlight < window && pending.hasNext()) {
+				submit(pending.next());
+				inFlight++;
+			}
+			try {
+				XmlValidationResponseDto result = completed.take();
+				inFlight--;
+				return result;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new TechnicalException("Validación del lote interrumpida", e);
+			}
+		}
+
+		private void submit(XmlValidationRequestDto request) {
+			executor.execute(() -> {
+				if (closed.get()) {
+					return;
+				}
+				// Un Error también deja su resultado en la cola: el consumidor espera uno por documento
+				XmlValidationResponseDto result = failedItem(request, INTERNAL_ERROR);
+				try {
+					result = validateItem(request);
+				} finally {
+					completed.add(result);
+				}
+			});
+		}
+
+		private void close() {
+			closed.set(true);
+		}
+	}
+
+	/**
+	 * Un documento inválido a nivel de solicitud no debe tumbar el lote: el error se reporta en
+	 * su propio resultado.
+	 */
+	private XmlValidationResponseDto validateItem(XmlValidationRequestDto request) {
+		try {
+			return validationService.validate(request);
+		} catch (FunctionalException | IllegalArgumentException e) {
+			return failedItem(request, e.getMessage());
+		} catch (RuntimeException e) {
+			log.error("Error técnico validando documento {} del lote", request.getCorrelationId(), e);
+			return failedItem(request, INTERNAL_ERROR);
+		}
+	}
+
+	private XmlValidationResponseDto failedItem(XmlValidationRequestDto request, String message) {
+		ValidationErrorDto error = new ValidationErrorDto();
+		error.setType(ValidationFindingType.REQUEST.name());
+		error.setSeverity(DianSeverityLevel.FATAL.getLabel());
+		error.setMessage(message);
+		XmlValidationResponseDto response = new XmlValidationResponseDto();
+		response.setCorrelationId(request.getCorrelationId());
+		response.setValid(false);
+		response.setErrors(List.of(error));
+		response.setMaxSeverity(DianSeverityLevel.FATAL);
+		return response;
+	}
+}
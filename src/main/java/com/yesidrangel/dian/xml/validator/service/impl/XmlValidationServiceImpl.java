@@ -1,22 +1,63 @@
 package com.yesidrangel.dian.xml.validator.service.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+import javax.xml.validation.Schema;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
 
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.config.XmlValidatorConfig;
 import com.yesidrangel.dian.xml.validator.domain.dto.ValidationErrorDto;
 import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
 import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
 import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
 import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidityHorizon;
 import com.yesidrangel.dian.xml.validator.exception.FunctionalException;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.ValidationMetrics;
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.ValidationStage;
+import com.yesidrangel.dian.xml.validator.infrastructure.metrics.ValidationTimings;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.CountingInputStream;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DeadlineInputSource;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DocumentTooLargeException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.ParseBudgetExceededException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlSecurityPolicy;
 import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
+import com.yesidrangel.dian.xml.validator.service.cache.ValidationCacheKey;
+import com.yesidrangel.dian.xml.validator.service.cache.ValidationResultCache;
+import com.yesidrangel.dian.xml.validator.service.schema.DianSchemaRegistry;
 import com.yesidrangel.dian.xml.validator.service.semantic.DianSemanticValidator;
 import com.yesidrangel.dian.xml.validator.service.signature.XadesSignatureValidator;
-import com.yesidrangel.dian.xml.validator.util.XmlParserUtil;
 import com.yesidrangel.dian.xml.validator.util.XsdValidationUtil;
 
 import lombok.extern.slf4j.Slf4j;
@@ -25,75 +66,366 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class XmlValidationServiceImpl implements XmlValidationService {
 
+	private static final String SKIPPED_STAGES = "Etapas omitidas por failFast: ";
+	private static final String STOPPED = "Validación detenida en la etapa ";
+
 	@Autowired
 	private DianSemanticValidator semanticValidator;
 	@Autowired
 	private XadesSignatureValidator signatureValidator;
+	@Autowired
+	private DianSchemaRegistry schemaRegistry;
+	@Autowired
+	private XmlInfrastructure xmlInfrastructure;
+	@Autowired
+	@Qualifier(XmlValidatorConfig.STAGE_EXECUTOR)
+	private Executor stageExecutor;
+	@Autowired
+	private DianValidatorProperties properties;
+	@Autowired
+	private ObjectProvider<ValidationResultCache> resultCache;
+	@Autowired
+	private ValidationMetrics metrics;
 
 	@Override
 	public XmlValidationResponseDto validate(XmlValidationRequestDto requestDto) {
 		log.info("Validando documento {}", requestDto.getDocumentType());
 		validateBase(requestDto);
-		String xsdPath = resolveXsd(requestDto.getDocumentType());
-		// 🔹 1. Validación estructural XSD
-		List<String> xsdErrors = XsdValidationUtil.validate(requestDto.getXml(), xsdPath);
-		// 🔹 2. Parseo del XML
-		Document xmlDocument = XmlParserUtil.parse(requestDto.getXml());
-		// 🔹 3. Validación semántica DIAN
-		List<String> semanticErrors = semanticValidator.validate(xmlDocument, requestDto.getDocumentType(), requestDto.getTechnicalKey());
-		// 🔹 4. Validación errores certificado
-		List<String> signatureErrors = signatureValidator.validate(xmlDocument);
-		// 🔹 5. Combinar errores y convertir a ValidationErrorDto
-		List<ValidationErrorDto> allErrors = new ArrayList<>();
-		allErrors.addAll(xsdErrors.stream().map(this::toErrorDto).toList());
-		allErrors.addAll(semanticErrors.stream().map(this::toErrorDto).toList());
-		allErrors.addAll(signatureErrors.stream().map(this::toErrorDto).toList());
-		if (!allErrors.isEmpty()) {
-			log.warn("Errores DIAN detectados: {}", allErrors);
-		}
-		// 🔹 6. Construir respuesta
+		ValidationResultCache cache = resultCache.getIfAvailable();
+		String xml = requestDto.getXml();
+		// Bytes en UTF-8, como en el XML crudo: un texto con caracteres multibyte pesa más que su length()
+		long bytes = XmlSecurityPolicy.utf8Length(xml);
+		LongSupplier size = () -> bytes;
+		long maxBytes = xmlInfrastructure.getSecurityPolicy().getMaxDocumentBytes();
+		if (bytes > maxBytes) {
+			return rejected(requestDto, new DocumentTooLargeException(maxBytes));
+		}
+		if (cache == null) {
+			return validate(new InputSource(new StringReader(xml)), size, requestDto, new ValidityHorizon());
+		}
+		String key = ValidationCacheKey.of(xml, rulesetVersion(), cacheParameters(requestDto));
+		return cached(cache, key, requestDto, () -> new InputSource(new StringReader(xml)), size);
+	}
+
+	@Override
+	public XmlValidationResponseDto validate(InputStream xml, XmlValidationRequestDto metadata) {
+		log.info("Validando documento {} (stream)", metadata.getDocumentType());
+		validateDocumentType(metadata);
+		ValidationResultCache cache = resultCache.getIfAvailable();
+		if (cache == null) {
+			// Se corta al superar el tamaño máximo: el parser falla como FATAL sin leer el resto
+			CountingInputStream counting = xmlInfrastructure.getSecurityPolicy().limit(xml);
+			return validate(new InputSource(counting), counting::getCount, metadata, new ValidityHorizon());
+		}
+		// La clave necesita el contenido completo antes de validar: se lee una vez como bytes, nunca como String
+		byte[] bytes;
+		try {
+			bytes = readAll(xml);
+		} catch (DocumentTooLargeException e) {
+			return rejected(metadata, e);
+		}
+		String key = ValidationCacheKey.of(bytes, rulesetVersion(), cacheParameters(metadata));
+		return cached(cache, key, metadata, () -> new InputSource(new ByteArrayInputStream(bytes)), () -> bytes.length);
+	}
+
+	/**
+	 * Sirve el resultado desde el caché o valida y lo guarda hasta su horizonte de validez. El
+	 * correlationId no forma parte de la clave: se reemplaza por el de cada solicitud.
+	 */
+	private XmlValidationResponseDto cached(ValidationResultCache cache, String key,
+			XmlValidationRequestDto requestDto, Supplier<InputSource> source, LongSupplier size) {
+		Optional<XmlValidationResponseDto> hit = cache.get(key);
+		if (hit.isPresent()) {
+			log.debug("Resultado de validación servido desde caché");
+			return withCorrelationId(hit.get(), requestDto.getCorrelationId());
+		}
+		ValidityHorizon horizon = new ValidityHorizon();
+		XmlValidationResponseDto response = validate(source.get(), size, requestDto, horizon);
+		cache.put(key, withCorrelationId(response, null), horizon.until().orElse(null));
+		return response;
+	}
+
+	private XmlValidationResponseDto validate(InputSource source, LongSupplier size,
+			XmlValidationRequestDto requestDto, ValidityHorizon horizon) {
+		DianSchemaType schemaType = resolveSchemaType(requestDto.getDocumentType());
+		boolean failFast = isFailFast(requestDto);
+		DianValidatorProperties.Pipeline pipeline = properties.getPipeline();
+		ValidationTimings timings = new ValidationTimings(schemaType.name());
+		timings.setCorrelationId(requestDto.getCorrelationId());
+		// 🔹 1. Parseo único con validación estructural XSD en línea, acotado en hallazgos y tiempo
+		long parseStart = System.nanoTime();
+		FindingCollector findings = FindingCollector.bounded(ValidationFindingType.XSD, pipeline.getMaxFindings(),
+				pipeline.getParseBudget());
+		Document xmlDocument = parseAndValidateXsd(source, schemaType, findings);
+		timings.record(ValidationStage.PARSE, parseStart, xmlDocument != null || findings.isAborted()
+				? outcome(findings)
+				: ValidationTimings.OUTCOME_MALFORMED);
+		timings.setDocumentSize(size.getAsLong());
+		if (findings.isAborted()) {
+			findings.note(stopped(findings, "XSD", pipeline.getParseBudget(), "semántica, firma", horizon));
+		} else if (xmlDocument != null && failFast && findings.hasBlocking()) {
+			findings.note(skipped("semántica, firma"));
+		} else if (xmlDocument != null) {
+			// 🔹 2. Extracción de campos en este hilo: el DOM no admite lecturas concurrentes
+			long semanticStart = System.nanoTime();
+			DianDocumentFields fields = semanticValidator.extract(xmlDocument, schemaType);
+			timings.setLineCount(fields.lineCount());
+			// 🔹 3. Firma (único lector del DOM) en paralelo con las reglas semánticas
+			long signatureStart = System.nanoTime();
+			FutureTask<FindingCollector> signatureTask = new FutureTask<>(() -> timed(ValidationStage.SIGNATURE, timings,
+					System.nanoTime(), () -> signatureValidator.validate(xmlDocument, horizon,
+							timings::setCanonicalizedBytes)));
+			submit(signatureTask);
+			FindingCollector semanticFindings = timed(ValidationStage.SEMANTIC, timings, semanticStart,
+					() -> semanticValidator.validate(fields, requestDto.getTechnicalKey(), horizon,
+							FindingCollector.bounded(ValidationFindingType.SEMANTIC, pipeline.getMaxFindings(),
+									pipeline.getSemanticBudget())));
+			findings.addAll(semanticFindings);
+			if (semanticFindings.isAborted()) {
+				signatureTask.cancel(true);
+				findings.note(stopped(semanticFindings, "semántica", pipeline.getSemanticBudget(), "firma", horizon));
+			} else if (failFast && semanticFindings.hasBlocking()) {
+				signatureTask.cancel(true);
+				findings.note(skipped("firma"));
+			} else {
+				awaitSignature(signatureTask, signatureStart, pipeline.getSignatureBudget(), timings, findings,
+						horizon);
+			}
+		}
+		// 🔹 4. Hallazgos en orden de etapa; la severidad máxima ya viene calculada
+		if (findings.dropped() > 0) {
+			findings.note(ValidationFinding.of(ValidationFindingType.PIPELINE, DianSeverityLevel.INFO,
+					"Se omitieron " + findings.dropped() + " hallazgos por superar el máximo de "
+							+ findings.limit() + " por solicitud"));
+		}
+		if (!findings.isEmpty()) {
+			logFindings(findings, pipeline.getLoggedFindings());
+		}
+		metrics.record(timings, findings);
+		// 🔹 5. Construir respuesta
+		return response(requestDto, findings);
+	}
+
+	/**
+	 * Espera la firma hasta su presupuesto de tiempo. Si se agota la etapa se cancela y el documento
+	 * no se declara válido; como depende de la carga, el resultado no se cachea. Si el executor la
+	 * rechazó, {@link #awaitStage} la ejecuta en este hilo y el presupuesto no la interrumpe.
+	 */
+	private void awaitSignature(FutureTask<FindingCollector> task, long start, Duration budget,
+			ValidationTimings timings, FindingCollector findings, ValidityHorizon horizon) {
+		try {
+			findings.addAll(awaitStage(task, start + budget.toNanos()));
+		} catch (TimeoutException e) {
+			task.cancel(true);
+			timings.record(ValidationStage.SIGNATURE, start, ValidationTimings.OUTCOME_TIMEOUT);
+			horizon.changesAt(Instant.now());
+			findings.note(ValidationFinding.of(ValidationFindingType.PIPELINE, DianSeverityLevel.ERROR,
+					STOPPED + "firma: se agotó su presupuesto de " + budget.toMillis() + " ms"));
+		}
+	}
+
+	/**
+	 * Registra en el log la cuenta de hallazgos por severidad y solo los primeros {@code logged},
+	 * para que un documento con miles de errores no inunde el log.
+	 */
+	private void logFindings(FindingCollector findings, int logged) {
+		if (!log.isWarnEnabled()) {
+			return;
+		}
+		List<String> sample = findings.findings().stream()
+				.limit(logged)
+				.map(ValidationFinding::render)
+				.toList();
+		log.warn("Errores DIAN detectados: {} (FATAL={}, ERROR={}, WARNING={}); primeros {}: {}",
+				findings.total(), findings.count(DianSeverityLevel.FATAL), findings.count(DianSeverityLevel.ERROR),
+				findings.count(DianSeverityLevel.WARNING), sample.size(), sample);
+	}
+
+	/**
+	 * Los mensajes no se arman aquí: cada {@link ValidationErrorDto} lo hace al serializarse.
+	 */
+	private XmlValidationResponseDto response(XmlValidationRequestDto requestDto, FindingCollector findings) {
+		List<ValidationErrorDto> errors = new ArrayList<>(findings.size());
+		for (ValidationFinding finding : findings.findings()) {
+			errors.add(ValidationErrorDto.of(finding));
+		}
 		XmlValidationResponseDto responseDto = new XmlValidationResponseDto();
-		responseDto.setValid(allErrors.isEmpty());
-		responseDto.setErrors(allErrors);
-		responseDto.setMaxSeverity(detectSeverity(allErrors));
+		responseDto.setCorrelationId(requestDto.getCorrelationId());
+		responseDto.setValid(errors.isEmpty());
+		responseDto.setErrors(errors);
+		responseDto.setMaxSeverity(findings.maxSeverity());
 		return responseDto;
 	}
 
-	private String resolveXsd(String documentType) {
-		return DianSchemaType.forName(documentType).map(DianSchemaType::getXsdPath)
-				.orElseThrow(() -> new IllegalArgumentException("Tipo de documento no soportado: " + documentType));
+	private static ValidationFinding skipped(String stages) {
+		return ValidationFinding.of(ValidationFindingType.PIPELINE, DianSeverityLevel.INFO, SKIPPED_STAGES + stages);
 	}
 
-	private void validateBase(XmlValidationRequestDto requestDto){
-		if (requestDto.getXml() == null || requestDto.getXml().isBlank()) {
-			throw new FunctionalException("El XML es obligatorio");
+	/**
+	 * Nota ERROR de una etapa detenida por su colector agotado: el documento no quedó validado por
+	 * completo. Si fue por tiempo el resultado depende de la carga y no se cachea.
+	 */
+	private static ValidationFinding stopped(FindingCollector stage, String name, Duration budget, String skipped,
+			ValidityHorizon horizon) {
+		String reason;
+		if (stage.expired()) {
+			horizon.changesAt(Instant.now());
+			reason = "se agotó su presupuesto de " + budget.toMillis() + " ms";
+		} else {
+			reason = "se alcanzó el máximo de " + stage.limit() + " hallazgos";
 		}
-		if (requestDto.getDocumentType() == null || requestDto.getDocumentType().isBlank()) {
-			throw new FunctionalException("El tipo de documento es obligatorio");
+		return ValidationFinding.of(ValidationFindingType.PIPELINE, DianSeverityLevel.ERROR,
+				STOPPED + name + ": " + reason + ". Etapas omitidas: " + skipped);
+	}
+
+	private FindingCollector timed(ValidationStage stage, ValidationTimings timings, long start,
+			Supplier<FindingCollector> action) {
+		try {
+			FindingCollector errors = action.get();
+			timings.record(stage, start, outcome(errors));
+			return errors;
+		} catch (RuntimeException e) {
+			timings.record(stage, start, ValidationTimings.OUTCOME_ERROR);
+			throw e;
 		}
 	}
 
-	private ValidationErrorDto toErrorDto(String message) {
-		ValidationErrorDto dto = new ValidationErrorDto();
-		dto.setMessage(message);
-		dto.setSeverity("ERROR");
-		return dto;
+	private String outcome(FindingCollector errors) {
+		if (errors.isAborted()) {
+			return ValidationTimings.OUTCOME_ABORTED;
+		}
+		return errors.hasBlocking() ? ValidationTimings.OUTCOME_INVALID : ValidationTimings.OUTCOME_VALID;
 	}
 
-	private DianSeverityLevel detectSeverity(List<ValidationErrorDto> errors) {
-		DianSeverityLevel[] levels = DianSeverityLevel.values();
-		for (int i = levels.length - 1; i >= 0; i--) {
-			DianSeverityLevel level = levels[i];
-			if (level == DianSeverityLevel.INFO) {
-				continue;
-			}
-			boolean found = errors.stream()
-					.anyMatch(e -> e.getMessage().startsWith(level.getLabel()));
-			if (found) {
-				return level;
+	/**
+	 * Envía la etapa sin bloquear. Si el executor de etapas está lleno la tarea queda sin iniciar y
+	 * {@link #awaitStage} la ejecuta en este hilo.
+	 */
+	private void submit(FutureTask<FindingCollector> task) {
+		try {
+			stageExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			log.debug("Executor de etapas lleno: la etapa se ejecuta en el hilo de la validación");
+		}
+	}
+
+	/**
+	 * Espera el resultado de una etapa. Si el executor la rechazó la ejecuta este mismo hilo:
+	 * {@code run()} no hace nada si ya empezó, y así ningún hilo queda esperando una tarea que no
+	 * puede arrancar.
+	 *
+	 * @param deadline instante ({@link System#nanoTime()}) hasta el que se espera una tarea ya en curso
+	 */
+	private FindingCollector awaitStage(FutureTask<FindingCollector> task, long deadline) throws TimeoutException {
+		task.run();
+		try {
+			return task.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException("Validación interrumpida", e);
+		} catch (ExecutionException | CancellationException e) {
+			throw new TechnicalException("Error en etapa de validación", e);
+		}
+	}
+
+	private boolean isFailFast(XmlValidationRequestDto requestDto) {
+		return requestDto.getFailFast() != null
+				? requestDto.getFailFast()
+				: properties.getPipeline().isFailFast();
+	}
+
+	private String rulesetVersion() {
+		return properties.getCache().getRulesetVersion();
+	}
+
+	private String[] cacheParameters(XmlValidationRequestDto requestDto) {
+		return new String[] { requestDto.getDocumentType(), requestDto.getTechnicalKey(),
+				String.valueOf(isFailFast(requestDto)) };
+	}
+
+	private XmlValidationResponseDto withCorrelationId(XmlValidationResponseDto source, String correlationId) {
+		XmlValidationResponseDto copy = new XmlValidationResponseDto();
+		copy.setCorrelationId(correlationId);
+		copy.setValid(source.isValid());
+		copy.setErrors(List.copyOf(source.getErrors()));
+		copy.setMaxSeverity(source.getMaxSeverity());
+		return copy;
+	}
+
+	/**
+	 * Lee el documento completo, hasta el tamaño máximo más un byte para detectar el exceso.
+	 */
+	private byte[] readAll(InputStream xml) throws DocumentTooLargeException {
+		long maxBytes = xmlInfrastructure.getSecurityPolicy().getMaxDocumentBytes();
+		byte[] bytes;
+		try {
+			bytes = xml.readNBytes((int) Math.min(maxBytes + 1, Integer.MAX_VALUE - 8));
+		} catch (IOException e) {
+			throw new TechnicalException("Error leyendo el XML", e);
+		}
+		if (bytes.length > maxBytes) {
+			throw new DocumentTooLargeException(maxBytes);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Respuesta para un documento rechazado antes de parsearlo: un único error FATAL, como un XML
+	 * mal formado.
+	 */
+	private XmlValidationResponseDto rejected(XmlValidationRequestDto requestDto, DocumentTooLargeException e) {
+		ValidationTimings timings = new ValidationTimings(resolveSchemaType(requestDto.getDocumentType()).name());
+		timings.setCorrelationId(requestDto.getCorrelationId());
+		timings.record(ValidationStage.PARSE, System.nanoTime(), ValidationTimings.OUTCOME_MALFORMED);
+		FindingCollector findings = new FindingCollector(ValidationFindingType.XSD, 1);
+		findings.add(DianSeverityLevel.FATAL, e.getMessage());
+		log.warn("Documento rechazado: {}", e.getMessage());
+		metrics.record(timings, findings);
+		return response(requestDto, findings);
+	}
+
+	private DianSchemaType resolveSchemaType(String documentType) {
+		return DianSchemaType.forName(documentType)
+				.orElseThrow(() -> new IllegalArgumentException("Tipo de documento no soportado: " + documentType));
+	}
+
+	/**
+	 * Parsea el XML una sola vez validándolo contra el XSD durante el parseo. El DOM resultante se
+	 * comparte con las etapas semántica y de firma. El presupuesto del colector se comprueba en cada
+	 * bloque leído y en cada error reportado; al vencer el parseo se corta y el colector queda
+	 * detenido.
+	 *
+	 * @return el documento, o {@code null} si el XML no está bien formado (error FATAL ya registrado)
+	 */
+	private Document parseAndValidateXsd(InputSource source, DianSchemaType schemaType, FindingCollector xsdErrors) {
+		Schema schema = null;
+		try {
+			schema = schemaRegistry.getSchema(schemaType);
+		} catch (TechnicalException e) {
+			xsdErrors.add(DianSeverityLevel.ERROR, e.getMessage());
+		}
+		try {
+			return xmlInfrastructure.parse(DeadlineInputSource.of(source, xsdErrors::expired), schema,
+					XsdValidationUtil.errorCollector(xsdErrors));
+		} catch (SAXParseException e) {
+			if (e.getException() instanceof ParseBudgetExceededException) {
+				xsdErrors.abort();
 			}
+			return null;
+		}
+	}
+
+	private void validateBase(XmlValidationRequestDto requestDto){
+		if (requestDto.getXml() == null || requestDto.getXml().isBlank()) {
+			throw new FunctionalException("El XML es obligatorio");
+		}
+		validateDocumentType(requestDto);
+	}
+
+	private void validateDocumentType(XmlValidationRequestDto requestDto) {
+		if (requestDto.getDocumentType() == null || requestDto.getDocumentType().isBlank()) {
+			throw new FunctionalException("El tipo de documento es obligatorio");
 		}
-		return DianSeverityLevel.INFO;
 	}
 
 }
@@ -0,0 +1,125 @@
+package com.yesidrangel.dian.xml.validator.service.schema;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resuelve los {@code xsd:import}/{@code xsd:include} relativos de los XSD DIAN desde el classpath.
+ * <p>
+ * Los esquemas se identifican con URIs {@code classpath:/ruta/archivo.xsd}. Los XSD principales de
+ * {@code maindoc} importan {@code common/...} aunque la carpeta real es hermana ({@code ../common}),
+ * por eso si la ruta relativa no existe se intenta también desde la carpeta padre.
+ */
+@Slf4j
+public class ClasspathResourceResolver implements LSResourceResolver {
+
+    public static final String SCHEME = "classpath";
+
+    private final ClassLoader classLoader;
+
+    public ClasspathResourceResolver(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Construye el systemId {@code classpath:/...} de un recurso del classpath.
+     */
+    public static String toSystemId(String classpathLocation) {
+        String path = classpathLocation.startsWith("/") ? classpathLocation : "/" + classpathLocation;
+        return SCHEME + ":" + path;
+    }
+
+    @Override
+    public LSInput resolveResource(String type, String namespaceURI, String publicId,
+                                   String systemId, String baseURI) {
+        if (systemId == null || baseURI == null || !baseURI.startsWith(SCHEME + ":")) {
+            return null;
+        }
+        URI base = URI.create(baseURI);
+        URI resolved = base.resolve(systemId);
+        String path = resolved.getPath();
+        if (classLoader.getResource(toResourcePath(path)) == null) {
+            resolved = base.resolve("../" + systemId);
+            path = resolved.getPath();
+        }
+        InputStream stream = classLoader.getResourceAsStream(toResourcePath(path));
+        if (stream == null) {
+            log.warn("No se pudo resolver el esquema {} desde {}", systemId, baseURI);
+            return null;
+        }
+        return new ClasspathInput(publicId, resolved.toString(), baseURI, stream);
+    }
+
+    private static String toResourcePath(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static final class ClasspathInput implements LSInput {
+
+        private String publicId;
+        private String systemId;
+        private String baseURI;
+        private InputStream byteStream;
+
+        ClasspathInput(String publicId, String systemId, String baseURI, InputStream byteStream) {
+            this.publicId = publicId;
+            this.systemId = systemId;
+            this.baseURI = baseURI;
+            this.byteStream = byteStream;
+        }
+
+        @Override
+        public Reader getCharacterStream() { return null; }
+
+        @Override
+        public void setCharacterStream(Reader characterStream) { }
+
+        @Override
+        public InputStream getByteStream() { return byteStream; }
+
+        @Override
+        public void setByteStream(InputStream byteStream) { this.byteStream = byteStream; }
+
+        @Override
+        public String getStringData() { return null; }
+
+        @Override
+        public void setStringData(String stringData) { }
+
+        @Override
+        public String getSystemId() { return systemId; }
+
+        @Override
+        public void setSystemId(String systemId) { this.systemId = systemId; }
+
+        @Override
+        public String getPublicId() { return publicId; }
+
+        @Override
+        public void setPublicId(String publicId) { this.publicId = publicId; }
+
+        @Override
+        public String getBaseURI() { return baseURI; }
+
+        @Override
+        public void setBaseURI(String baseURI) { this.baseURI = baseURI; }
+
+        @Override
+        public String getEncoding() { return null; }
+
+        @Override
+        public void setEncoding(String encoding) { }
+
+        @Override
+        public boolean getCertifiedText() { return false; }
+
+        @Override
+        public void setCertifiedText(boolean certifiedText) { }
+    }
+}
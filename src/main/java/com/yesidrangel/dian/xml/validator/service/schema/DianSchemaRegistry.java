@@ -0,0 +1,116 @@
+package com.yesidrangel.dian.xml.validator.service.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlSecurityPolicy;
+import com.yesidrangel.dian.xml.validator.util.XsdValidationUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro de esquemas XSD compilados por {@link DianSchemaType}.
+ * <p>
+ * Cada esquema se compila una sola vez; {@link Schema} es inmutable y seguro entre hilos, así que
+ * cada validación solo crea un {@link Validator} liviano. La compilación es perezosa salvo que
+ * {@code dian.validator.xsd.eager-init} esté activo.
+ */
+@Slf4j
+@Component
+public class DianSchemaRegistry {
+
+    private final Map<DianSchemaType, Schema> schemas = new ConcurrentHashMap<>();
+    private final Map<DianSchemaType, ReentrantLock> locks = new EnumMap<>(DianSchemaType.class);
+    private final DianValidatorProperties properties;
+    private final ClassLoader classLoader;
+    private final XmlSecurityPolicy securityPolicy;
+
+    public DianSchemaRegistry(DianValidatorProperties properties) {
+        this.properties = properties;
+        this.securityPolicy = new XmlSecurityPolicy(properties.getXml());
+        this.classLoader = DianSchemaRegistry.class.getClassLoader();
+        for (DianSchemaType type : DianSchemaType.values()) {
+            locks.put(type, new ReentrantLock());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.getXsd().isEagerInit()) {
+            return;
+        }
+        for (DianSchemaType type : DianSchemaType.values()) {
+            try {
+                getSchema(type);
+            } catch (TechnicalException e) {
+                log.warn("No se pudo precompilar el esquema {}: {}", type, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Devuelve el esquema compilado del tipo de documento, compilándolo si aún no existe.
+     *
+     * @throws TechnicalException si el XSD no existe o no compila
+     */
+    public Schema getSchema(DianSchemaType type) {
+        Schema schema = schemas.get(type);
+        if (schema != null) {
+            return schema;
+        }
+        // ReentrantLock en lugar de computeIfAbsent: la compilación tarda segundos y no debe
+        // bloquear el bin del mapa ni fijar el hilo portador.
+        ReentrantLock lock = locks.get(type);
+        lock.lock();
+        try {
+            schema = schemas.get(type);
+            if (schema == null) {
+                schema = compile(type);
+                schemas.put(type, schema);
+            }
+            return schema;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Schema compile(DianSchemaType type) {
+        String xsdPath = type.getXsdPath();
+        URL xsdUrl = classLoader.getResource(xsdPath);
+        if (xsdUrl == null) {
+            throw new TechnicalException(XsdValidationUtil.XSD_NO_ENCONTRADO + xsdPath, null);
+        }
+        long start = System.nanoTime();
+        try (InputStream xsdStream = xsdUrl.openStream()) {
+            // Los validadores del esquema heredan los límites de la factory
+            SchemaFactory factory = securityPolicy.configure(
+                    SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI));
+            factory.setResourceResolver(new ClasspathResourceResolver(classLoader));
+            StreamSource source = new StreamSource(xsdStream, ClasspathResourceResolver.toSystemId(xsdPath));
+            Schema schema = factory.newSchema(source);
+            log.info("Esquema {} compilado en {} ms", type, (System.nanoTime() - start) / 1_000_000);
+            return schema;
+        } catch (SAXException | IOException e) {
+            throw new TechnicalException("Error compilando XSD: " + xsdPath, e);
+        }
+    }
+}
@@ -1,11 +1,28 @@
 package com.yesidrangel.dian.xml.validator.service.semantic;
 
-import java.util.List;
-
 import org.w3c.dom.Document;
 
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidityHorizon;
+
 public interface DianSemanticValidator {
 
-    List<String> validate(Document xmlDocument, String documentType, String technicalKey);
+    /**
+     * Extrae del DOM los campos que necesitan las reglas. El DOM de Xerces no es seguro para
+     * lecturas concurrentes, así que esta fase corre en el hilo que parseó el documento.
+     */
+    DianDocumentFields extract(Document xmlDocument, DianSchemaType documentType);
+
+    /**
+     * Evalúa las reglas sobre los campos ya extraídos, sin tocar el DOM. Puede ejecutarse en
+     * paralelo con la validación de firma.
+     *
+     * @param horizon  lo acotan las reglas que dependen de la fecha actual
+     * @param findings destino de los hallazgos; si se agota, las reglas restantes no se evalúan
+     */
+    FindingCollector validate(DianDocumentFields fields, String technicalKey, ValidityHorizon horizon,
+            FindingCollector findings);
 
 }
@@ -0,0 +1,81 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.util.CufeGeneratorUtil;
+
+/**
+ * {@code cbc:UUID} presente y igual al CUFE (facturas) o CUDE (notas crédito) calculado. El CUDE
+ * tiene la misma composición con el PIN del software en lugar de la clave técnica, así que la clave
+ * recibida se usa tal cual.
+ * <p>
+ * No aplica al documento soporte: su CUDS se compone de otros campos (solo el impuesto 01, los
+ * números del vendedor y del adquiriente en otro orden y el PIN del software) y esta fórmula lo
+ * reportaría como distinto en todo documento válido.
+ */
+@Order(50)
+@Component
+public class CufeRule implements DianSemanticRule {
+
+    private static final Set<DianSchemaType> DOCUMENT_TYPES = EnumSet.of(DianSchemaType.INVOICE,
+            DianSchemaType.CREDIT_NOTE);
+    private static final Set<DianField> FIELDS = EnumSet.of(DianField.UUID, DianField.ID, DianField.ISSUE_DATE,
+            DianField.ISSUE_TIME, DianField.PROFILE_EXECUTION_ID, DianField.SUPPLIER_COMPANY_ID,
+            DianField.CUSTOMER_COMPANY_ID, DianField.MONETARY_TOTALS, DianField.TAX_TOTALS);
+
+    @Override
+    public String id() {
+        return "cufe";
+    }
+
+    @Override
+    public String dianCode() {
+        return "FAD06";
+    }
+
+    @Override
+    public Set<DianSchemaType> documentTypes() {
+        return DOCUMENT_TYPES;
+    }
+
+    @Override
+    public Set<DianField> requiredFields() {
+        return FIELDS;
+    }
+
+    @Override
+    public void evaluate(DianRuleContext context) {
+        DianDocumentFields fields = context.fields();
+        String name = fields.documentType() == DianSchemaType.INVOICE ? "CUFE" : "CUDE";
+
+        // 1. Validar presencia del CUFE en el XML
+        String cufeXml = fields.uuid();
+        if (cufeXml.isBlank()) {
+            context.reportAt(context.location(DianField.UUID), "El {} es obligatorio", name);
+            return;
+        }
+        // 2. Validar clave técnica
+        String technicalKey = context.technicalKey();
+        if (technicalKey == null || technicalKey.isBlank()) {
+            context.report(DianSeverityLevel.WARNING,
+                    "No se pudo validar " + name + " completo (clave técnica no enviada)");
+            return;
+        }
+        // 3. Generar a partir de los campos extraídos y comparar
+        String generatedCufe = CufeGeneratorUtil.generate(fields, technicalKey);
+
+        if (!generatedCufe.equalsIgnoreCase(cufeXml)) {
+            context.reportAt(context.location(DianField.UUID),
+                    "El {} no coincide con el calculado por DIAN. Esperado: {}, Recibido: {}", name, generatedCufe,
+                    cufeXml);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import static com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals.isPresent;
+import static com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals.orZero;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.DianLineItems;
+import com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals;
+import com.yesidrangel.dian.xml.validator.util.DianAmountUtil;
+
+/**
+ * Reglas aritméticas de las líneas y su cuadre con los totales del encabezado.
+ * <p>
+ * Por línea: {@code LineExtensionAmount = cantidad × PriceAmount / BaseQuantity − descuentos +
+ * cargos}. Cada tramo de líneas devuelve además sus sumas parciales ({@code LineExtensionAmount} e
+ * impuestos por tributo), que se combinan para cuadrar con {@code LegalMonetaryTotal} y los
+ * {@code TaxTotal} del encabezado sin volver a recorrer las líneas. Con al menos
+ * {@code dian.validator.rules.parallel-threshold} líneas los tramos se reparten en el pool
+ * fork-join común; por debajo, un solo tramo corre en el hilo que valida.
+ * <p>
+ * Solo lee los arreglos de {@link DianLineItems}, nunca el DOM, así que es seguro en paralelo.
+ * Los descuadres de TaxInclusiveAmount y PayableAmount se reportan con su propio código DIAN.
+ */
+@Order(40)
+@Component
+public class DianLineRuleEngine implements DianSemanticRule {
+
+    // Líneas por tarea hoja: amortiza el costo de repartir sin dejar tramos desbalanceados
+    private static final int LEAF_SIZE = 1_024;
+
+    // cantidad (6 decimales) × precio (6) / BaseQuantity (6) deja 6 decimales; a centavos quedan 4
+    private static final long QUANTITY_TO_CENTS = 10_000L;
+
+    private final DianValidatorProperties properties;
+
+    public DianLineRuleEngine(DianValidatorProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public String id() {
+        return "line-totals";
+    }
+
+    @Override
+    public String dianCode() {
+        return "FAU02";
+    }
+
+    @Override
+    public Set<DianSchemaType> documentTypes() {
+        return Set.of(DianSchemaType.values());
+    }
+
+    @Override
+    public Set<DianField> requiredFields() {
+        return Set.of(DianField.LINES, DianField.MONETARY_TOTALS, DianField.TAX_TOTALS);
+    }
+
+    @Override
+    public void evaluate(DianRuleContext context) {
+        DianDocumentFields fields = context.fields();
+        DianLineItems lines = fields.lines();
+        String[] codes = taxCodes(fields);
+        long tolerance = toleranceCents();
+
+        LineTotals totals;
+        if (lines.size() >= properties.getRules().getParallelThreshold()) {
+            totals = ForkJoinPool.commonPool().invoke(new LineRuleTask(lines, codes, tolerance, 0, lines.size()));
+        } else {
+            totals = evaluate(lines, codes, tolerance, 0, lines.size());
+        }
+        for (LineMismatch mismatch : totals.errors) {
+            context.reportAt(context.lineLocation(mismatch.line(), "cbc:LineExtensionAmount"),
+                    "Línea {}: LineExtensionAmount {} no coincide con cantidad × precio − descuentos + cargos ({})",
+                    mismatch.line(), new Cents(mismatch.declared()), new Cents(mismatch.expected()));
+        }
+        validateHeader(fields, codes, totals, tolerance, context);
+    }
+
+    private static LineTotals evaluate(DianLineItems lines, String[] codes, long tolerance, int from, int to) {
+        LineTotals totals = new LineTotals(codes.length);
+        for (int i = from; i < to; i++) {
+            long quantity = lines.quantity(i);
+            long price = lines.priceAmount(i);
+            if (!isPresent(quantity) || !isPresent(price)) {
+                continue;
+            }
+            long expected = expectedLineExtensionCents(quantity, price, lines.baseQuantity(i))
+                    - lines.allowanceCents(i) + lines.chargeCents(i);
+            long declared = lines.lineExtensionCents(i);
+            if (Math.abs(expected - declared) > tolerance) {
+                totals.addError(new LineMismatch(i + 1, declared, expected));
+            }
+        }
+        totals.lineExtension = lines.lineExtensionSum(from, to);
+        for (int c = 0; c < codes.length; c++) {
+            totals.taxes[c] = lines.taxSum(codes[c], from, to);
+        }
+        return totals;
+    }
+
+    private static void validateHeader(DianDocumentFields fields, String[] codes, LineTotals totals,
+            long tolerance, DianRuleContext context) {
+        MonetaryTotals header = fields.totals();
+        DianLineItems lines = fields.lines();
+
+        // Suma de las líneas contra LegalMonetaryTotal/LineExtensionAmount
+        if (lines.size() > 0 && isPresent(header.lineExtensionCents())
+                && Math.abs(header.lineExtensionCents() - totals.lineExtension) > tolerance) {
+            reportMismatch(context, context.dianCode(), "LineExtensionAmount", header.lineExtensionCents(),
+                    "la suma de las líneas", totals.lineExtension);
+        }
+
+        // Impuestos de las líneas contra el TaxTotal del encabezado, por tributo
+        long headerTaxes = 0;
+        for (int c = 0; c < codes.length; c++) {
+            long headerTax = DianAmountUtil.parseCentsOrZero(fields.taxAmounts().get(codes[c]));
+            headerTaxes += headerTax;
+            if (!lines.taxCodes().isEmpty() && Math.abs(headerTax - totals.taxes[c]) > tolerance) {
+                context.reportAt(context.location(DianField.TAX_TOTALS),
+                        "TaxTotal del tributo {} {} no coincide con la suma de los impuestos de las líneas ({})",
+                        codes[c], new Cents(headerTax), new Cents(totals.taxes[c]));
+            }
+        }
+
+        // TaxInclusiveAmount = LineExtensionAmount + impuestos
+        if (isPresent(header.taxInclusiveCents()) && isPresent(header.lineExtensionCents())) {
+            long expected = header.lineExtensionCents() + headerTaxes;
+            if (Math.abs(header.taxInclusiveCents() - expected) > tolerance) {
+                reportMismatch(context, "FAU06", "TaxInclusiveAmount", header.taxInclusiveCents(),
+                        "LineExtensionAmount + impuestos", expected);
+            }
+        }
+
+        // PayableAmount = TaxInclusiveAmount − descuentos + cargos − anticipos + redondeo
+        if (isPresent(header.payableCents()) && isPresent(header.taxInclusiveCents())) {
+            long expected = header.taxInclusiveCents() - orZero(header.allowanceTotalCents())
+                    + orZero(header.chargeTotalCents()) - orZero(header.prepaidCents())
+                    + orZero(header.payableRoundingCents());
+            if (Math.abs(header.payableCents() - expected) > tolerance) {
+                reportMismatch(context, "FAU14", "PayableAmount", header.payableCents(),
+                        "TaxInclusiveAmount − descuentos + cargos − anticipos", expected);
+            }
+        }
+    }
+
+    /**
+     * {@code cantidad × precio / BaseQuantity} en centavos, redondeado HALF_UP. Usa aritmética
+     * {@code long} y solo recurre a {@link BigDecimal} si el producto se desborda.
+     */
+    private static long expectedLineExtensionCents(long quantity, long price, long baseQuantity) {
+        try {
+            long numerator = Math.multiplyExact(quantity, price);
+            long denominator = Math.multiplyExact(baseQuantity, QUANTITY_TO_CENTS);
+            long quotient = numerator / denominator;
+            long remainder = Math.abs(numerator % denominator);
+            if (remainder >= Math.abs(denominator) - remainder) {
+                quotient += Long.signum(numerator) * Long.signum(denominator);
+            }
+            return quotient;
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(quantity)
+                    .multiply(BigDecimal.valueOf(price))
+                    .divide(BigDecimal.valueOf(baseQuantity).multiply(BigDecimal.valueOf(QUANTITY_TO_CENTS)),
+                            0, RoundingMode.HALF_UP)
+                    .longValue();
+        }
+    }
+
+    // Campo de LegalMonetaryTotal que no cuadra; el mensaje se arma al serializar
+    private static void reportMismatch(DianRuleContext context, String dianCode, String element, long declared,
+            String rule, long expected) {
+        context.reportAt(dianCode, context.severity(),
+                context.location(DianField.MONETARY_TOTALS) + "/cbc:" + element,
+                "LegalMonetaryTotal/{} {} no coincide con {} ({})", element, new Cents(declared), rule,
+                new Cents(expected));
+    }
+
+    // Tributos del encabezado y de las líneas, ordenados para que los mensajes sean estables
+    private static String[] taxCodes(DianDocumentFields fields) {
+        TreeSet<String> codes = new TreeSet<>(fields.taxAmounts().keySet());
+        codes.addAll(fields.lines().taxCodes());
+        return codes.toArray(String[]::new);
+    }
+
+    private long toleranceCents() {
+        return properties.getRules().getAmountTolerance()
+                .movePointRight(DianAmountUtil.CENTS)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * Resultado de un tramo de líneas: sus errores en orden y sus sumas parciales.
+     */
+    private static final class LineTotals {
+
+        private long lineExtension;
+        private final long[] taxes;
+        private List<LineMismatch> errors = List.of();
+
+        private LineTotals(int taxCodes) {
+            this.taxes = new long[taxCodes];
+        }
+
+        private void addError(LineMismatch error) {
+            if (errors.isEmpty()) {
+                errors = new ArrayList<>();
+            }
+            errors.add(error);
+        }
+
+        // this es el tramo izquierdo: los errores conservan el orden de las líneas
+        private LineTotals combine(LineTotals right) {
+            lineExtension += right.lineExtension;
+            for (int c = 0; c < taxes.length; c++) {
+                taxes[c] += right.taxes[c];
+            }
+            if (!right.errors.isEmpty()) {
+                if (errors.isEmpty()) {
+                    errors = right.errors;
+                } else {
+                    errors.addAll(right.errors);
+                }
+            }
+            return this;
+        }
+    }
+
+    private record LineMismatch(int line, long declared, long expected) {
+    }
+
+    /**
+     * Monto en centavos que se formatea solo al armar el mensaje.
+     */
+    private record Cents(long value) {
+
+        @Override
+        public String toString() {
+            return DianAmountUtil.formatCents(value);
+        }
+    }
+
+    private static final class LineRuleTask extends RecursiveTask<LineTotals> {
+
+        private final DianLineItems lines;
+        private final String[] codes;
+        private final long tolerance;
+        private final int from;
+        private final int to;
+
+        private LineRuleTask(DianLineItems lines, String[] codes, long tolerance, int from, int to) {
+            this.lines = lines;
+            this.codes = codes;
+            this.tolerance = tolerance;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LineTotals compute() {
+            if (to - from <= LEAF_SIZE) {
+                return evaluate(lines, codes, tolerance, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            LineRuleTask left = new LineRuleTask(lines, codes, tolerance, from, middle);
+            left.fork();
+            LineTotals right = new LineRuleTask(lines, codes, tolerance, middle, to).compute();
+            return left.join().combine(right);
+        }
+    }
+}
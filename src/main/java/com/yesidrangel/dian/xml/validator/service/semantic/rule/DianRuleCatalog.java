@@ -0,0 +1,103 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties.RuleDefinition;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.service.semantic.rule.DianRulePlan.PlannedRule;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compila al arrancar las reglas registradas como beans y las de {@code dian.validator.rules.catalog}
+ * en un {@link DianRulePlan} por tipo de documento. Un catálogo inválido (ids repetidos, reglas
+ * nuevas sin campo) detiene el arranque en lugar de validar con reglas incompletas.
+ */
+@Slf4j
+@Component
+public class DianRuleCatalog {
+
+    private final Map<DianSchemaType, DianRulePlan> plans = new EnumMap<>(DianSchemaType.class);
+
+    public DianRuleCatalog(List<DianSemanticRule> beans, DianValidatorProperties properties) {
+        Map<String, RuleDefinition> definitions = new LinkedHashMap<>();
+        for (RuleDefinition definition : properties.getRules().getCatalog()) {
+            if (definition.getId() == null || definitions.put(definition.getId(), definition) != null) {
+                throw new IllegalStateException("Catálogo de reglas con id vacío o repetido: " + definition.getId());
+            }
+        }
+
+        List<DianSemanticRule> rules = new ArrayList<>(beans);
+        Set<String> ids = new HashSet<>();
+        for (DianSemanticRule rule : beans) {
+            if (!ids.add(rule.id())) {
+                throw new IllegalStateException("Regla semántica con id repetido: " + rule.id());
+            }
+        }
+        definitions.values().stream()
+                .filter(definition -> !ids.contains(definition.getId()))
+                .map(DianRuleCatalog::declaredRule)
+                .forEach(rules::add);
+
+        for (DianSchemaType type : DianSchemaType.values()) {
+            List<PlannedRule> planned = new ArrayList<>();
+            for (DianSemanticRule rule : rules) {
+                RuleDefinition definition = definitions.get(rule.id());
+                if (definition != null && !definition.isEnabled()) {
+                    continue;
+                }
+                Set<DianSchemaType> types = definition != null && !definition.getDocumentTypes().isEmpty()
+                        ? definition.getDocumentTypes()
+                        : rule.documentTypes();
+                if (types.contains(type)) {
+                    planned.add(planned(rule, definition));
+                }
+            }
+            DianRulePlan plan = new DianRulePlan(type, planned);
+            plans.put(type, plan);
+            log.info("Plan de reglas {}: {} con campos {}", type, plan.ruleIds(), plan.fields());
+        }
+    }
+
+    public DianRulePlan plan(DianSchemaType documentType) {
+        return plans.get(documentType);
+    }
+
+    // Código y severidad del catálogo, si los define, sobre los de la regla
+    private static PlannedRule planned(DianSemanticRule rule, RuleDefinition definition) {
+        if (definition == null) {
+            return new PlannedRule(rule, rule.dianCode(), rule.severity());
+        }
+        return new PlannedRule(rule,
+                definition.getDianCode() != null ? definition.getDianCode() : rule.dianCode(),
+                definition.getSeverity() != null ? definition.getSeverity() : rule.severity());
+    }
+
+    private static DianSemanticRule declaredRule(RuleDefinition definition) {
+        if (definition.getField() == null || definition.getDianCode() == null) {
+            throw new IllegalStateException("La regla " + definition.getId()
+                    + " no corresponde a un bean y no declara field y dian-code");
+        }
+        Set<DianSchemaType> types = definition.getDocumentTypes().isEmpty()
+                ? Set.of(DianSchemaType.values())
+                : Set.copyOf(definition.getDocumentTypes());
+        DianSeverityLevel severity = definition.getSeverity() != null
+                ? definition.getSeverity()
+                : DianSeverityLevel.ERROR;
+        String message = definition.getMessage() != null
+                ? definition.getMessage()
+                : definition.getField() + " es obligatorio";
+        return new RequiredFieldRule(definition.getId(), definition.getDianCode(), types, definition.getField(),
+                severity, message);
+    }
+}
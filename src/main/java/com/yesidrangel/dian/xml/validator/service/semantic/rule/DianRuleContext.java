@@ -0,0 +1,117 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidityHorizon;
+
+/**
+ * Entradas de una evaluación y destino de sus hallazgos. El plan lo reutiliza para todas sus
+ * reglas y fija antes de cada una el código y la severidad efectivos. Lo usa un solo hilo: una
+ * regla que reparte trabajo reporta al final, desde el hilo que la invocó.
+ */
+public final class DianRuleContext {
+
+    private final DianDocumentFields fields;
+    private final String technicalKey;
+    private final ValidityHorizon horizon;
+    private final FindingCollector findings;
+
+    private String dianCode;
+    private DianSeverityLevel severity;
+
+    DianRuleContext(DianDocumentFields fields, String technicalKey, ValidityHorizon horizon,
+            FindingCollector findings) {
+        this.fields = fields;
+        this.technicalKey = technicalKey;
+        this.horizon = horizon;
+        this.findings = findings;
+    }
+
+    void bind(String dianCode, DianSeverityLevel severity) {
+        this.dianCode = dianCode;
+        this.severity = severity;
+    }
+
+    public DianDocumentFields fields() {
+        return fields;
+    }
+
+    public String technicalKey() {
+        return technicalKey;
+    }
+
+    /**
+     * Lo acotan las reglas cuyo resultado depende de la fecha actual.
+     */
+    public ValidityHorizon horizon() {
+        return horizon;
+    }
+
+    /**
+     * Reporta un hallazgo con el código y la severidad de la regla.
+     */
+    public void report(String message) {
+        report(dianCode, severity, message);
+    }
+
+    /**
+     * Reporta un hallazgo con otro código y la severidad de la regla, para reglas que cubren
+     * varias validaciones del anexo.
+     */
+    public void report(String dianCode, String message) {
+        report(dianCode, severity, message);
+    }
+
+    public void report(DianSeverityLevel severity, String message) {
+        report(dianCode, severity, message);
+    }
+
+    public void report(String dianCode, DianSeverityLevel severity, String message) {
+        findings.add(severity, dianCode, null, message);
+    }
+
+    /**
+     * Reporta un hallazgo ubicado en {@code location}, con el código y la severidad de la regla. El
+     * mensaje es un patrón con marcadores {@code {}} que se arma solo al serializar la respuesta.
+     */
+    public void reportAt(String location, String pattern, Object... arguments) {
+        findings.add(severity, dianCode, location, pattern, arguments);
+    }
+
+    public void reportAt(String dianCode, DianSeverityLevel severity, String location, String pattern,
+            Object... arguments) {
+        findings.add(severity, dianCode, location, pattern, arguments);
+    }
+
+    /**
+     * Código DIAN efectivo de la regla en curso.
+     */
+    public String dianCode() {
+        return dianCode;
+    }
+
+    /**
+     * Severidad efectiva de la regla en curso.
+     */
+    public DianSeverityLevel severity() {
+        return severity;
+    }
+
+    /**
+     * XPath de un campo del encabezado, por ejemplo {@code /Invoice/cbc:UUID}.
+     */
+    public String location(DianField field) {
+        return "/" + fields.documentType().getRootElement() + "/" + field.getPath();
+    }
+
+    /**
+     * XPath de un elemento de la línea {@code line} (desde 1), por ejemplo
+     * {@code /Invoice/cac:InvoiceLine[3]/cbc:LineExtensionAmount}.
+     */
+    public String lineLocation(int line, String element) {
+        String root = fields.documentType().getRootElement();
+        return "/" + root + "/cac:" + root + "Line[" + line + "]/" + element;
+    }
+}
@@ -0,0 +1,75 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidityHorizon;
+
+/**
+ * Plan de ejecución de un tipo de documento: sus reglas en orden, con código y severidad ya
+ * resueltos contra el catálogo, y la unión de los campos que necesitan. Inmutable; se compila
+ * una vez al arrancar.
+ */
+public final class DianRulePlan {
+
+    private final DianSchemaType documentType;
+    private final List<PlannedRule> rules;
+    private final Set<DianField> fields;
+
+    DianRulePlan(DianSchemaType documentType, List<PlannedRule> rules) {
+        this.documentType = documentType;
+        this.rules = List.copyOf(rules);
+        EnumSet<DianField> union = EnumSet.noneOf(DianField.class);
+        rules.forEach(planned -> union.addAll(planned.rule().requiredFields()));
+        this.fields = Collections.unmodifiableSet(union);
+    }
+
+    public DianSchemaType documentType() {
+        return documentType;
+    }
+
+    /**
+     * Campos que se extraen del DOM para este tipo de documento.
+     */
+    public Set<DianField> fields() {
+        return fields;
+    }
+
+    public List<String> ruleIds() {
+        return rules.stream().map(planned -> planned.rule().id()).toList();
+    }
+
+    public FindingCollector evaluate(DianDocumentFields documentFields, String technicalKey,
+            ValidityHorizon horizon) {
+        return evaluate(documentFields, technicalKey, horizon, new FindingCollector(ValidationFindingType.SEMANTIC));
+    }
+
+    /**
+     * Evalúa las reglas en orden hacia {@code findings}. Si el colector se agota (máximo de
+     * hallazgos o presupuesto de tiempo) no evalúa las reglas restantes y lo marca como detenido.
+     */
+    public FindingCollector evaluate(DianDocumentFields documentFields, String technicalKey,
+            ValidityHorizon horizon, FindingCollector findings) {
+        DianRuleContext context = new DianRuleContext(documentFields, technicalKey, horizon, findings);
+        for (PlannedRule planned : rules) {
+            if (findings.exhausted()) {
+                findings.abort();
+                break;
+            }
+            context.bind(planned.dianCode(), planned.severity());
+            planned.rule().evaluate(context);
+        }
+        return findings;
+    }
+
+    record PlannedRule(DianSemanticRule rule, String dianCode, DianSeverityLevel severity) {
+    }
+}
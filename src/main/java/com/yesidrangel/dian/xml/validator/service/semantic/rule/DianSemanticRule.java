@@ -0,0 +1,49 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.Set;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+
+/**
+ * Regla semántica DIAN. Las implementaciones se registran como beans de Spring (el orden lo da
+ * {@code @Order}) y {@link DianRuleCatalog} las compila al arrancar en un plan por tipo de
+ * documento. Código, severidad, tipos de documento y activación se pueden sobrescribir desde
+ * {@code dian.validator.rules.catalog}.
+ * <p>
+ * Las reglas solo leen {@link DianRuleContext#fields()}, nunca el DOM, y no guardan estado entre
+ * documentos: la misma instancia evalúa documentos en paralelo.
+ */
+public interface DianSemanticRule {
+
+    /**
+     * Identificador estable de la regla, el que se usa en el catálogo.
+     */
+    String id();
+
+    /**
+     * Código de la regla en el anexo técnico DIAN (por ejemplo {@code FAD06}).
+     */
+    String dianCode();
+
+    /**
+     * Tipos de documento a los que aplica.
+     */
+    Set<DianSchemaType> documentTypes();
+
+    /**
+     * Campos que la regla lee; el plan extrae solo la unión de los de sus reglas.
+     */
+    Set<DianField> requiredFields();
+
+    /**
+     * Severidad de los hallazgos que la regla reporta sin indicar otra.
+     */
+    default DianSeverityLevel severity() {
+        return DianSeverityLevel.ERROR;
+    }
+
+    void evaluate(DianRuleContext context);
+
+}
@@ -0,0 +1,45 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.Set;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+
+/**
+ * El número del documento ({@code cbc:ID}) es obligatorio.
+ */
+@Order(10)
+@Component
+public class DocumentIdRule implements DianSemanticRule {
+
+    @Override
+    public String id() {
+        return "document-id";
+    }
+
+    @Override
+    public String dianCode() {
+        return "FAD05";
+    }
+
+    @Override
+    public Set<DianSchemaType> documentTypes() {
+        return Set.of(DianSchemaType.values());
+    }
+
+    @Override
+    public Set<DianField> requiredFields() {
+        return Set.of(DianField.ID);
+    }
+
+    @Override
+    public void evaluate(DianRuleContext context) {
+        if (context.fields().id().isBlank()) {
+            context.reportAt(context.location(DianField.ID),
+                    "El número del documento (cbc:ID) es obligatorio");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+
+/**
+ * {@code cbc:IssueDate} válida y no futura. Acota el horizonte de validez: una fecha futura deja
+ * de serlo el día de emisión.
+ */
+@Order(20)
+@Component
+public class IssueDateRule implements DianSemanticRule {
+
+    @Override
+    public String id() {
+        return "issue-date";
+    }
+
+    @Override
+    public String dianCode() {
+        return "FAD09";
+    }
+
+    @Override
+    public Set<DianSchemaType> documentTypes() {
+        return Set.of(DianSchemaType.values());
+    }
+
+    @Override
+    public Set<DianField> requiredFields() {
+        return Set.of(DianField.ISSUE_DATE);
+    }
+
+    @Override
+    public void evaluate(DianRuleContext context) {
+        String value = context.fields().issueDate();
+        if (value.isBlank()) {
+            return;
+        }
+        try {
+            LocalDate issueDate = LocalDate.parse(value);
+            if (issueDate.isAfter(LocalDate.now())) {
+                context.reportAt(context.location(DianField.ISSUE_DATE),
+                        "IssueDate no puede ser una fecha futura");
+                // Deja de ser futura cuando llega el día de emisión
+                context.horizon().changesAt(issueDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+            }
+        } catch (DateTimeParseException e) {
+            context.reportAt(context.location(DianField.ISSUE_DATE),
+                    "IssueDate tiene formato inválido: {}", value);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.Set;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals;
+import com.yesidrangel.dian.xml.validator.util.DianAmountUtil;
+
+/**
+ * Regla declarada en {@code dian.validator.rules.catalog} sin bean asociado: exige que un campo
+ * venga en el documento.
+ */
+final class RequiredFieldRule implements DianSemanticRule {
+
+    private final String id;
+    private final String dianCode;
+    private final Set<DianSchemaType> documentTypes;
+    private final DianField field;
+    private final DianSeverityLevel severity;
+    private final String message;
+
+    RequiredFieldRule(String id, String dianCode, Set<DianSchemaType> documentTypes, DianField field,
+            DianSeverityLevel severity, String message) {
+        this.id = id;
+        this.dianCode = dianCode;
+        this.documentTypes = documentTypes;
+        this.field = field;
+        this.severity = severity;
+        this.message = message;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public String dianCode() {
+        return dianCode;
+    }
+
+    @Override
+    public Set<DianSchemaType> documentTypes() {
+        return documentTypes;
+    }
+
+    @Override
+    public Set<DianField> requiredFields() {
+        return Set.of(field);
+    }
+
+    @Override
+    public DianSeverityLevel severity() {
+        return severity;
+    }
+
+    @Override
+    public void evaluate(DianRuleContext context) {
+        if (!isPresent(context.fields())) {
+            context.reportAt(field.getPath() != null ? context.location(field) : null, message);
+        }
+    }
+
+    private boolean isPresent(DianDocumentFields fields) {
+        return switch (field) {
+            case ID -> !fields.id().isBlank();
+            case UUID -> !fields.uuid().isBlank();
+            case ISSUE_DATE -> !fields.issueDate().isBlank();
+            case ISSUE_TIME -> !fields.issueTime().isBlank();
+            case PROFILE_EXECUTION_ID -> !fields.profileExecutionId().isBlank();
+            case SUPPLIER_COMPANY_ID -> !fields.supplierCompanyId().isBlank();
+            case CUSTOMER_COMPANY_ID -> !fields.customerCompanyId().isBlank();
+            case MONETARY_TOTALS -> MonetaryTotals.isPresent(fields.totals().payableCents());
+            case TAX_TOTALS -> fields.taxAmounts().values().stream()
+                    .anyMatch(amount -> DianAmountUtil.parseCentsOrZero(amount) != 0);
+            case LINES -> fields.lineCount() > 0;
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import java.util.Set;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+
+/**
+ * El NIT del emisor ({@code cac:AccountingSupplierParty/.../cbc:CompanyID}) es obligatorio.
+ */
+@Order(30)
+@Component
+public class SupplierNitRule implements DianSemanticRule {
+
+    @Override
+    public String id() {
+        return "supplier-nit";
+    }
+
+    @Override
+    public String dianCode() {
+        return "FAJ21";
+    }
+
+    @Override
+    public Set<DianSchemaType> documentTypes() {
+        return Set.of(DianSchemaType.values());
+    }
+
+    @Override
+    public Set<DianField> requiredFields() {
+        return Set.of(DianField.SUPPLIER_COMPANY_ID);
+    }
+
+    @Override
+    public void evaluate(DianRuleContext context) {
+        if (context.fields().supplierCompanyId().isBlank()) {
+            context.reportAt(context.location(DianField.SUPPLIER_COMPANY_ID),
+                    "NIT del emisor es obligatorio");
+        }
+    }
+}
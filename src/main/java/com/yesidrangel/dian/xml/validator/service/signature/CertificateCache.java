@@ -0,0 +1,157 @@
+package com.yesidrangel.dian.xml.validator.service.signature;
+
+import java.io.ByteArrayInputStream;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+
+/**
+ * Caché LRU de certificados firmantes por hash de sus bytes DER. Los documentos llegan de unos
+ * pocos cientos de emisores que reutilizan su certificado, así que el parseo ASN.1 y las
+ * verificaciones (ruta de confianza, uso de clave, algoritmo, vigencia) se hacen una vez por
+ * certificado y no una vez por documento.
+ * <p>
+ * Cada entrada vence con el TTL o cuando cambia su vigencia (inicio o fin), lo que ocurra
+ * primero. La clave compara los bytes completos, no solo el hash: un certificado distinto nunca
+ * reutiliza la evaluación de otro. Una ruta de confianza fallida no se guarda: depende de los
+ * intermedios que trajo ese documento, y un documento posterior con la cadena completa debe poder
+ * construirla. Usa un {@link ReentrantLock}, no synchronized, por los hilos
+ * virtuales; el parseo en un fallo ocurre fuera del lock.
+ */
+@Component
+public class CertificateCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<DerKey, Entry> entries;
+    private final Duration ttl;
+    private final CertificateTrustValidator trustValidator;
+
+    public CertificateCache(DianValidatorProperties properties, CertificateTrustValidator trustValidator) {
+        this.trustValidator = trustValidator;
+        DianValidatorProperties.Signature signature = properties.getSignature();
+        int maxEntries = signature.getCertificateCacheSize();
+        this.ttl = signature.getCertificateCacheTtl();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DerKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Certificado ya parseado (por ejemplo por el proveedor XMLDSig): solo evalúa en un fallo.
+     *
+     * @param intermediates otros certificados de {@code ds:KeyInfo}, para construir la ruta
+     */
+    public CertificateInfo get(X509Certificate certificate, List<X509Certificate> intermediates) {
+        byte[] der;
+        try {
+            der = certificate.getEncoded();
+        } catch (CertificateEncodingException e) {
+            return evaluate(certificate, intermediates, Instant.now());
+        }
+        DerKey key = new DerKey(der);
+        Instant now = Instant.now();
+        CertificateInfo cached = lookup(key, now);
+        return cached != null ? cached : store(key, evaluate(certificate, intermediates, now), now);
+    }
+
+    /**
+     * Bytes DER del certificado: solo parsea en un fallo.
+     */
+    public CertificateInfo get(byte[] der) throws CertificateException {
+        DerKey key = new DerKey(der);
+        Instant now = Instant.now();
+        CertificateInfo cached = lookup(key, now);
+        if (cached != null) {
+            return cached;
+        }
+        CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        X509Certificate certificate = (X509Certificate) factory.generateCertificate(new ByteArrayInputStream(der));
+        return store(key, evaluate(certificate, List.of(), now), now);
+    }
+
+    private CertificateInfo lookup(DerKey key, Instant now) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!now.isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.info();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CertificateInfo store(DerKey key, CertificateInfo info, Instant now) {
+        if (info.trust().pathValidated() && !info.trust().trusted()) {
+            return info;
+        }
+        Instant expiresAt = now.plus(ttl);
+        if (info.validityChangesAt() != null && info.validityChangesAt().isBefore(expiresAt)) {
+            expiresAt = info.validityChangesAt();
+        }
+        lock.lock();
+        try {
+            entries.put(key, new Entry(info, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+        return info;
+    }
+
+    private CertificateInfo evaluate(X509Certificate certificate, List<X509Certificate> intermediates, Instant now) {
+        Instant notBefore = certificate.getNotBefore().toInstant();
+        Instant notAfter = certificate.getNotAfter().toInstant();
+        boolean valid = !now.isBefore(notBefore) && now.isBefore(notAfter);
+        Instant changesAt = now.isBefore(notBefore) ? notBefore : now.isBefore(notAfter) ? notAfter : null;
+
+        boolean[] usage = certificate.getKeyUsage();
+        return new CertificateInfo(certificate, certificate.getPublicKey(), notBefore, notAfter,
+                usage != null && usage[1], certificate.getSigAlgName(), certificate.getIssuerX500Principal().getName(),
+                trustValidator.evaluate(certificate, intermediates), valid, changesAt);
+    }
+
+    private record Entry(CertificateInfo info, Instant expiresAt) {
+    }
+
+    // Los bytes no se copian: quien llama entrega un arreglo propio (getEncoded ya devuelve copia)
+    private static final class DerKey {
+
+        private final byte[] der;
+        private final int hash;
+
+        private DerKey(byte[] der) {
+            this.der = der;
+            this.hash = Arrays.hashCode(der);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DerKey key && hash == key.hash && Arrays.equals(der, key.der);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
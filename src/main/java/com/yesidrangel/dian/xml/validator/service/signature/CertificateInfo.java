@@ -0,0 +1,27 @@
+package com.yesidrangel.dian.xml.validator.service.signature;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+
+/**
+ * Certificado firmante ya parseado con los resultados de sus verificaciones. Las que dependen de
+ * la fecha actual ({@code valid}) solo rigen hasta {@code validityChangesAt}; después la entrada
+ * del caché vence y se recalcula.
+ *
+ * @param trust             cadena de confianza, evaluada una vez por certificado
+ * @param valid             vigente al momento de evaluarlo ({@code notBefore <= ahora < notAfter})
+ * @param validityChangesAt siguiente instante en que {@code valid} cambia, o null si ya venció
+ */
+public record CertificateInfo(
+        X509Certificate certificate,
+        PublicKey publicKey,
+        Instant notBefore,
+        Instant notAfter,
+        boolean nonRepudiation,
+        String signatureAlgorithm,
+        String issuer,
+        CertificateTrust trust,
+        boolean valid,
+        Instant validityChangesAt) {
+}
@@ -0,0 +1,20 @@
+package com.yesidrangel.dian.xml.validator.service.signature;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Resultado de decidir si el certificado firmante es de confianza.
+ *
+ * @param trusted           encadena a una CA del almacén (o, sin almacén, el emisor es conocido)
+ * @param pathValidated     se construyó la ruta PKIX contra el almacén de confianza; si es false
+ *                          la decisión es solo por el nombre del emisor
+ * @param issuerCertificate certificado de la CA emisora, necesario para consultar revocación; null
+ *                          si no se conoce
+ * @param detail            motivo del rechazo o emisor evaluado
+ */
+public record CertificateTrust(
+        boolean trusted,
+        boolean pathValidated,
+        X509Certificate issuerCertificate,
+        String detail) {
+}
@@ -0,0 +1,133 @@
+package com.yesidrangel.dian.xml.validator.service.signature;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.cert.CertPathBuilder;
+import java.security.cert.CertStore;
+import java.security.cert.Certificate;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.PKIXCertPathBuilderResult;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decide si el certificado firmante encadena a una CA de confianza.
+ * <p>
+ * Con {@code dian.validator.signature.trust-store} construye la ruta PKIX hasta las CAs del
+ * almacén, usando como intermedios los certificados que traiga {@code ds:KeyInfo}. La revocación
+ * no se consulta aquí (la cubre {@code RevocationStatusCache}) y la ruta se evalúa dentro de la
+ * vigencia del certificado, que se reporta aparte. Sin almacén conserva la heurística anterior por
+ * nombre del emisor. Una ruta válida se guarda con el certificado en {@link CertificateCache}, así
+ * que se construye una vez por certificado; una fallida se vuelve a intentar con los intermedios de
+ * cada documento.
+ */
+@Slf4j
+@Component
+public class CertificateTrustValidator {
+
+    private static final List<String> TRUSTED_ISSUERS = List.of(
+            "ORGANISMO NACIONAL DE ACREDITACION DE COLOMBIA",
+            "CERTICAMARA",
+            "ANDES SCD",
+            "GSE",
+            "ECOLOMBIA",
+            "GLOBALSIGN",
+            "SUCERED"
+    );
+
+    private final Set<TrustAnchor> anchors;
+    private final List<X509Certificate> trustedCertificates;
+
+    public CertificateTrustValidator(DianValidatorProperties properties, ResourceLoader resourceLoader) {
+        DianValidatorProperties.Signature signature = properties.getSignature();
+        List<X509Certificate> certificates = signature.getTrustStore() == null || signature.getTrustStore().isBlank()
+                ? List.of()
+                : load(resourceLoader.getResource(signature.getTrustStore()), signature.getTrustStoreType(),
+                        signature.getTrustStorePassword());
+        Set<TrustAnchor> trustAnchors = new HashSet<>();
+        certificates.forEach(certificate -> trustAnchors.add(new TrustAnchor(certificate, null)));
+        this.anchors = Collections.unmodifiableSet(trustAnchors);
+        this.trustedCertificates = certificates;
+        if (certificates.isEmpty()) {
+            log.info("Sin almacén de confianza: el emisor del certificado se evalúa por nombre");
+        } else {
+            log.info("Almacén de confianza con {} CAs", certificates.size());
+        }
+    }
+
+    /**
+     * CAs del almacén de confianza (vacío si no se configuró).
+     */
+    public List<X509Certificate> trustedCertificates() {
+        return trustedCertificates;
+    }
+
+    public CertificateTrust evaluate(X509Certificate certificate, List<X509Certificate> intermediates) {
+        if (anchors.isEmpty()) {
+            String issuer = certificate.getIssuerX500Principal().getName();
+            boolean trusted = TRUSTED_ISSUERS.stream().anyMatch(issuer::contains);
+            return new CertificateTrust(trusted, false, null, issuer);
+        }
+        try {
+            X509CertSelector target = new X509CertSelector();
+            target.setCertificate(certificate);
+            PKIXBuilderParameters parameters = new PKIXBuilderParameters(anchors, target);
+            parameters.setRevocationEnabled(false);
+            parameters.setDate(Date.from(withinValidity(certificate, Instant.now())));
+            List<X509Certificate> candidates = new ArrayList<>(intermediates);
+            candidates.add(certificate);
+            parameters.addCertStore(CertStore.getInstance("Collection", new CollectionCertStoreParameters(candidates)));
+
+            PKIXCertPathBuilderResult result = (PKIXCertPathBuilderResult) CertPathBuilder.getInstance("PKIX")
+                    .build(parameters);
+            List<? extends Certificate> path = result.getCertPath().getCertificates();
+            X509Certificate issuer = path.size() > 1
+                    ? (X509Certificate) path.get(1)
+                    : result.getTrustAnchor().getTrustedCert();
+            return new CertificateTrust(true, true, issuer, issuer.getSubjectX500Principal().getName());
+        } catch (Exception e) {
+            return new CertificateTrust(false, true, null, e.getMessage());
+        }
+    }
+
+    // La vigencia del firmante se reporta aparte; la ruta se evalúa en un instante en que es vigente
+    private static Instant withinValidity(X509Certificate certificate, Instant now) {
+        Instant notBefore = certificate.getNotBefore().toInstant();
+        Instant lastValid = certificate.getNotAfter().toInstant().minusSeconds(1);
+        return now.isBefore(notBefore) ? notBefore : now.isAfter(lastValid) ? lastValid : now;
+    }
+
+    private static List<X509Certificate> load(Resource resource, String type, String password) {
+        try (InputStream in = resource.getInputStream()) {
+            KeyStore store = KeyStore.getInstance(type);
+            store.load(in, password == null ? null : password.toCharArray());
+            List<X509Certificate> certificates = new ArrayList<>();
+            for (String alias : Collections.list(store.aliases())) {
+                if (store.getCertificate(alias) instanceof X509Certificate certificate) {
+                    certificates.add(certificate);
+                }
+            }
+            return List.copyOf(certificates);
+        } catch (Exception e) {
+            throw new TechnicalException("No se pudo cargar el almacén de confianza " + resource, e);
+        }
+    }
+}
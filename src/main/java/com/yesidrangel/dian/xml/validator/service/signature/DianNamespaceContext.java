@@ -1,28 +1,68 @@
 package com.yesidrangel.dian.xml.validator.service.signature;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
 
 public class DianNamespaceContext implements NamespaceContext {
 
-    private static final Map<String, String> NS = Map.of(
-            "cbc", "urn:oasis:names:specification:ubl:schema:xsd:CommonBasicComponents-2",
-            "cac", "urn:oasis:names:specification:ubl:schema:xsd:CommonAggregateComponents-2",
-            "ext", "urn:oasis:names:specification:ubl:schema:xsd:CommonExtensionComponents-2",
-            "ds",  "http://www.w3.org/2000/09/xmldsig#"
-    );
+    /** Instancia compartida: el contexto es inmutable. */
+    public static final DianNamespaceContext INSTANCE = new DianNamespaceContext();
+
+    public static final String INVOICE_NS = "urn:oasis:names:specification:ubl:schema:xsd:Invoice-2";
+    public static final String CREDIT_NOTE_NS = "urn:oasis:names:specification:ubl:schema:xsd:CreditNote-2";
+    public static final String DEBIT_NOTE_NS = "urn:oasis:names:specification:ubl:schema:xsd:DebitNote-2";
+    public static final String CBC_NS = "urn:oasis:names:specification:ubl:schema:xsd:CommonBasicComponents-2";
+    public static final String CAC_NS = "urn:oasis:names:specification:ubl:schema:xsd:CommonAggregateComponents-2";
+
+    private static final Map<String, String> NS = buildNamespaces();
+
+    private static Map<String, String> buildNamespaces() {
+        Map<String, String> ns = new LinkedHashMap<>();
+        // Raíces UBL
+        ns.put("inv", INVOICE_NS);
+        ns.put("cn", CREDIT_NOTE_NS);
+        ns.put("dn", DEBIT_NOTE_NS);
+        // Componentes UBL
+        ns.put("cbc", CBC_NS);
+        ns.put("cac", CAC_NS);
+        ns.put("ext", "urn:oasis:names:specification:ubl:schema:xsd:CommonExtensionComponents-2");
+        // Extensiones DIAN
+        ns.put("sts", "dian:gov:co:facturaelectronica:Structures-2-1");
+        // Firma
+        ns.put("ds", "http://www.w3.org/2000/09/xmldsig#");
+        ns.put("xades", "http://uri.etsi.org/01903/v1.3.2#");
+        ns.put("xades141", "http://uri.etsi.org/01903/v1.4.1#");
+        return Collections.unmodifiableMap(ns);
+    }
 
     @Override
     public String getNamespaceURI(String prefix) {
-        return NS.get(prefix);
+        if (prefix == null) {
+            throw new IllegalArgumentException("El prefijo no puede ser null");
+        }
+        if (XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+            return XMLConstants.XML_NS_URI;
+        }
+        return NS.getOrDefault(prefix, XMLConstants.NULL_NS_URI);
     }
 
     @Override
-    public String getPrefix(String namespaceURI) { return null; }
+    public String getPrefix(String namespaceURI) {
+        Iterator<String> prefixes = getPrefixes(namespaceURI);
+        return prefixes.hasNext() ? prefixes.next() : null;
+    }
 
     @Override
-    public Iterator<String> getPrefixes(String namespaceURI) { return null; }
+    public Iterator<String> getPrefixes(String namespaceURI) {
+        return NS.entrySet().stream()
+                .filter(e -> e.getValue().equals(namespaceURI))
+                .map(Map.Entry::getKey)
+                .iterator();
+    }
 
 }
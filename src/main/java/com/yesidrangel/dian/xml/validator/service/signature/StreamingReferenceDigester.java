@@ -0,0 +1,153 @@
+package com.yesidrangel.dian.xml.validator.service.signature;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.crypto.Data;
+import javax.xml.crypto.MarshalException;
+import javax.xml.crypto.OctetStreamData;
+import javax.xml.crypto.URIReferenceException;
+import javax.xml.crypto.dom.DOMStructure;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.DigestMethod;
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.TransformException;
+import javax.xml.crypto.dsig.TransformService;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureException;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMValidateContext;
+import javax.xml.crypto.dsig.spec.TransformParameterSpec;
+
+import org.w3c.dom.Element;
+
+/**
+ * Verifica los {@code DigestValue} de las referencias de {@code ds:SignedInfo} canonicalizando
+ * directo hacia el digest: la última transformación escribe en el {@link MessageDigest} a través
+ * de un búfer fijo, sin materializar el documento canonicalizado.
+ * <p>
+ * Las referencias a fragmentos ({@code #xmldsig-...-signedprops}, {@code KeyInfo}) son pequeñas y
+ * van primero; la primera que no coincide corta la verificación antes de canonicalizar el
+ * documento completo ({@code URI=""}). El desreferenciado y las transformaciones son los del
+ * proveedor, con su validación segura ({@code secureValidation}).
+ */
+final class StreamingReferenceDigester {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final Map<String, String> DIGEST_ALGORITHMS = Map.of(
+            DigestMethod.SHA1, "SHA-1",
+            DigestMethod.SHA256, "SHA-256",
+            DigestMethod.SHA384, "SHA-384",
+            DigestMethod.SHA512, "SHA-512"
+    );
+
+    private static final Comparator<Reference> FRAGMENTS_FIRST = Comparator.comparingInt(
+            reference -> reference.getURI() != null && reference.getURI().startsWith("#") ? 0 : 1);
+
+    private StreamingReferenceDigester() {
+    }
+
+    /**
+     * @param mismatch           primera referencia cuyo resumen no coincide, o null si todas coinciden
+     * @param canonicalizedBytes bytes canonicalizados hacia los digests
+     */
+    record Result(Reference mismatch, long canonicalizedBytes) {
+    }
+
+    static Result verify(XMLSignatureFactory factory, List<Reference> references, DOMValidateContext context)
+            throws GeneralSecurityException, XMLSignatureException, IOException {
+        List<Reference> ordered = new ArrayList<>(references);
+        ordered.sort(FRAGMENTS_FIRST);
+        long total = 0;
+        for (Reference reference : ordered) {
+            String algorithm = DIGEST_ALGORITHMS.get(reference.getDigestMethod().getAlgorithm());
+            if (algorithm == null) {
+                throw new XMLSignatureException("Algoritmo de resumen no soportado: "
+                        + reference.getDigestMethod().getAlgorithm());
+            }
+            CountingDigestStream digest = new CountingDigestStream(MessageDigest.getInstance(algorithm));
+            try (OutputStream out = new BufferedOutputStream(digest, BUFFER_SIZE)) {
+                canonicalize(factory, reference, context, out);
+            }
+            total += digest.count;
+            if (!MessageDigest.isEqual(digest.digest.digest(), reference.getDigestValue())) {
+                return new Result(reference, total);
+            }
+        }
+        return new Result(null, total);
+    }
+
+    private static void canonicalize(XMLSignatureFactory factory, Reference reference, DOMValidateContext context,
+            OutputStream out) throws GeneralSecurityException, XMLSignatureException, IOException {
+        try {
+            Data data = (context.getURIDereferencer() != null
+                    ? context.getURIDereferencer()
+                    : factory.getURIDereferencer()).dereference(reference, context);
+            List<Transform> transforms = reference.getTransforms();
+            for (int i = 0; i < transforms.size() && data != null; i++) {
+                Transform transform = transforms.get(i);
+                data = i == transforms.size() - 1
+                        ? transform.transform(data, context, out)
+                        : transform.transform(data, context);
+            }
+            if (data instanceof OctetStreamData octets) {
+                try (InputStream in = octets.getOctetStream()) {
+                    in.transferTo(out);
+                }
+            } else if (data != null) {
+                // Un conjunto de nodos al final (URI="" con solo enveloped-signature, el caso DIAN) se
+                // convierte a octetos con Canonical XML 1.0 (XMLDSig 4.4.3.2)
+                inclusiveC14n(context).transform(data, context, out);
+            }
+        } catch (URIReferenceException | TransformException e) {
+            throw new XMLSignatureException(e);
+        }
+    }
+
+    // El proveedor solo transforma hacia un stream si la transformación está ligada a un elemento
+    // ds:Transform; se usa uno suelto, sin insertarlo en el documento
+    private static TransformService inclusiveC14n(DOMValidateContext context)
+            throws GeneralSecurityException, TransformException {
+        TransformService c14n = TransformService.getInstance(CanonicalizationMethod.INCLUSIVE, "DOM");
+        c14n.init((TransformParameterSpec) null);
+        Element transform = context.getNode().getOwnerDocument().createElementNS(XMLSignature.XMLNS, "ds:Transform");
+        try {
+            c14n.marshalParams(new DOMStructure(transform), context);
+        } catch (MarshalException e) {
+            throw new TransformException(e);
+        }
+        return c14n;
+    }
+
+    private static final class CountingDigestStream extends OutputStream {
+
+        private final MessageDigest digest;
+        private long count;
+
+        private CountingDigestStream(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            digest.update(bytes, offset, length);
+            count += length;
+        }
+    }
+}
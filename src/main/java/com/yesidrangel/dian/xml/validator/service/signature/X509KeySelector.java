@@ -1,10 +1,10 @@
 package com.yesidrangel.dian.xml.validator.service.signature;
 
-import java.io.ByteArrayInputStream;
 import java.security.Key;
 import java.security.PublicKey;
-import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.xml.crypto.AlgorithmMethod;
 import javax.xml.crypto.KeySelector;
@@ -14,8 +14,27 @@ import javax.xml.crypto.XMLCryptoContext;
 import javax.xml.crypto.dsig.keyinfo.KeyInfo;
 import javax.xml.crypto.dsig.keyinfo.X509Data;
 
+/**
+ * Toma la llave pública del certificado de {@code ds:KeyInfo} a través de {@link CertificateCache}
+ * y conserva el certificado elegido, para que el validador no tenga que volver a extraerlo. Una
+ * instancia por validación.
+ */
 public class X509KeySelector extends KeySelector {
 
+    private final CertificateCache certificates;
+    private CertificateInfo selected;
+
+    public X509KeySelector(CertificateCache certificates) {
+        this.certificates = certificates;
+    }
+
+    /**
+     * Certificado cuya llave se usó para validar la firma, o null si no se llegó a seleccionar.
+     */
+    public CertificateInfo selected() {
+        return selected;
+    }
+
     @Override
     public KeySelectorResult select(KeyInfo keyInfo, Purpose purpose,
                                     AlgorithmMethod method, XMLCryptoContext context) throws KeySelectorException {
@@ -24,14 +43,23 @@ public class X509KeySelector extends KeySelector {
         }
         for (Object obj : keyInfo.getContent()) {
             if (obj instanceof X509Data x509Data) {
+                List<X509Certificate> chain = new ArrayList<>();
+                for (Object data : x509Data.getContent()) {
+                    // El proveedor DOM del JDK entrega el certificado ya decodificado
+                    if (data instanceof X509Certificate cert) {
+                        chain.add(cert);
+                    }
+                }
+                // El primero es el firmante; los demás, intermedios para construir la ruta
+                if (!chain.isEmpty()) {
+                    selected = certificates.get(chain.get(0), chain.subList(1, chain.size()));
+                    return new SimpleKeySelectorResult(selected.publicKey());
+                }
                 for (Object data : x509Data.getContent()) {
                     if (data instanceof byte[] certBytes) {
                         try {
-                            CertificateFactory cf = CertificateFactory.getInstance("X.509");
-                            X509Certificate cert = (X509Certificate) cf.generateCertificate(
-                                    new ByteArrayInputStream(certBytes)
-                            );
-                            return new SimpleKeySelectorResult(cert.getPublicKey());
+                            selected = certificates.get(certBytes);
+                            return new SimpleKeySelectorResult(selected.publicKey());
                         } catch (Exception e) {
                             throw new KeySelectorException("Error al procesar certificado", e);
                         }
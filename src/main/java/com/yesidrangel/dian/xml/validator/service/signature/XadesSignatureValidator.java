@@ -1,12 +1,10 @@
 package com.yesidrangel.dian.xml.validator.service.signature;
 
-import java.io.ByteArrayInputStream;
-import java.security.cert.CertificateFactory;
-import java.security.cert.X509Certificate;
+import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 import javax.xml.crypto.dsig.XMLSignature;
 import javax.xml.crypto.dsig.XMLSignatureFactory;
@@ -17,145 +15,222 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import com.yesidrangel.dian.xml.validator.util.XmlXPathUtil;
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidityHorizon;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DianXPath;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XPathEvaluator;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationCheck;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationStatusCache;
 
 @Component
 public class XadesSignatureValidator {
     private static final String DIAN_POLICY_URL =
             "https://facturaelectronica.dian.gov.co/politicadefirma/v2/politicadefirmav2.pdf";
-    private static final List<String> TRUSTED_ISSUERS = List.of(
-            "ORGANISMO NACIONAL DE ACREDITACION DE COLOMBIA",
-            "CERTICAMARA",
-            "ANDES SCD",
-            "GSE",
-            "ECOLOMBIA",
-            "GLOBALSIGN",
-            "SUCERED"
-    );
-
-    public List<String> validate(Document doc) {
-        List<String> errors = new ArrayList<>();
-        NodeList sigList = XmlXPathUtil.getNodes(doc, "//ds:Signature");
+
+    private final XmlInfrastructure xmlInfrastructure;
+    private final CertificateCache certificates;
+    private final RevocationStatusCache revocation;
+    private final boolean streamingDigest;
+
+    public XadesSignatureValidator(XmlInfrastructure xmlInfrastructure, CertificateCache certificates,
+            RevocationStatusCache revocation, DianValidatorProperties properties) {
+        this.xmlInfrastructure = xmlInfrastructure;
+        this.certificates = certificates;
+        this.revocation = revocation;
+        this.streamingDigest = properties.getSignature().isStreamingDigest();
+    }
+
+    public FindingCollector validate(Document doc) {
+        return validate(doc, new ValidityHorizon());
+    }
+
+    /**
+     * @param horizon se acota con la vigencia del certificado firmante
+     */
+    public FindingCollector validate(Document doc, ValidityHorizon horizon) {
+        return validate(doc, horizon, bytes -> { });
+    }
+
+    /**
+     * @param canonicalizedBytes recibe los bytes canonicalizados para verificar las referencias
+     */
+    public FindingCollector validate(Document doc, ValidityHorizon horizon, LongConsumer canonicalizedBytes) {
+        return xmlInfrastructure.withXPath(xpath -> validate(xpath, doc, horizon, canonicalizedBytes));
+    }
+
+    private FindingCollector validate(XPathEvaluator xpath, Document doc, ValidityHorizon horizon,
+            LongConsumer canonicalizedBytes) {
+        FindingCollector errors = new FindingCollector(ValidationFindingType.SIGNATURE);
+        NodeList sigList = xpath.getNodes(DianXPath.SIGNATURE, doc);
         if (sigList.getLength() != 1) {
-            errors.add("ERROR: Se esperaba exactamente una firma digital (ds:Signature)");
+            error(errors, DianXPath.SIGNATURE, "Se esperaba exactamente una firma digital (ds:Signature)");
             return errors;
         }
         Node signatureNode = sigList.item(0);
         try {
             XMLSignatureFactory fac = XMLSignatureFactory.getInstance("DOM");
-            DOMValidateContext valContext = new DOMValidateContext(new X509KeySelector(), signatureNode);
+            X509KeySelector keySelector = new X509KeySelector(certificates);
+            DOMValidateContext valContext = new DOMValidateContext(keySelector, signatureNode);
             XMLSignature signature = fac.unmarshalXMLSignature(valContext);
-            boolean valid = signature.validate(valContext);
-            if (!valid) {
-                errors.add("ERROR: La firma digital es inválida");
+            if (streamingDigest) {
+                validateStreaming(fac, signature, valContext, errors, canonicalizedBytes);
+            } else if (!signature.validate(valContext)) {
+                errors.add(DianSeverityLevel.ERROR, "La firma digital es inválida");
             }
-            X509Certificate cert = extractCertificate(signatureNode);
+            // El certificado de la llave ya pasó por el caché; solo se extrae si no se llegó a elegir
+            CertificateInfo cert = keySelector.selected() != null
+                    ? keySelector.selected()
+                    : extractCertificate(xpath, signatureNode);
             if (cert == null) {
-                errors.add("ERROR: El certificado X509 es obligatorio");
+                error(errors, DianXPath.X509_CERTIFICATE, "El certificado X509 es obligatorio");
             } else {
-                validateCertificate(cert, errors);
+                validateCertificate(cert, errors, horizon);
                 validateCertificateIssuer(cert, errors);
+                validateRevocation(cert, errors, horizon);
                 // Validaciones XAdES adicionales
-                validateSignaturePolicy(doc, errors);
-                validateSigningTime(doc, errors);
-                validateSigningRole(doc, errors);
-                validateAlgorithms(doc, errors);
+                validateSignaturePolicy(xpath, doc, errors);
+                validateSigningTime(xpath, doc, errors);
+                validateSigningRole(xpath, doc, errors);
+                validateAlgorithms(xpath, doc, errors);
             }
         } catch (Exception e) {
-            errors.add("ERROR: No se pudo validar la firma digital: " + e.getMessage());
+            errors.add(DianSeverityLevel.ERROR, "No se pudo validar la firma digital: " + e.getMessage());
         }
         return errors;
     }
 
-    private X509Certificate extractCertificate(Node signatureNode) throws Exception {
-        String certStr = XmlXPathUtil.getTag(signatureNode.getOwnerDocument(),
-                "//ds:X509Certificate");
+    /**
+     * Resúmenes de las referencias primero y la firma RSA de SignedInfo solo si todos coinciden:
+     * un documento alterado se rechaza sin la operación de llave pública.
+     */
+    private void validateStreaming(XMLSignatureFactory fac, XMLSignature signature, DOMValidateContext valContext,
+            FindingCollector errors, LongConsumer canonicalizedBytes) throws Exception {
+        StreamingReferenceDigester.Result digests = StreamingReferenceDigester.verify(fac,
+                signature.getSignedInfo().getReferences(), valContext);
+        canonicalizedBytes.accept(digests.canonicalizedBytes());
+        if (digests.mismatch() != null) {
+            errors.add(DianSeverityLevel.ERROR, "La firma digital es inválida: el resumen de la referencia '"
+                    + digests.mismatch().getURI() + "' no coincide");
+            return;
+        }
+        if (!signature.getSignatureValue().validate(valContext)) {
+            errors.add(DianSeverityLevel.ERROR, "La firma digital es inválida");
+        }
+    }
+
+    private CertificateInfo extractCertificate(XPathEvaluator xpath, Node signatureNode) throws Exception {
+        String certStr = xpath.getTag(DianXPath.X509_CERTIFICATE, signatureNode.getOwnerDocument());
         if (certStr == null || certStr.isBlank()) {
             return null;
         }
-        byte[] certBytes = Base64.getDecoder().decode(certStr);
-        CertificateFactory cf = CertificateFactory.getInstance("X.509");
-        return (X509Certificate) cf.generateCertificate(new ByteArrayInputStream(certBytes));
+        // ds:X509Certificate suele venir partido en líneas de 76 caracteres
+        return certificates.get(Base64.getMimeDecoder().decode(certStr));
     }
 
-    private void validateCertificate(X509Certificate cert, List<String> errors) {
-        try {
-            cert.checkValidity();
-        } catch (Exception e) {
-            errors.add("ERROR: Certificado vencido o no válido aún");
+    private void validateCertificate(CertificateInfo cert, FindingCollector errors, ValidityHorizon horizon) {
+        Instant notBefore = cert.notBefore();
+        if (Instant.now().isBefore(notBefore)) {
+            horizon.changesAt(notBefore);
         }
-        boolean[] usage = cert.getKeyUsage();
-        if (usage == null || !usage[1]) {
-            errors.add("ERROR: El certificado no tiene uso de no repudio habilitado");
+        horizon.changesAt(cert.notAfter());
+        if (!cert.valid()) {
+            errors.add(DianSeverityLevel.ERROR, "Certificado vencido o no válido aún");
         }
-        String sigAlg = cert.getSigAlgName();
+        if (!cert.nonRepudiation()) {
+            errors.add(DianSeverityLevel.ERROR, "El certificado no tiene uso de no repudio habilitado");
+        }
+        String sigAlg = cert.signatureAlgorithm();
         if (!sigAlg.contains("SHA")) {
-            errors.add("ERROR: Algoritmo de firma no soportado por DIAN: " + sigAlg);
+            errors.add(DianSeverityLevel.ERROR, "Algoritmo de firma no soportado por DIAN: " + sigAlg);
         }
     }
 
-    private void validateSignaturePolicy(Document doc, List<String> errors) {
-        String policyId = XmlXPathUtil.getTag(doc,
-                "//xades:SigPolicyId/xades:Identifier");
+    private void validateSignaturePolicy(XPathEvaluator xpath, Document doc, FindingCollector errors) {
+        String policyId = xpath.getTag(DianXPath.SIGNATURE_POLICY_ID, doc);
 
         if (policyId == null || policyId.isBlank()) {
-            errors.add("ERROR: No se encontró SignaturePolicyIdentifier (obligatorio DIAN)");
+            error(errors, DianXPath.SIGNATURE_POLICY_ID,
+                    "No se encontró SignaturePolicyIdentifier (obligatorio DIAN)");
             return;
         }
 
         if (!DIAN_POLICY_URL.equals(policyId.trim())) {
-            errors.add("ERROR: Política de firma DIAN inválida: " + policyId);
+            error(errors, DianXPath.SIGNATURE_POLICY_ID, "Política de firma DIAN inválida: {}", policyId);
         }
     }
 
-    private void validateSigningTime(Document doc, List<String> errors) {
-        String signingTime = XmlXPathUtil.getTag(doc, "//xades:SigningTime");
+    private void validateSigningTime(XPathEvaluator xpath, Document doc, FindingCollector errors) {
+        String signingTime = xpath.getTag(DianXPath.SIGNING_TIME, doc);
         if (signingTime == null || signingTime.isBlank()) {
-            errors.add("ERROR: SigningTime es obligatorio en la firma XAdES");
+            error(errors, DianXPath.SIGNING_TIME, "SigningTime es obligatorio en la firma XAdES");
             return;
         }
         try {
             OffsetDateTime.parse(signingTime);
         } catch (Exception e) {
-            errors.add("ERROR: SigningTime tiene formato inválido: " + signingTime);
+            error(errors, DianXPath.SIGNING_TIME, "SigningTime tiene formato inválido: {}", signingTime);
         }
     }
 
-    private void validateSigningRole(Document doc, List<String> errors) {
-        String role = XmlXPathUtil.getTag(doc,
-                "//xades:SignerRole/xades:ClaimedRoles/xades:ClaimedRole");
+    private void validateSigningRole(XPathEvaluator xpath, Document doc, FindingCollector errors) {
+        String role = xpath.getTag(DianXPath.CLAIMED_ROLE, doc);
         if (role == null || role.isBlank()) {
-            errors.add("ERROR: SigningRole es obligatorio (Supplier o Third party)");
+            error(errors, DianXPath.CLAIMED_ROLE, "SigningRole es obligatorio (Supplier o Third party)");
             return;
         }
         if (!role.equalsIgnoreCase("supplier") &&
                 !role.equalsIgnoreCase("third party")) {
-            errors.add("ERROR: SigningRole inválido: " + role);
+            error(errors, DianXPath.CLAIMED_ROLE, "SigningRole inválido: {}", role);
         }
     }
 
-    private void validateCertificateIssuer(X509Certificate cert, List<String> errors) {
-        if (cert == null) {
+    private void validateCertificateIssuer(CertificateInfo cert, FindingCollector errors) {
+        CertificateTrust trust = cert.trust();
+        if (trust.trusted()) {
             return;
         }
-        String issuer = cert.getIssuerX500Principal().getName();
-        boolean trusted = TRUSTED_ISSUERS.stream()
-                .anyMatch(issuer::contains);
-        if (!trusted) {
-            errors.add("WARNING: El emisor del certificado no está en la lista ONAC conocida: " + issuer);
+        if (trust.pathValidated()) {
+            errors.add(DianSeverityLevel.ERROR, "El certificado no encadena a una CA de confianza (ONAC): "
+                    + trust.detail());
+        } else {
+            errors.add(DianSeverityLevel.WARNING, "El emisor del certificado no está en la lista ONAC conocida: "
+                    + cert.issuer());
+        }
+    }
+
+    private void validateRevocation(CertificateInfo cert, FindingCollector errors, ValidityHorizon horizon) {
+        RevocationCheck check = revocation.check(cert.certificate(), cert.trust().issuerCertificate());
+        switch (check.status()) {
+            case REVOKED -> errors.add(DianSeverityLevel.ERROR, "El certificado firmante está revocado");
+            case UNKNOWN -> errors.add(DianSeverityLevel.WARNING,
+                    "No se pudo determinar el estado de revocación del certificado");
+            case PENDING -> {
+                errors.add(DianSeverityLevel.WARNING, "Estado de revocación del certificado en consulta");
+                // El resultado cambia en cuanto llegue la respuesta: no se debe reutilizar
+                horizon.changesAt(Instant.now());
+            }
+            default -> {
+            }
+        }
+        if (check.validUntil() != null) {
+            horizon.changesAt(check.validUntil());
         }
     }
 
-    private void validateAlgorithms(Document doc, List<String> errors) {
-        String digestAlg = XmlXPathUtil.getTag(doc, "//ds:Reference/ds:DigestMethod/@Algorithm");
-        String sigAlg = XmlXPathUtil.getTag(doc, "//ds:SignatureMethod/@Algorithm");
+    private void validateAlgorithms(XPathEvaluator xpath, Document doc, FindingCollector errors) {
+        String digestAlg = xpath.getTag(DianXPath.DIGEST_METHOD, doc);
+        String sigAlg = xpath.getTag(DianXPath.SIGNATURE_METHOD, doc);
         List<String> allowedDigests = List.of(
                 "http://www.w3.org/2001/04/xmlenc#sha256",
                 "http://www.w3.org/2001/04/xmldsig-more#sha384",
                 "http://www.w3.org/2001/04/xmlenc#sha512"
         );
         if (!allowedDigests.contains(digestAlg)) {
-            errors.add("ERROR: Algoritmo de resumen no soportado: " + digestAlg);
+            error(errors, DianXPath.DIGEST_METHOD, "Algoritmo de resumen no soportado: {}", digestAlg);
         }
         List<String> allowedSigs = List.of(
                 "http://www.w3.org/2001/04/xmldsig-more#rsa-sha256",
@@ -163,8 +238,13 @@ public class XadesSignatureValidator {
                 "http://www.w3.org/2001/04/xmldsig-more#rsa-sha512"
         );
         if (!allowedSigs.contains(sigAlg)) {
-            errors.add("ERROR: Algoritmo de firma no soportado: " + sigAlg);
+            error(errors, DianXPath.SIGNATURE_METHOD, "Algoritmo de firma no soportado: {}", sigAlg);
         }
     }
 
+    // Hallazgo ERROR ubicado en el elemento de la firma que lo produjo
+    private static void error(FindingCollector errors, DianXPath location, String pattern, Object... arguments) {
+        errors.add(DianSeverityLevel.ERROR, null, location.getTemplate(), pattern, arguments);
+    }
+
 }
@@ -0,0 +1,113 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.CRL;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.security.auth.x500.X500Principal;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CRL espejadas en un directorio local (DER o PEM, varias por archivo). Se cargan al iniciar y en
+ * cada {@link #refresh()}; la consulta es en memoria, así que no bloquea la petición.
+ * <p>
+ * Cada CRL se verifica con la CA del almacén de confianza que la emite; si la CA no está en el
+ * almacén se verifica con el emisor de la ruta al consultarla. Una CRL cuyo {@code nextUpdate} ya
+ * pasó da UNKNOWN: el espejo está desactualizado.
+ */
+@Slf4j
+public class CrlRevocationSource implements RevocationSource {
+
+    private final Path directory;
+    private final List<X509Certificate> trustedCertificates;
+    private volatile Map<X500Principal, CrlEntry> crls = Map.of();
+
+    public CrlRevocationSource(Path directory, List<X509Certificate> trustedCertificates) {
+        this.directory = directory;
+        this.trustedCertificates = trustedCertificates;
+        refresh();
+    }
+
+    @Override
+    public RevocationStatus check(X509Certificate certificate, X509Certificate issuer) {
+        CrlEntry entry = crls.get(certificate.getIssuerX500Principal());
+        if (entry == null) {
+            return RevocationStatus.UNKNOWN;
+        }
+        X509CRL crl = entry.crl();
+        if (!entry.verified() && issuer != null && !verifies(crl, issuer)) {
+            return RevocationStatus.UNKNOWN;
+        }
+        if (crl.getNextUpdate() != null && crl.getNextUpdate().before(new Date())) {
+            return RevocationStatus.UNKNOWN;
+        }
+        return crl.isRevoked(certificate) ? RevocationStatus.REVOKED : RevocationStatus.GOOD;
+    }
+
+    @Override
+    public boolean performsIo() {
+        return false;
+    }
+
+    @Override
+    public void refresh() {
+        Map<X500Principal, CrlEntry> loaded = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    for (CRL crl : factory.generateCRLs(in)) {
+                        add(loaded, (X509CRL) crl, file);
+                    }
+                } catch (Exception e) {
+                    log.warn("CRL ignorada {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException | CertificateException e) {
+            log.warn("No se pudo leer el directorio de CRL {}: {}", directory, e.getMessage());
+            return;
+        }
+        crls = Map.copyOf(loaded);
+        log.info("{} CRL cargadas desde {}", loaded.size(), directory);
+    }
+
+    private void add(Map<X500Principal, CrlEntry> loaded, X509CRL crl, Path file) {
+        X509Certificate ca = trustedCertificates.stream()
+                .filter(certificate -> certificate.getSubjectX500Principal().equals(crl.getIssuerX500Principal()))
+                .findFirst()
+                .orElse(null);
+        if (ca != null && !verifies(crl, ca)) {
+            log.warn("CRL con firma inválida ignorada: {}", file);
+            return;
+        }
+        // Si hay varias del mismo emisor se conserva la más reciente
+        loaded.merge(crl.getIssuerX500Principal(), new CrlEntry(crl, ca != null),
+                (current, candidate) -> candidate.crl().getThisUpdate().after(current.crl().getThisUpdate())
+                        ? candidate
+                        : current);
+    }
+
+    private static boolean verifies(X509CRL crl, X509Certificate issuer) {
+        try {
+            crl.verify(issuer.getPublicKey());
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private record CrlEntry(X509CRL crl, boolean verified) {
+    }
+}
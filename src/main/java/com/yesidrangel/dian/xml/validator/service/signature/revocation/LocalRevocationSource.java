@@ -0,0 +1,35 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+import java.math.BigInteger;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Responder local de prueba: reporta revocados los seriales configurados en
+ * {@code dian.validator.signature.revocation.local-revoked-serials} y válidos los demás. Reemplaza
+ * a un responder OCSP en pruebas y ambientes sin red.
+ */
+public class LocalRevocationSource implements RevocationSource {
+
+    private final Set<BigInteger> revokedSerials;
+
+    public LocalRevocationSource(Collection<String> revokedSerials) {
+        this.revokedSerials = revokedSerials.stream()
+                .map(serial -> new BigInteger(serial.trim(), 16))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public RevocationStatus check(X509Certificate certificate, X509Certificate issuer) {
+        return revokedSerials.contains(certificate.getSerialNumber())
+                ? RevocationStatus.REVOKED
+                : RevocationStatus.GOOD;
+    }
+
+    @Override
+    public boolean performsIo() {
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+import java.net.URI;
+import java.security.cert.CertPath;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertPathValidatorException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.PKIXParameters;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consulta OCSP con el cliente del JDK ({@link PKIXRevocationChecker}), solo para el certificado
+ * firmante y sin recurrir a CRL. El responder es el configurado o, si no hay, el del AIA del
+ * certificado. Sale a red: {@link RevocationStatusCache} la llama solo en segundo plano.
+ */
+@Slf4j
+public class OcspRevocationSource implements RevocationSource {
+
+    private final URI responder;
+
+    public OcspRevocationSource(String responder) {
+        this.responder = responder == null || responder.isBlank() ? null : URI.create(responder);
+    }
+
+    @Override
+    public RevocationStatus check(X509Certificate certificate, X509Certificate issuer) {
+        if (issuer == null) {
+            // Sin ruta validada no se conoce la CA que firma la respuesta
+            return RevocationStatus.UNKNOWN;
+        }
+        try {
+            CertPathValidator validator = CertPathValidator.getInstance("PKIX");
+            PKIXRevocationChecker checker = (PKIXRevocationChecker) validator.getRevocationChecker();
+            checker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.ONLY_END_ENTITY,
+                    PKIXRevocationChecker.Option.NO_FALLBACK));
+            if (responder != null) {
+                checker.setOcspResponder(responder);
+            }
+            PKIXParameters parameters = new PKIXParameters(Set.of(new TrustAnchor(issuer, null)));
+            parameters.addCertPathChecker(checker);
+            CertPath path = CertificateFactory.getInstance("X.509").generateCertPath(List.of(certificate));
+            validator.validate(path, parameters);
+            return RevocationStatus.GOOD;
+        } catch (CertPathValidatorException e) {
+            if (e.getReason() == CertPathValidatorException.BasicReason.REVOKED) {
+                return RevocationStatus.REVOKED;
+            }
+            log.debug("OCSP sin respuesta para {}: {}", certificate.getSerialNumber().toString(16), e.getMessage());
+            return RevocationStatus.UNKNOWN;
+        } catch (Exception e) {
+            log.debug("OCSP sin respuesta para {}: {}", certificate.getSerialNumber().toString(16), e.getMessage());
+            return RevocationStatus.UNKNOWN;
+        }
+    }
+}
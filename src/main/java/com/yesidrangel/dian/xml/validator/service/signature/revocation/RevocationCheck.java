@@ -0,0 +1,14 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+import java.time.Instant;
+
+/**
+ * Estado de revocación servido por el caché.
+ *
+ * @param validUntil hasta cuándo se usa este estado, o null si no aplica (PENDING, NOT_CHECKED)
+ */
+public record RevocationCheck(RevocationStatus status, Instant validUntil) {
+
+    static final RevocationCheck NOT_CHECKED = new RevocationCheck(RevocationStatus.NOT_CHECKED, null);
+    static final RevocationCheck PENDING = new RevocationCheck(RevocationStatus.PENDING, null);
+}
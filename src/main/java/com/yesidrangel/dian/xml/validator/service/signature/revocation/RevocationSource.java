@@ -0,0 +1,29 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Origen del estado de revocación (CRL espejadas, OCSP, responder local). Lo consulta
+ * {@link RevocationStatusCache}, nunca el hilo de la petición cuando {@link #performsIo()} es
+ * true.
+ */
+public interface RevocationSource {
+
+    /**
+     * @param issuer certificado de la CA emisora, o null si no se construyó la ruta
+     */
+    RevocationStatus check(X509Certificate certificate, X509Certificate issuer);
+
+    /**
+     * Si la consulta sale a red o disco; en ese caso se hace solo en segundo plano.
+     */
+    default boolean performsIo() {
+        return true;
+    }
+
+    /**
+     * Recarga el material de la fuente (por ejemplo las CRL); se llama en segundo plano.
+     */
+    default void refresh() {
+    }
+}
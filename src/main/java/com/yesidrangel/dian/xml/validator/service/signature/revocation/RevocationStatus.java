@@ -0,0 +1,17 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+/**
+ * Estado de revocación de un certificado firmante.
+ */
+public enum RevocationStatus {
+    /** La fuente confirma que no está revocado. */
+    GOOD,
+    /** La fuente lo reporta revocado. */
+    REVOKED,
+    /** La fuente no pudo decidir (CRL vencida o ausente, responder caído). */
+    UNKNOWN,
+    /** La consulta está en curso en segundo plano; el resultado aún no se conoce. */
+    PENDING,
+    /** No hay fuente de revocación configurada. */
+    NOT_CHECKED
+}
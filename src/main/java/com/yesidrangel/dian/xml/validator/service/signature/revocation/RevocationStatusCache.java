@@ -0,0 +1,194 @@
+package com.yesidrangel.dian.xml.validator.service.signature.revocation;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché LRU del estado de revocación por emisor y serial, acotado por TTL.
+ * <p>
+ * La petición nunca espera a la red: si la fuente sale a red ({@link RevocationSource#performsIo()})
+ * un fallo devuelve PENDING y agenda la consulta en un hilo de fondo; las fuentes en memoria (CRL
+ * espejadas, responder local) se consultan en línea. El mismo hilo refresca cada
+ * {@code refresh-interval} la fuente y los estados próximos a vencer, y descarta los que nadie
+ * consultó durante un TTL. Sin fuente configurada responde NOT_CHECKED.
+ */
+@Slf4j
+@Component
+public class RevocationStatusCache implements DisposableBean {
+
+    private final RevocationSource source;
+    private final Duration ttl;
+    private final Duration refreshInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService refresher;
+
+    public RevocationStatusCache(DianValidatorProperties properties, ObjectProvider<RevocationSource> sources) {
+        DianValidatorProperties.Revocation revocation = properties.getSignature().getRevocation();
+        int maxEntries = revocation.getMaxEntries();
+        this.source = sources.getIfAvailable();
+        this.ttl = revocation.getTtl();
+        this.refreshInterval = revocation.getRefreshInterval();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        if (source == null) {
+            this.refresher = null;
+            return;
+        }
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Revocación con {} (TTL {}, refresco cada {})", source.getClass().getSimpleName(), ttl,
+                refreshInterval);
+    }
+
+    /**
+     * @param issuer CA emisora de la ruta validada, o null si no se conoce
+     */
+    public RevocationCheck check(X509Certificate certificate, X509Certificate issuer) {
+        if (source == null) {
+            return RevocationCheck.NOT_CHECKED;
+        }
+        String key = certificate.getIssuerX500Principal().getName() + "#" + certificate.getSerialNumber().toString(16);
+        Instant now = Instant.now();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && now.isBefore(entry.expiresAt)) {
+                entry.lastAccess = now;
+                return new RevocationCheck(entry.status, entry.expiresAt);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!source.performsIo()) {
+            Entry entry = fetch(key, certificate, issuer);
+            return new RevocationCheck(entry.status, entry.expiresAt);
+        }
+        schedule(key, certificate, issuer);
+        return RevocationCheck.PENDING;
+    }
+
+    private void schedule(String key, X509Certificate certificate, X509Certificate issuer) {
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    fetch(key, certificate, issuer);
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+        }
+    }
+
+    private Entry fetch(String key, X509Certificate certificate, X509Certificate issuer) {
+        RevocationStatus status;
+        try {
+            status = source.check(certificate, issuer);
+        } catch (RuntimeException e) {
+            log.warn("Fallo consultando revocación de {}: {}", key, e.getMessage());
+            status = RevocationStatus.UNKNOWN;
+        }
+        Instant now = Instant.now();
+        // UNKNOWN se reintenta en el siguiente refresco, no al cumplir el TTL completo
+        Duration lifetime = status == RevocationStatus.UNKNOWN && refreshInterval.compareTo(ttl) < 0
+                ? refreshInterval
+                : ttl;
+        Entry entry = new Entry(certificate, issuer, status, now.plus(lifetime), now);
+        lock.lock();
+        try {
+            Entry previous = entries.get(key);
+            if (previous != null) {
+                entry.lastAccess = previous.lastAccess;
+            }
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    private void refresh() {
+        try {
+            source.refresh();
+            Instant now = Instant.now();
+            Instant horizon = now.plus(refreshInterval);
+            List<Map.Entry<String, Entry>> snapshot;
+            lock.lock();
+            try {
+                entries.values().removeIf(entry -> entry.lastAccess.plus(ttl).isBefore(now));
+                snapshot = new ArrayList<>(entries.entrySet());
+            } finally {
+                lock.unlock();
+            }
+            // Las fuentes en memoria se reevalúan todas: la CRL recargada puede haber cambiado
+            for (Map.Entry<String, Entry> item : snapshot) {
+                Entry entry = item.getValue();
+                if (!source.performsIo() || entry.expiresAt.isBefore(horizon)) {
+                    fetch(item.getKey(), entry.certificate, entry.issuer);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Fallo refrescando estados de revocación: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private static final class Entry {
+
+        private final X509Certificate certificate;
+        private final X509Certificate issuer;
+        private final RevocationStatus status;
+        private final Instant expiresAt;
+        private volatile Instant lastAccess;
+
+        private Entry(X509Certificate certificate, X509Certificate issuer, RevocationStatus status,
+                Instant expiresAt, Instant lastAccess) {
+            this.certificate = certificate;
+            this.issuer = issuer;
+            this.status = status;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
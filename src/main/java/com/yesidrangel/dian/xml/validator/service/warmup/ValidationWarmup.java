@@ -0,0 +1,133 @@
+package com.yesidrangel.dian.xml.validator.service.warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
+import com.yesidrangel.dian.xml.validator.service.schema.DianSchemaRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calentamiento al arrancar, antes de recibir tráfico. Corre en {@link ApplicationReadyEvent}, que
+ * Spring Boot publica antes de pasar a {@link ReadinessState#ACCEPTING_TRAFFIC}: mientras dura,
+ * {@code /actuator/health/readiness} responde OUT_OF_SERVICE.
+ * <p>
+ * Compila todos los esquemas y valida varias veces una factura firmada de muestra con el mismo
+ * servicio que atiende las solicitudes, alternando el cuerpo JSON y el XML crudo. Así quedan
+ * cargados los proveedores XML, XSD y XMLDSig, los pools de parsers y los serializadores de
+ * Jackson, y el JIT ya compiló el camino de validación. Un fallo solo se registra: no impide
+ * arrancar. Estas validaciones cuentan en las métricas como cualquier otra.
+ */
+@Slf4j
+@Component
+public class ValidationWarmup {
+
+    static final String SAMPLE = "warmup/invoice.xml";
+    /**
+     * Clave técnica con la que se calculó el CUFE de la muestra.
+     */
+    static final String TECHNICAL_KEY = "fc8eac422eba16e22ffd8c6f94b3f40a6e38162c";
+
+    private final DianValidatorProperties properties;
+    private final DianSchemaRegistry schemaRegistry;
+    private final XmlValidationService validationService;
+    private final ObjectMapper objectMapper;
+
+    public ValidationWarmup(DianValidatorProperties properties, DianSchemaRegistry schemaRegistry,
+            XmlValidationService validationService, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.schemaRegistry = schemaRegistry;
+        this.validationService = validationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        DianValidatorProperties.Warmup warmup = properties.getWarmup();
+        if (!warmup.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (DianSchemaType type : DianSchemaType.values()) {
+            try {
+                schemaRegistry.getSchema(type);
+            } catch (TechnicalException e) {
+                log.warn("No se pudo precompilar el esquema {}: {}", type, e.getMessage());
+            }
+        }
+        try {
+            validateSample(warmup.getIterations(), start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Calentamiento incompleto: {}", e.getMessage());
+        }
+        if (warmup.isExitAfter()) {
+            log.info("Calentamiento de entrenamiento terminado, cerrando la aplicación");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    private void validateSample(int iterations, long start) throws IOException {
+        byte[] sample;
+        try (InputStream in = new ClassPathResource(SAMPLE).getInputStream()) {
+            sample = in.readAllBytes();
+        }
+        long first = 0;
+        long last = 0;
+        XmlValidationResponseDto result = null;
+        for (int i = 0; i < iterations; i++) {
+            long iterationStart = System.nanoTime();
+            byte[] xml = marked(sample, i);
+            XmlValidationRequestDto request = request(i);
+            if (i % 2 == 0) {
+                request.setXml(new String(xml, StandardCharsets.UTF_8));
+                result = validationService.validate(request);
+            } else {
+                result = validationService.validate(new ByteArrayInputStream(xml), request);
+            }
+            objectMapper.writeValueAsBytes(result);
+            last = System.nanoTime() - iterationStart;
+            if (i == 0) {
+                first = last;
+            }
+        }
+        log.info("Calentamiento terminado en {} ms: {} validaciones de la muestra (primera {} ms, última {} ms, "
+                + "severidad máxima {})", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), iterations,
+                TimeUnit.NANOSECONDS.toMillis(first), TimeUnit.NANOSECONDS.toMillis(last),
+                result != null ? result.getMaxSeverity() : null);
+    }
+
+    private static XmlValidationRequestDto request(int iteration) {
+        XmlValidationRequestDto request = new XmlValidationRequestDto();
+        request.setDocumentType(DianSchemaType.INVOICE.name());
+        request.setTechnicalKey(TECHNICAL_KEY);
+        request.setCorrelationId("warmup-" + iteration);
+        return request;
+    }
+
+    // Un comentario distinto tras el elemento raíz cambia el hash del contenido, así que con el caché
+    // de resultados activo cada iteración valida de nuevo. La firma no lo cubre (C14N sin comentarios).
+    private static byte[] marked(byte[] sample, int iteration) {
+        byte[] comment = ("<!-- calentamiento " + iteration + " -->").getBytes(StandardCharsets.UTF_8);
+        byte[] xml = new byte[sample.length + comment.length];
+        System.arraycopy(sample, 0, xml, 0, sample.length);
+        System.arraycopy(comment, 0, xml, sample.length, comment.length);
+        return xml;
+    }
+}
@@ -1,39 +1,81 @@
 package com.yesidrangel.dian.xml.validator.util;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
 
 public class CufeGeneratorUtil {
+
+    /**
+     * Construye la cadena del CUFE (factura, clave técnica) o CUDE (notas, PIN del software)
+     * según el anexo técnico DIAN v1.9. Ambos usan el mismo orden de campos:
+     * NumFac + FecFac + HorFac + ValFac + 01 + ValImp1 + 04 + ValImp2 + 03 + ValImp3 + ValTot
+     * + NitOFE + NumAdq + (ClTec | PIN) + TipoAmbiente.
+     *
+     * @param key clave técnica (CUFE) o PIN del software (CUDE)
+     */
+    public static String buildInput(DianDocumentFields fields, String key) {
+        Map<String, String> taxes = fields.taxAmounts();
+        return fields.id() +
+                fields.issueDate() +
+                fields.issueTime() +
+                fields.lineExtensionAmount() +
+                "01" + taxes.get("01") +
+                "04" + taxes.get("04") +
+                "03" + taxes.get("03") +
+                fields.payableAmount() +
+                fields.supplierCompanyId() +
+                fields.customerCompanyId() +
+                key +
+                fields.profileExecutionId();
+    }
+
+    /**
+     * Calcula el CUFE/CUDE (SHA-384 hexadecimal) a partir de los campos extraídos. Los campos van
+     * directo al digest en el orden de {@link #buildInput}, sin armar la cadena intermedia.
+     *
+     * @param key clave técnica (CUFE) o PIN del software (CUDE)
+     */
+    public static String generate(DianDocumentFields fields, String key) {
+        Map<String, String> taxes = fields.taxAmounts();
+        return Sha384Hasher.borrow()
+                .append(fields.id())
+                .append(fields.issueDate())
+                .append(fields.issueTime())
+                .append(fields.lineExtensionAmount())
+                .append("01").append(taxes.get("01"))
+                .append("04").append(taxes.get("04"))
+                .append("03").append(taxes.get("03"))
+                .append(fields.payableAmount())
+                .append(fields.supplierCompanyId())
+                .append(fields.customerCompanyId())
+                .append(key)
+                .append(fields.profileExecutionId())
+                .hex();
+    }
+
+    /**
+     * Código de seguridad del software ({@code sts:SoftwareSecurityCode}): SHA-384 de
+     * IdSoftware + PIN + número del documento.
+     */
+    public static String softwareSecurityCode(String softwareId, String pin, String documentNumber) {
+        return Sha384Hasher.borrow()
+                .append(softwareId)
+                .append(pin)
+                .append(documentNumber)
+                .hex();
+    }
+
     /**
      * Genera un hash SHA-384 en formato hexadecimal (minúsculas) de la cadena dada.
      *
      * @param input cadena a hashear (no debe ser null)
-     * @return hash SHA-384 en hexadecimal (64 caracteres)
-     * @throws RuntimeException si ocurre un error criptográfico inesperado
+     * @return hash SHA-384 en hexadecimal (96 caracteres)
      */
     public static String sha384(String input) {
         if (input == null) {
             throw new IllegalArgumentException("La entrada no puede ser null");
         }
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-384");
-            byte[] hashBytes = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hashBytes);
-        } catch (NoSuchAlgorithmException e) {
-            // SHA-384 está garantizado en todas las JVMs modernas
-            throw new RuntimeException("Algoritmo SHA-384 no disponible", e);
-        }
-    }
-
-    /**
-     * Convierte un arreglo de bytes a una cadena hexadecimal.
-     */
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return result.toString();
+        return Sha384Hasher.sha384Hex(input);
     }
 }
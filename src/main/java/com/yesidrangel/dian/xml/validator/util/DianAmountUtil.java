@@ -0,0 +1,158 @@
+package com.yesidrangel.dian.xml.validator.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Montos DIAN como enteros escalados ({@code long} con {@code scale} decimales implícitos).
+ * <p>
+ * Se parsean una sola vez desde el texto del XML y se suman sin volver a parsear ni pasar por
+ * {@code double}, así que no pierden precisión en montos COP grandes. El formateo es de escala
+ * fija e independiente del locale (a diferencia de {@code String.format("%.2f")}).
+ */
+public final class DianAmountUtil {
+
+    /**
+     * Escala de los montos monetarios (centavos).
+     */
+    public static final int CENTS = 2;
+
+    /**
+     * Escala de cantidades y precios unitarios, que en la DIAN pueden traer más de dos decimales.
+     */
+    public static final int QUANTITY = 6;
+
+    /**
+     * Marca de un valor que no viene en el documento.
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L
+    };
+
+    private DianAmountUtil() {
+    }
+
+    /**
+     * Parsea un decimal ({@code "1500.5"}, {@code "-1,500.005"}) a entero con {@code scale}
+     * decimales. Las comas se toman como separador de miles y se ignoran; los decimales sobrantes
+     * se redondean HALF_UP.
+     *
+     * @throws NumberFormatException si el texto no es un decimal o no cabe en un long
+     */
+    public static long parse(CharSequence text, int scale) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            negative = text.charAt(start) == '-';
+            start++;
+        }
+        long value = 0;
+        int fractionDigits = -1;
+        int roundingDigit = -1;
+        boolean hasDigits = false;
+        try {
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == ',' && fractionDigits < 0) {
+                    continue;
+                }
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Monto inválido: " + text);
+                }
+                hasDigits = true;
+                if (fractionDigits == scale) {
+                    if (roundingDigit < 0) {
+                        roundingDigit = c - '0';
+                    }
+                    continue;
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10L), c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            }
+            if (!hasDigits) {
+                throw new NumberFormatException("Monto inválido: " + text);
+            }
+            value = Math.multiplyExact(value, POW10[scale - Math.max(fractionDigits, 0)]);
+            if (roundingDigit >= 5) {
+                value = Math.addExact(value, 1L);
+            }
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Monto fuera de rango: " + text);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Como {@link #parse(CharSequence, int)} en centavos, pero un texto vacío o inválido vale 0.
+     */
+    public static long parseCentsOrZero(String text) {
+        if (text == null || text.isBlank()) {
+            return 0L;
+        }
+        try {
+            return parse(text, CENTS);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Como {@link #parse(CharSequence, int)}, pero un texto vacío o inválido vale {@link #ABSENT}.
+     */
+    public static long parseOrAbsent(String text, int scale) {
+        if (text == null || text.isBlank()) {
+            return ABSENT;
+        }
+        try {
+            return parse(text, scale);
+        } catch (NumberFormatException e) {
+            return ABSENT;
+        }
+    }
+
+    /**
+     * Formatea con exactamente {@code scale} decimales y punto decimal: {@code 150000, 2 → "1500.00"}.
+     */
+    public static String format(long value, int scale) {
+        if (value == Long.MIN_VALUE) {
+            return BigDecimal.valueOf(value, scale).toPlainString();
+        }
+        char[] chars = new char[22];
+        int position = chars.length;
+        long remaining = Math.abs(value);
+        for (int i = 0; i < scale; i++) {
+            chars[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        if (scale > 0) {
+            chars[--position] = '.';
+        }
+        do {
+            chars[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (value < 0) {
+            chars[--position] = '-';
+        }
+        return new String(chars, position, chars.length - position);
+    }
+
+    public static String formatCents(long cents) {
+        return format(cents, CENTS);
+    }
+}
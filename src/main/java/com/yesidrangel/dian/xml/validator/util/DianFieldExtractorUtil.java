@@ -0,0 +1,208 @@
+package com.yesidrangel.dian.xml.validator.util;
+
+import static com.yesidrangel.dian.xml.validator.service.signature.DianNamespaceContext.CAC_NS;
+import static com.yesidrangel.dian.xml.validator.service.signature.DianNamespaceContext.CBC_NS;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianField;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.DianLineItems;
+import com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals;
+import com.yesidrangel.dian.xml.validator.domain.model.TaxTotals;
+
+/**
+ * Extrae los campos del CUFE/CUDE y los montos de las líneas recorriendo una sola vez los hijos
+ * directos de la raíz.
+ * <p>
+ * Solo desciende en los subárboles que contienen campos (totales, partes, impuestos). De cada
+ * línea lee únicamente sus hijos directos, su precio, sus descuentos/cargos y sus
+ * {@code cac:TaxTotal}, sin entrar en ítems: el costo es lineal en el número de líneas. Los montos
+ * se parsean una vez a enteros escalados.
+ * <p>
+ * Solo lee los campos pedidos; los demás quedan vacíos. Si no se piden las líneas, el recorrido
+ * termina en la primera, que en UBL va después de todo el encabezado.
+ */
+public class DianFieldExtractorUtil {
+
+    private static final Set<DianField> ALL_FIELDS = EnumSet.allOf(DianField.class);
+
+    public static DianDocumentFields extract(Document doc, DianSchemaType type) {
+        return extract(doc, type, ALL_FIELDS);
+    }
+
+    public static DianDocumentFields extract(Document doc, DianSchemaType type, Set<DianField> fields) {
+        String uuid = "";
+        String id = "";
+        String issueDate = "";
+        String issueTime = "";
+        String profileExecutionId = "";
+        String lineExtensionAmount = "";
+        String payableAmount = "";
+        String supplierCompanyId = "";
+        String customerCompanyId = "";
+        MonetaryTotals totals = MonetaryTotals.ABSENT;
+        TaxTotals taxes = new TaxTotals();
+        DianLineItems.Builder lines = new DianLineItems.Builder();
+
+        Element root = doc.getDocumentElement();
+        for (Element child = firstChildElement(root); child != null; child = nextSiblingElement(child)) {
+            String ns = child.getNamespaceURI();
+            String name = child.getLocalName();
+            if (CBC_NS.equals(ns)) {
+                switch (name) {
+                    case "UUID" -> uuid = fields.contains(DianField.UUID) ? text(child) : "";
+                    case "ID" -> id = fields.contains(DianField.ID) ? text(child) : "";
+                    case "IssueDate" -> issueDate = fields.contains(DianField.ISSUE_DATE) ? text(child) : "";
+                    case "IssueTime" -> issueTime = fields.contains(DianField.ISSUE_TIME) ? text(child) : "";
+                    case "ProfileExecutionID" ->
+                            profileExecutionId = fields.contains(DianField.PROFILE_EXECUTION_ID) ? text(child) : "";
+                    default -> { }
+                }
+            } else if (CAC_NS.equals(ns)) {
+                if (isLine(name)) {
+                    if (!fields.contains(DianField.LINES)) {
+                        break;
+                    }
+                    addLine(lines, child);
+                    continue;
+                }
+                switch (name) {
+                    case "LegalMonetaryTotal" -> {
+                        if (fields.contains(DianField.MONETARY_TOTALS)) {
+                            lineExtensionAmount = childText(child, CBC_NS, "LineExtensionAmount");
+                            payableAmount = childText(child, CBC_NS, "PayableAmount");
+                            totals = monetaryTotals(child);
+                        }
+                    }
+                    case "AccountingSupplierParty" -> supplierCompanyId =
+                            fields.contains(DianField.SUPPLIER_COMPANY_ID) ? partyCompanyId(child) : "";
+                    case "AccountingCustomerParty" -> customerCompanyId =
+                            fields.contains(DianField.CUSTOMER_COMPANY_ID) ? partyCompanyId(child) : "";
+                    case "TaxTotal" -> {
+                        if (fields.contains(DianField.TAX_TOTALS)) {
+                            DianTaxExtractorUtil.addTaxTotal(taxes, taxSchemeId(child),
+                                    childText(child, CBC_NS, "TaxAmount"));
+                        }
+                    }
+                    default -> { }
+                }
+            }
+        }
+        return new DianDocumentFields(type, uuid, id, issueDate, issueTime, profileExecutionId,
+                lineExtensionAmount, payableAmount, supplierCompanyId, customerCompanyId, totals, lines.build(),
+                taxes.toAmounts());
+    }
+
+    private static boolean isLine(String name) {
+        return "InvoiceLine".equals(name) || "CreditNoteLine".equals(name) || "DebitNoteLine".equals(name);
+    }
+
+    private static MonetaryTotals monetaryTotals(Element total) {
+        return new MonetaryTotals(
+                cents(total, "LineExtensionAmount"),
+                cents(total, "TaxExclusiveAmount"),
+                cents(total, "TaxInclusiveAmount"),
+                cents(total, "AllowanceTotalAmount"),
+                cents(total, "ChargeTotalAmount"),
+                cents(total, "PrepaidAmount"),
+                cents(total, "PayableRoundingAmount"),
+                cents(total, "PayableAmount"));
+    }
+
+    // Cantidad, precio, descuentos/cargos, cbc:LineExtensionAmount y cac:TaxTotal (código del
+    // primer subtotal + cbc:TaxAmount) de la línea
+    private static void addLine(DianLineItems.Builder lines, Element line) {
+        lines.nextLine();
+        for (Element child = firstChildElement(line); child != null; child = nextSiblingElement(child)) {
+            String name = child.getLocalName();
+            if (CBC_NS.equals(child.getNamespaceURI())) {
+                switch (name) {
+                    case "LineExtensionAmount" -> lines.lineExtension(DianAmountUtil.parseCentsOrZero(text(child)));
+                    case "InvoicedQuantity", "CreditedQuantity", "DebitedQuantity" ->
+                            lines.quantity(DianAmountUtil.parseOrAbsent(text(child), DianAmountUtil.QUANTITY));
+                    default -> { }
+                }
+            } else if (CAC_NS.equals(child.getNamespaceURI())) {
+                switch (name) {
+                    case "TaxTotal" -> {
+                        String code = taxSchemeId(child);
+                        if (!code.isEmpty()) {
+                            lines.addTax(code, DianAmountUtil.parseCentsOrZero(childText(child, CBC_NS, "TaxAmount")));
+                        }
+                    }
+                    case "Price" -> {
+                        lines.priceAmount(DianAmountUtil.parseOrAbsent(childText(child, CBC_NS, "PriceAmount"),
+                                DianAmountUtil.QUANTITY));
+                        lines.baseQuantity(DianAmountUtil.parseOrAbsent(childText(child, CBC_NS, "BaseQuantity"),
+                                DianAmountUtil.QUANTITY));
+                    }
+                    case "AllowanceCharge" -> lines.addAllowanceCharge(
+                            "true".equalsIgnoreCase(childText(child, CBC_NS, "ChargeIndicator")),
+                            DianAmountUtil.parseCentsOrZero(childText(child, CBC_NS, "Amount")));
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    private static long cents(Element parent, String localName) {
+        return DianAmountUtil.parseOrAbsent(childText(parent, CBC_NS, localName), DianAmountUtil.CENTS);
+    }
+
+    // cac:Party/cac:PartyTaxScheme/cbc:CompanyID
+    private static String partyCompanyId(Element partyRole) {
+        Element party = childElement(partyRole, CAC_NS, "Party");
+        Element taxScheme = party == null ? null : childElement(party, CAC_NS, "PartyTaxScheme");
+        return taxScheme == null ? "" : childText(taxScheme, CBC_NS, "CompanyID");
+    }
+
+    // cac:TaxSubtotal/cac:TaxCategory/cac:TaxScheme/cbc:ID (primer subtotal)
+    private static String taxSchemeId(Element taxTotal) {
+        Element subtotal = childElement(taxTotal, CAC_NS, "TaxSubtotal");
+        Element category = subtotal == null ? null : childElement(subtotal, CAC_NS, "TaxCategory");
+        Element scheme = category == null ? null : childElement(category, CAC_NS, "TaxScheme");
+        return scheme == null ? "" : childText(scheme, CBC_NS, "ID");
+    }
+
+    private static String childText(Element parent, String ns, String localName) {
+        Element child = childElement(parent, ns, localName);
+        return child == null ? "" : text(child);
+    }
+
+    private static Element childElement(Element parent, String ns, String localName) {
+        for (Element child = firstChildElement(parent); child != null; child = nextSiblingElement(child)) {
+            if (localName.equals(child.getLocalName()) && ns.equals(child.getNamespaceURI())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static Element firstChildElement(Node parent) {
+        Node node = parent == null ? null : parent.getFirstChild();
+        while (node != null && node.getNodeType() != Node.ELEMENT_NODE) {
+            node = node.getNextSibling();
+        }
+        return (Element) node;
+    }
+
+    private static Element nextSiblingElement(Node node) {
+        Node next = node.getNextSibling();
+        while (next != null && next.getNodeType() != Node.ELEMENT_NODE) {
+            next = next.getNextSibling();
+        }
+        return (Element) next;
+    }
+
+    private static String text(Element element) {
+        String value = element.getTextContent();
+        return value == null ? "" : value.trim();
+    }
+}
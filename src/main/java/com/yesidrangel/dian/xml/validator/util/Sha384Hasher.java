@@ -0,0 +1,111 @@
+package com.yesidrangel.dian.xml.validator.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.ResourcePool;
+
+/**
+ * SHA-384 incremental y reutilizable para CUFE/CUDE y demás códigos DIAN.
+ * <p>
+ * Los campos se escriben en un buffer de bytes propio y pasan al digest por bloques, sin
+ * construir la cadena concatenada. Las instancias viven en un {@link ResourcePool} (no
+ * ThreadLocal, por los hilos virtuales): {@link #borrow()} y {@link #hex()} las reutilizan sin
+ * volver a buscar el proveedor con {@code MessageDigest.getInstance}.
+ */
+public final class Sha384Hasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final MessageDigest PROTOTYPE = newDigest();
+    private static final ResourcePool<Sha384Hasher> POOL = new ResourcePool<>(
+            2 * Runtime.getRuntime().availableProcessors(), Sha384Hasher::new, Sha384Hasher::reset);
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[256];
+    private int position;
+
+    private Sha384Hasher() {
+        this.digest = cloneDigest();
+    }
+
+    /**
+     * Toma un hasher del pool. Debe terminarse con {@link #hex()}, que lo devuelve al pool.
+     */
+    public static Sha384Hasher borrow() {
+        return POOL.borrow();
+    }
+
+    /**
+     * Hash SHA-384 hexadecimal (minúsculas) de la cadena en UTF-8.
+     */
+    public static String sha384Hex(String input) {
+        return borrow().append(input).hex();
+    }
+
+    /**
+     * Agrega la cadena en UTF-8. Los caracteres ASCII (el caso normal en campos DIAN) se copian
+     * directo al buffer; el resto de la cadena se codifica con el codificador estándar.
+     */
+    public Sha384Hasher append(String value) {
+        if (value == null) {
+            return append("null");
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                flush();
+                digest.update(value.substring(i).getBytes(StandardCharsets.UTF_8));
+                return this;
+            }
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) c;
+        }
+        return this;
+    }
+
+    /**
+     * Termina el hash, devuelve el hasher al pool y retorna el resultado en hexadecimal.
+     */
+    public String hex() {
+        try {
+            flush();
+            return HEX.formatHex(digest.digest());
+        } finally {
+            POOL.release(this);
+        }
+    }
+
+    private void flush() {
+        if (position > 0) {
+            digest.update(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void reset() {
+        position = 0;
+        digest.reset();
+    }
+
+    private static MessageDigest cloneDigest() {
+        try {
+            return (MessageDigest) PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return newDigest();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-384");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-384 está garantizado en todas las JVMs modernas
+            throw new IllegalStateException("Algoritmo SHA-384 no disponible", e);
+        }
+    }
+}
@@ -1,22 +1,74 @@
 package com.yesidrangel.dian.xml.validator.util;
 
-import java.io.StringReader;
-
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.validation.Schema;
 
 import org.w3c.dom.Document;
+import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
 
 import com.yesidrangel.dian.xml.validator.exception.TechnicalException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.DocumentTooLargeException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.ParseBudgetExceededException;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlSecurityPolicy;
 
 public class XmlParserUtil {
 
-    public static Document parse(String xml){
+    // Por defecto Xerces deja en el DOM el valor normalizado por el esquema (colapsa los espacios de
+    // un base64Binary, por ejemplo) y la firma se calcula sobre el texto tal como llegó
+    private static final String SCHEMA_NORMALIZED_VALUE =
+            "http://apache.org/xml/features/validation/schema/normalized-value";
+
+    /**
+     * Crea y configura la factory de DOM usada por los pools de {@code XmlInfrastructure}. Con
+     * esquema, el DOM conserva el texto original de cada elemento.
+     *
+     * @param schema esquema para validar en línea durante el parseo, o {@code null}
+     * @param policy límites y restricciones de seguridad del parser
+     */
+    public static DocumentBuilderFactory newDocumentBuilderFactory(Schema schema, XmlSecurityPolicy policy) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setSchema(schema);
+        if (schema != null) {
+            try {
+                factory.setFeature(SCHEMA_NORMALIZED_VALUE, false);
+            } catch (ParserConfigurationException e) {
+                throw new TechnicalException("Error configurando el parser XML", e);
+            }
+        }
+        return policy.configure(factory);
+    }
+
+    /**
+     * Parsea el XML con un builder ya configurado. Un error de buena formación, un límite del
+     * parser o un documento demasiado grande se reportan como fatales al {@code errorHandler} y se
+     * relanzan como {@link SAXParseException}. Un presupuesto de tiempo vencido también se relanza
+     * así, con la {@link ParseBudgetExceededException} como causa, pero no se reporta: el documento
+     * no tiene un error, solo no terminó de validarse.
+     */
+    public static Document parse(DocumentBuilder builder, InputSource source, ErrorHandler errorHandler)
+            throws SAXParseException {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            return factory.newDocumentBuilder()
-                    .parse(new InputSource(new StringReader(xml)));
+            builder.setErrorHandler(errorHandler);
+            return builder.parse(source);
+        } catch (SAXParseException e) {
+            throw e;
+        } catch (ParseBudgetExceededException e) {
+            throw new SAXParseException(e.getMessage(), null, e);
+        } catch (DocumentTooLargeException e) {
+            SAXParseException fatal = new SAXParseException(e.getMessage(), null, e);
+            if (errorHandler != null) {
+                try {
+                    errorHandler.fatalError(fatal);
+                } catch (Exception ignored) {
+                    // El handler puede relanzar; el error ya quedó registrado
+                }
+            }
+            throw fatal;
         } catch (Exception e) {
             throw new TechnicalException("Error parseando XML", e);
         }
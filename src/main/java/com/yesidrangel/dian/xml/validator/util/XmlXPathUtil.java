@@ -2,31 +2,43 @@ package com.yesidrangel.dian.xml.validator.util;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathExpression;
 
-import org.w3c.dom.Document;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import com.yesidrangel.dian.xml.validator.service.signature.DianNamespaceContext;
-
 public class XmlXPathUtil {
-    public static String getTag(Document doc, String expression) {
+    public static String getTag(XPath xpath, Node node, String expression) {
         try {
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            String value = (String) xpath.evaluate(expression, doc, XPathConstants.STRING);
+            String value = (String) xpath.evaluate(expression, node, XPathConstants.STRING);
             return value != null ? value.trim() : "";
         } catch (Exception e) {
             throw new RuntimeException("Error leyendo XPath: " + expression, e);
         }
     }
 
-    public static NodeList getNodes(Document doc, String expression) {
+    public static NodeList getNodes(XPath xpath, Node node, String expression) {
         try {
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            xpath.setNamespaceContext(new DianNamespaceContext());
-            return (NodeList) xpath.evaluate(expression, doc, XPathConstants.NODESET);
+            return (NodeList) xpath.evaluate(expression, node, XPathConstants.NODESET);
         } catch (Exception e) {
             throw new RuntimeException("Error evaluando XPath: " + expression, e);
         }
     }
+
+    public static String getTag(XPathExpression expression, Node node) {
+        try {
+            String value = (String) expression.evaluate(node, XPathConstants.STRING);
+            return value != null ? value.trim() : "";
+        } catch (Exception e) {
+            throw new RuntimeException("Error leyendo XPath compilado", e);
+        }
+    }
+
+    public static NodeList getNodes(XPathExpression expression, Node node) {
+        try {
+            return (NodeList) expression.evaluate(node, XPathConstants.NODESET);
+        } catch (Exception e) {
+            throw new RuntimeException("Error evaluando XPath compilado", e);
+        }
+    }
 }
@@ -1,55 +1,72 @@
 package com.yesidrangel.dian.xml.validator.util;
 
-import java.io.InputStream;
 import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.List;
 
-import javax.xml.XMLConstants;
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXParseException;
 
 import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlSecurityPolicy;
 
 public class XsdValidationUtil {
 
 	public static final String XSD_NO_ENCONTRADO = "XSD no encontrado: ";
 
-	public static List<String> validate(String xml, String xsdPath) {
+	/**
+	 * Valida el XML contra un esquema ya compilado (ver {@code DianSchemaRegistry}). El documento se
+	 * lee con el lector SAX de {@code policy}: sin DTD y con sus límites.
+	 */
+	public static FindingCollector validate(String xml, Schema schema, XmlSecurityPolicy policy) {
 
-		List<String> errors = new ArrayList<>();
+		FindingCollector errors = new FindingCollector(ValidationFindingType.XSD);
 		try {
-			SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-			InputStream xsdStream = XsdValidationUtil.class.getClassLoader().getResourceAsStream(xsdPath);
-			if (xsdStream == null) {
-				throw new RuntimeException(XSD_NO_ENCONTRADO + xsdPath);
-			}
-			Schema schema = factory.newSchema(new StreamSource(xsdStream));
 			Validator validator = schema.newValidator();
-			validator.setErrorHandler(new ErrorHandler() {
-				@Override
-				public void warning(SAXParseException e) {
-					errors.add(DianSeverityLevel.WARNING.getLabel() + ": " + e.getMessage());
-				}
-				@Override
-				public void error(SAXParseException e) {
-					errors.add(DianSeverityLevel.ERROR.getLabel() + ": " + e.getMessage());
-				}
-				@Override
-				public void fatalError(SAXParseException e) {
-					errors.add(DianSeverityLevel.FATAL.getLabel() + ": " + e.getMessage());
-				}
-			});
-			validator.validate(new StreamSource(new StringReader(xml)));
+			validator.setErrorHandler(errorCollector(errors));
+			validator.validate(new SAXSource(policy.newXmlReader(), new InputSource(new StringReader(xml))));
+		} catch (SAXParseException e) {
+			// Ya registrado por fatalError, o validación detenida por el colector agotado
 		} catch (Exception e) {
-			errors.add(e.getMessage());
+			errors.add(DianSeverityLevel.FATAL, e.getMessage());
 		}
 		return errors;
 	}
 
+	/**
+	 * {@link ErrorHandler} que acumula los errores SAX como hallazgos XSD con su severidad, línea y
+	 * columna. Si el colector queda agotado (máximo de hallazgos o presupuesto de tiempo) lo marca
+	 * como detenido y relanza el error, lo que corta el parseo en ese punto. Un error fatal no
+	 * necesita la comprobación: el parser se detiene con él. Un documento sin errores no pasa por
+	 * aquí; su presupuesto lo acota {@code DeadlineInputSource}.
+	 */
+	public static ErrorHandler errorCollector(FindingCollector errors) {
+		return new ErrorHandler() {
+			@Override
+			public void warning(SAXParseException e) throws SAXParseException {
+				collect(DianSeverityLevel.WARNING, e);
+			}
+			@Override
+			public void error(SAXParseException e) throws SAXParseException {
+				collect(DianSeverityLevel.ERROR, e);
+			}
+			@Override
+			public void fatalError(SAXParseException e) {
+				errors.add(DianSeverityLevel.FATAL, e);
+			}
+			private void collect(DianSeverityLevel severity, SAXParseException e) throws SAXParseException {
+				errors.add(severity, e);
+				if (errors.exhausted()) {
+					errors.abort();
+					throw e;
+				}
+			}
+		};
+	}
+
 }
@@ -0,0 +1,87 @@
+package com.yesidrangel.dian.xml.validator.domain.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+
+/**
+ * El mensaje de un hallazgo se arma al serializar la respuesta, una sola vez por DTO.
+ */
+class ValidationErrorDtoTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void messageIsRenderedLazilyAndOnce() throws JsonProcessingException {
+		CountingArgument argument = new CountingArgument();
+		ValidationErrorDto dto = ValidationErrorDto.of(new ValidationFinding(ValidationFindingType.SEMANTIC,
+				DianSeverityLevel.ERROR, "FAU14", "/Invoice/cac:LegalMonetaryTotal/cbc:PayableAmount",
+				ValidationFinding.UNKNOWN_POSITION, ValidationFinding.UNKNOWN_POSITION, "PayableAmount {}",
+				new Object[] { argument }));
+
+		assertThat(argument.calls).isZero();
+
+		JsonNode json = mapper.readTree(mapper.writeValueAsString(dto));
+
+		assertThat(json.get("message").asText()).isEqualTo("ERROR: [FAU14] PayableAmount 10.00");
+		assertThat(dto.getMessage()).isEqualTo("ERROR: [FAU14] PayableAmount 10.00");
+		assertThat(argument.calls).isEqualTo(1);
+	}
+
+	@Test
+	void serializesOnlyKnownFields() throws JsonProcessingException {
+		ValidationErrorDto dto = ValidationErrorDto.of(
+				ValidationFinding.of(ValidationFindingType.REQUEST, DianSeverityLevel.FATAL, "XML vacío"));
+
+		JsonNode json = mapper.readTree(mapper.writeValueAsString(dto));
+
+		assertThat(json.fieldNames()).toIterable().containsExactlyInAnyOrder("type", "severity", "message");
+		assertThat(json.get("type").asText()).isEqualTo("REQUEST");
+		assertThat(json.get("severity").asText()).isEqualTo("FATAL");
+		assertThat(json.get("message").asText()).isEqualTo("FATAL: XML vacío");
+	}
+
+	@Test
+	void saxPositionIsSerialized() throws JsonProcessingException {
+		ValidationErrorDto dto = ValidationErrorDto.of(new ValidationFinding(ValidationFindingType.XSD,
+				DianSeverityLevel.ERROR, null, null, 7, 21, "cvc-datatype-valid.1.2.1", new Object[0]));
+
+		JsonNode json = mapper.readTree(mapper.writeValueAsString(dto));
+
+		assertThat(json.get("line").asInt()).isEqualTo(7);
+		assertThat(json.get("column").asInt()).isEqualTo(21);
+		assertThat(json.has("code")).isFalse();
+		assertThat(json.has("location")).isFalse();
+	}
+
+	@Test
+	void explicitMessageWins() {
+		ValidationErrorDto dto = ValidationErrorDto.of(
+				ValidationFinding.of(ValidationFindingType.PIPELINE, DianSeverityLevel.INFO, "original"));
+
+		dto.setMessage("INFO: reemplazado");
+
+		assertThat(dto.getMessage()).isEqualTo("INFO: reemplazado");
+	}
+
+	/**
+	 * Argumento que cuenta cuántas veces se formatea.
+	 */
+	private static final class CountingArgument {
+
+		private int calls;
+
+		@Override
+		public String toString() {
+			calls++;
+			return "10.00";
+		}
+	}
+}
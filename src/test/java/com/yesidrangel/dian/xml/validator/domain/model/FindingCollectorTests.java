@@ -0,0 +1,161 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.xml.sax.SAXParseException;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+
+class FindingCollectorTests {
+
+    @Test
+    void emptyCollector() {
+        FindingCollector findings = new FindingCollector(ValidationFindingType.SEMANTIC);
+
+        assertThat(findings.isEmpty()).isTrue();
+        assertThat(findings.maxSeverity()).isEqualTo(DianSeverityLevel.INFO);
+        assertThat(findings.hasBlocking()).isFalse();
+        assertThat(findings.total()).isZero();
+        assertThat(findings.exhausted()).isFalse();
+        assertThat(findings.expired()).isFalse();
+    }
+
+    @Test
+    void maxSeverityOnlyGoesUp() {
+        FindingCollector findings = new FindingCollector(ValidationFindingType.SEMANTIC);
+
+        findings.add(DianSeverityLevel.WARNING, "a");
+        assertThat(findings.maxSeverity()).isEqualTo(DianSeverityLevel.WARNING);
+        assertThat(findings.hasBlocking()).isFalse();
+
+        findings.add(DianSeverityLevel.ERROR, "b");
+        findings.add(DianSeverityLevel.INFO, "c");
+        findings.add(DianSeverityLevel.WARNING, "d");
+
+        assertThat(findings.maxSeverity()).isEqualTo(DianSeverityLevel.ERROR);
+        assertThat(findings.hasBlocking()).isTrue();
+        assertThat(findings.count(DianSeverityLevel.INFO)).isEqualTo(1);
+        assertThat(findings.count(DianSeverityLevel.WARNING)).isEqualTo(2);
+        assertThat(findings.count(DianSeverityLevel.ERROR)).isEqualTo(1);
+        assertThat(findings.count(DianSeverityLevel.FATAL)).isZero();
+        assertThat(findings.findings()).extracting(ValidationFinding::message).containsExactly("a", "b", "c", "d");
+    }
+
+    @Test
+    void boundedCollectorCountsWhatItDrops() {
+        FindingCollector findings = FindingCollector.bounded(ValidationFindingType.XSD, 2, null);
+
+        findings.add(DianSeverityLevel.WARNING, "a");
+        assertThat(findings.exhausted()).isFalse();
+        findings.add(DianSeverityLevel.WARNING, "b");
+        assertThat(findings.exhausted()).isTrue();
+        // Los descartados también cuentan para la severidad
+        findings.add(DianSeverityLevel.FATAL, "c");
+
+        assertThat(findings.size()).isEqualTo(2);
+        assertThat(findings.dropped()).isEqualTo(1);
+        assertThat(findings.total()).isEqualTo(3);
+        assertThat(findings.maxSeverity()).isEqualTo(DianSeverityLevel.FATAL);
+        assertThat(findings.count(DianSeverityLevel.FATAL)).isEqualTo(1);
+        assertThat(findings.findings()).extracting(ValidationFinding::message).containsExactly("a", "b");
+    }
+
+    @Test
+    void noteIgnoresTheLimit() {
+        FindingCollector findings = FindingCollector.bounded(ValidationFindingType.XSD, 1, null);
+        findings.add(DianSeverityLevel.ERROR, "a");
+
+        findings.note(ValidationFinding.of(ValidationFindingType.PIPELINE, DianSeverityLevel.INFO, "detenida"));
+
+        assertThat(findings.size()).isEqualTo(2);
+        assertThat(findings.dropped()).isZero();
+        assertThat(findings.findings().get(1).type()).isEqualTo(ValidationFindingType.PIPELINE);
+    }
+
+    @Test
+    void limitIsAtLeastOne() {
+        assertThat(FindingCollector.bounded(ValidationFindingType.XSD, 0, null).limit()).isEqualTo(1);
+        assertThat(new FindingCollector(ValidationFindingType.XSD).limit()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void budgetExpires() {
+        FindingCollector findings = FindingCollector.bounded(ValidationFindingType.XSD, 10, Duration.ZERO);
+
+        assertThat(findings.expired()).isTrue();
+        assertThat(findings.exhausted()).isTrue();
+        assertThat(FindingCollector.bounded(ValidationFindingType.XSD, 10, Duration.ofHours(1)).expired()).isFalse();
+    }
+
+    @Test
+    void addAllKeepsOrderAndCounts() {
+        FindingCollector xsd = new FindingCollector(ValidationFindingType.XSD);
+        xsd.add(DianSeverityLevel.WARNING, "x1");
+        FindingCollector semantic = new FindingCollector(ValidationFindingType.SEMANTIC);
+        semantic.add(DianSeverityLevel.ERROR, "s1");
+        semantic.add(DianSeverityLevel.INFO, "s2");
+
+        xsd.addAll(semantic);
+
+        assertThat(xsd.findings()).extracting(ValidationFinding::message).containsExactly("x1", "s1", "s2");
+        assertThat(xsd.findings()).extracting(ValidationFinding::type).containsExactly(ValidationFindingType.XSD,
+                ValidationFindingType.SEMANTIC, ValidationFindingType.SEMANTIC);
+        assertThat(xsd.maxSeverity()).isEqualTo(DianSeverityLevel.ERROR);
+        assertThat(xsd.count(DianSeverityLevel.INFO)).isEqualTo(1);
+        assertThat(xsd.total()).isEqualTo(3);
+    }
+
+    @Test
+    void addAllTruncatesAtTheLimit() {
+        FindingCollector total = FindingCollector.bounded(ValidationFindingType.PIPELINE, 3, null);
+        total.add(DianSeverityLevel.INFO, "t1");
+        total.add(DianSeverityLevel.INFO, "t2");
+
+        FindingCollector stage = FindingCollector.bounded(ValidationFindingType.SEMANTIC, 2, null);
+        stage.add(DianSeverityLevel.WARNING, "s1");
+        stage.add(DianSeverityLevel.WARNING, "s2");
+        stage.add(DianSeverityLevel.FATAL, "s3");
+        assertThat(stage.dropped()).isEqualTo(1);
+
+        total.addAll(stage);
+
+        // Cabe uno; s2 no cabe y s3 ya venía descartado
+        assertThat(total.findings()).extracting(ValidationFinding::message).containsExactly("t1", "t2", "s1");
+        assertThat(total.dropped()).isEqualTo(2);
+        assertThat(total.total()).isEqualTo(5);
+        assertThat(total.count(DianSeverityLevel.WARNING)).isEqualTo(2);
+        assertThat(total.maxSeverity()).isEqualTo(DianSeverityLevel.FATAL);
+
+        FindingCollector full = FindingCollector.bounded(ValidationFindingType.PIPELINE, 1, null);
+        full.add(DianSeverityLevel.INFO, "f1");
+        full.add(DianSeverityLevel.INFO, "f2");
+        full.addAll(stage);
+        assertThat(full.size()).isEqualTo(1);
+        assertThat(full.dropped()).isEqualTo(1 + 2 + 1);
+    }
+
+    @Test
+    void saxFindingKeepsItsPosition() {
+        FindingCollector findings = new FindingCollector(ValidationFindingType.XSD);
+
+        findings.add(DianSeverityLevel.ERROR, new SAXParseException("cvc-complex-type.2.4.a", null, null, 12, 34));
+
+        assertThat(findings.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.line()).isEqualTo(12);
+            assertThat(finding.column()).isEqualTo(34);
+            assertThat(finding.render()).isEqualTo("ERROR: cvc-complex-type.2.4.a");
+        });
+    }
+
+    @Test
+    void findingsAreReadOnly() {
+        FindingCollector findings = new FindingCollector(ValidationFindingType.SEMANTIC);
+        findings.add(DianSeverityLevel.INFO, "a");
+
+        assertThat(findings.findings()).isUnmodifiable();
+    }
+}
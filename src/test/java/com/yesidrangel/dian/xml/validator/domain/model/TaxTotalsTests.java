@@ -0,0 +1,44 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import org.junit.jupiter.api.Test;
+
+class TaxTotalsTests {
+
+    @Test
+    void sumsPerCodeInCents() {
+        TaxTotals totals = new TaxTotals();
+        totals.add("01", 14_250_000L);
+        totals.add("01", 14_250_000L);
+        totals.add("04", 8_000L);
+        totals.add("04", -8_000L);
+
+        assertThat(totals.get("01")).isEqualTo(28_500_000L);
+        assertThat(totals.get("04")).isZero();
+        assertThat(totals.get("03")).isZero();
+        assertThat(totals.codes()).containsExactlyInAnyOrder("01", "04");
+    }
+
+    @Test
+    void amountsAlwaysCarryTheCufeCodesFirst() {
+        TaxTotals totals = new TaxTotals();
+        totals.add("ZZ", 1L);
+        totals.add("03", 123_456L);
+
+        assertThat(totals.toAmounts()).containsExactly(
+                entry("01", "0.00"),
+                entry("04", "0.00"),
+                entry("03", "1234.56"),
+                entry("ZZ", "0.01"));
+    }
+
+    @Test
+    void emptyTotalsFormatZeros() {
+        assertThat(new TaxTotals().toAmounts()).containsExactly(
+                entry("01", "0.00"),
+                entry("04", "0.00"),
+                entry("03", "0.00"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.yesidrangel.dian.xml.validator.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+
+class ValidationFindingTests {
+
+    @Test
+    void renderWithAndWithoutCode() {
+        ValidationFinding coded = new ValidationFinding(ValidationFindingType.SEMANTIC, DianSeverityLevel.ERROR,
+                "FAD06", "/Invoice/cbc:UUID", ValidationFinding.UNKNOWN_POSITION,
+                ValidationFinding.UNKNOWN_POSITION, "CUFE {} no coincide con {}", new Object[] { "abc", "def" });
+
+        assertThat(coded.message()).isEqualTo("CUFE abc no coincide con def");
+        assertThat(coded.render()).isEqualTo("ERROR: [FAD06] CUFE abc no coincide con def");
+        assertThat(ValidationFinding.of(ValidationFindingType.REQUEST, DianSeverityLevel.FATAL, "XML vacío").render())
+                .isEqualTo("FATAL: XML vacío");
+    }
+
+    @Test
+    void patternWithoutArgumentsIsNotFormatted() {
+        ValidationFinding finding = ValidationFinding.of(ValidationFindingType.XSD, DianSeverityLevel.ERROR,
+                "Valor {} literal");
+
+        assertThat(finding.message()).isEqualTo("Valor {} literal");
+    }
+
+    @Test
+    void argumentsAreFormattedOnDemand() {
+        CountingArgument argument = new CountingArgument();
+        FindingCollector findings = new FindingCollector(ValidationFindingType.SEMANTIC);
+
+        findings.add(DianSeverityLevel.WARNING, "FAU02", null, "Monto {}", argument);
+
+        assertThat(argument.calls).isZero();
+        assertThat(findings.findings().get(0).message()).isEqualTo("Monto 1.00");
+        assertThat(argument.calls).isEqualTo(1);
+    }
+
+    /**
+     * Argumento que cuenta cuántas veces se formatea.
+     */
+    static final class CountingArgument {
+
+        int calls;
+
+        @Override
+        public String toString() {
+            calls++;
+            return "1.00";
+        }
+    }
+}
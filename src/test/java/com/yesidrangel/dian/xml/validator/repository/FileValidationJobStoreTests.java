@@ -0,0 +1,99 @@
+package com.yesidrangel.dian.xml.validator.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationJobStatus;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationJob;
+import com.yesidrangel.dian.xml.validator.service.impl.ValidationJobServiceImpl;
+
+/**
+ * Un proceso guarda trabajos en distintos estados y otro arranca sobre el mismo directorio, como
+ * tras un reinicio.
+ */
+class FileValidationJobStoreTests {
+
+    private static final Instant SUBMITTED = Instant.parse("2026-01-15T10:00:00Z");
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    private Path directory;
+
+    private ValidationJob queued;
+    private ValidationJob running;
+    private ValidationJob completed;
+
+    @BeforeEach
+    void previousProcess() {
+        FileValidationJobStore store = new FileValidationJobStore(directory, mapper);
+        queued = ValidationJob.queued(UUID.randomUUID().toString(), 1, SUBMITTED);
+        running = ValidationJob.queued(UUID.randomUUID().toString(), 2, SUBMITTED).running(SUBMITTED.plusSeconds(1));
+        completed = ValidationJob.queued(UUID.randomUUID().toString(), 1, SUBMITTED)
+                .running(SUBMITTED.plusSeconds(1))
+                .completed(SUBMITTED.plusSeconds(2), List.of(new XmlValidationResponseDto()));
+        store.save(queued);
+        store.save(running);
+        store.save(completed);
+    }
+
+    @Test
+    void restartReloadsTheIndex() {
+        FileValidationJobStore store = new FileValidationJobStore(directory, mapper);
+
+        assertThat(store.findUnfinished()).containsExactlyInAnyOrder(queued, running);
+        assertThat(store.find(completed.id())).contains(completed);
+        assertThat(directory).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void restartMarksUnfinishedJobsFailed() {
+        FileValidationJobStore store = new FileValidationJobStore(directory, mapper);
+
+        ValidationJobServiceImpl service = new ValidationJobServiceImpl(null, null, Runnable::run, store, null,
+                new DianValidatorProperties());
+        try {
+            assertThat(store.findUnfinished()).isEmpty();
+            for (ValidationJob job : List.of(queued, running)) {
+                ValidationJob failed = service.find(job.id()).orElseThrow();
+                assertThat(failed.status()).isEqualTo(ValidationJobStatus.FAILED);
+                assertThat(failed.submittedAt()).isEqualTo(SUBMITTED);
+                assertThat(failed.finishedAt()).isNotNull();
+                assertThat(failed.error()).contains("reinició");
+            }
+            assertThat(service.find(completed.id())).contains(completed);
+        } finally {
+            service.destroy();
+        }
+        // Quedan terminados también para el siguiente arranque
+        assertThat(new FileValidationJobStore(directory, mapper).findUnfinished()).isEmpty();
+    }
+
+    @Test
+    void purgeRemovesJobsFinishedBeforeTheRetention() {
+        FileValidationJobStore store = new FileValidationJobStore(directory, mapper);
+
+        assertThat(store.purge(completed.finishedAt())).isZero();
+        assertThat(store.purge(completed.finishedAt().plus(Duration.ofMillis(1)))).isEqualTo(1);
+
+        assertThat(store.find(completed.id())).isEmpty();
+        assertThat(Files.exists(directory.resolve(completed.id() + ".json"))).isFalse();
+        // Los pendientes no tienen fin: no se purgan
+        assertThat(store.find(queued.id())).contains(queued);
+        assertThat(store.find(running.id())).contains(running);
+    }
+}
@@ -0,0 +1,179 @@
+package com.yesidrangel.dian.xml.validator.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationJobStatus;
+import com.yesidrangel.dian.xml.validator.exception.FunctionalException;
+import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
+
+/**
+ * Trabajos asíncronos de punta a punta por HTTP, con un solo worker y un solo lugar en la cola. La
+ * validación es un mock que espera un latch, así que cada prueba decide cuándo termina un trabajo.
+ */
+@SpringBootTest(properties = {
+		"dian.validator.jobs.workers=1",
+		"dian.validator.jobs.queue-capacity=1",
+		"dian.validator.jobs.retention=2s",
+		"dian.validator.jobs.purge-interval=200ms",
+		"dian.validator.warmup.enabled=false" })
+@AutoConfigureMockMvc
+class ValidationJobServiceImplTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+	private static final String REQUEST = "{\"xml\":\"<Invoice/>\",\"documentType\":\"INVOICE\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper mapper;
+	@MockitoBean
+	private XmlValidationService validationService;
+
+	@Test
+	void jobGoesFromQueuedThroughRunningToCompleted() throws Exception {
+		CountDownLatch release = blockValidation();
+		try {
+			JsonNode first = submit(HttpStatus.ACCEPTED);
+			assertThat(first.path("status").asText()).isEqualTo("QUEUED");
+			awaitStatus(first.path("id").asText(), ValidationJobStatus.RUNNING);
+
+			// El único worker está ocupado: el segundo espera en la cola
+			JsonNode second = submit(HttpStatus.ACCEPTED);
+			assertThat(find(second.path("id").asText()).path("status").asText()).isEqualTo("QUEUED");
+
+			release.countDown();
+
+			for (JsonNode job : new JsonNode[] { first, second }) {
+				JsonNode completed = awaitStatus(job.path("id").asText(), ValidationJobStatus.COMPLETED);
+				assertThat(completed.path("startedAt").isNull()).isFalse();
+				assertThat(completed.path("finishedAt").isNull()).isFalse();
+				assertThat(completed.path("results")).hasSize(1);
+				assertThat(completed.path("results").get(0).path("valid").asBoolean()).isTrue();
+			}
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void failedValidationEndsTheJobAsFailed() throws Exception {
+		doThrow(new FunctionalException("Tipo de documento no soportado: BOLETA"))
+				.when(validationService).validate(any(XmlValidationRequestDto.class));
+
+		JsonNode job = submit(HttpStatus.ACCEPTED);
+
+		JsonNode failed = awaitStatus(job.path("id").asText(), ValidationJobStatus.FAILED);
+		assertThat(failed.path("error").asText()).isEqualTo("Tipo de documento no soportado: BOLETA");
+		assertThat(failed.path("results").isNull()).isTrue();
+	}
+
+	@Test
+	void fullQueueIsRejectedWith429() throws Exception {
+		CountDownLatch release = blockValidation();
+		try {
+			JsonNode running = submit(HttpStatus.ACCEPTED);
+			awaitStatus(running.path("id").asText(), ValidationJobStatus.RUNNING);
+			JsonNode queued = submit(HttpStatus.ACCEPTED);
+
+			MockHttpServletResponse rejected = postJob();
+
+			assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+			assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isNotBlank();
+
+			release.countDown();
+			awaitStatus(queued.path("id").asText(), ValidationJobStatus.COMPLETED);
+			// Con la cola libre se vuelve a aceptar
+			submit(HttpStatus.ACCEPTED);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void finishedJobIsPurgedAfterRetention() throws Exception {
+		blockValidation().countDown();
+
+		String id = submit(HttpStatus.ACCEPTED).path("id").asText();
+		awaitStatus(id, ValidationJobStatus.COMPLETED);
+
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (getJob(id).getStatus() != HttpStatus.NOT_FOUND.value()) {
+			assertThat(System.nanoTime()).as("trabajo %s sin purgar", id).isLessThan(deadline);
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+	 * Cada validación espera el latch devuelto antes de responder.
+	 */
+	private CountDownLatch blockValidation() {
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			release.await();
+			XmlValidationResponseDto response = new XmlValidationResponseDto();
+			response.setValid(true);
+			return response;
+		}).when(validationService).validate(any(XmlValidationRequestDto.class));
+		return release;
+	}
+
+	private JsonNode submit(HttpStatus expected) throws Exception {
+		MockHttpServletResponse response = postJob();
+		assertThat(response.getStatus()).isEqualTo(expected.value());
+		return data(response);
+	}
+
+	private JsonNode awaitStatus(String id, ValidationJobStatus status) throws Exception {
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		JsonNode job = find(id);
+		while (!status.name().equals(job.path("status").asText())) {
+			assertThat(System.nanoTime()).as("trabajo %s en %s", id, job.path("status").asText())
+					.isLessThan(deadline);
+			Thread.sleep(20);
+			job = find(id);
+		}
+		return job;
+	}
+
+	private JsonNode find(String id) throws Exception {
+		MockHttpServletResponse response = getJob(id);
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		return data(response);
+	}
+
+	private MockHttpServletResponse postJob() throws Exception {
+		return mockMvc.perform(post("/api/xml/jobs").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+				.andReturn().getResponse();
+	}
+
+	private MockHttpServletResponse getJob(String id) throws Exception {
+		return mockMvc.perform(get("/api/xml/jobs/{id}", id)).andReturn().getResponse();
+	}
+
+	private JsonNode data(MockHttpServletResponse response) throws Exception {
+		return mapper.readTree(response.getContentAsString()).path("data");
+	}
+}
@@ -0,0 +1,130 @@
+package com.yesidrangel.dian.xml.validator.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.yesidrangel.dian.xml.validator.config.XmlValidatorConfig;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.service.XmlBatchValidationService;
+import com.yesidrangel.dian.xml.validator.service.signature.XadesSignatureValidator;
+
+/**
+ * Variante con hilos de plataforma de {@link XmlBatchValidationServiceImplTests}: con
+ * {@code parallelism=1} el executor de etapas tiene un solo hilo y sin cola, así que una firma que
+ * no cabe se rechaza y la valida el mismo hilo del documento en lugar de esperar un cupo.
+ */
+@SpringBootTest(properties = {
+		"spring.threads.virtual.enabled=false",
+		"dian.validator.batch.parallelism=1",
+		"dian.validator.warmup.enabled=false" })
+class XmlBatchValidationServiceImplPlatformTests {
+
+	private static final int DOCUMENTS = 4;
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+	private static final String STAGE_THREAD = "xml-validation-stage-";
+
+	@Autowired
+	private XmlBatchValidationService batchService;
+	@Autowired
+	@Qualifier(XmlValidatorConfig.STAGE_EXECUTOR)
+	private ThreadPoolTaskExecutor stageExecutor;
+	@MockitoSpyBean
+	private XadesSignatureValidator signatureValidator;
+
+	private final Queue<String> signatureThreads = new ConcurrentLinkedQueue<>();
+
+	@BeforeEach
+	void recordSignatureThreads() {
+		doAnswer(invocation -> {
+			signatureThreads.add(Thread.currentThread().getName());
+			return invocation.callRealMethod();
+		}).when(signatureValidator).validate(any(), any(), any());
+	}
+
+	@Test
+	void validateBatchLargerThanParallelism() throws IOException {
+		List<XmlValidationRequestDto> requests = requests();
+
+		List<XmlValidationResponseDto> results = assertTimeoutPreemptively(TIMEOUT,
+				() -> batchService.validateBatch(requests));
+
+		assertValidated(results);
+		assertThat(signatureThreads).hasSize(DOCUMENTS);
+	}
+
+	@Test
+	void signatureRunsInlineWhenTheStageExecutorIsFull() throws IOException {
+		List<XmlValidationRequestDto> requests = requests();
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch occupied = new CountDownLatch(1);
+		// Ocupa el único hilo de etapas: cada firma del lote se rechaza y corre en su hilo
+		stageExecutor.execute(() -> {
+			occupied.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		try {
+			List<XmlValidationResponseDto> results = assertTimeoutPreemptively(TIMEOUT, () -> {
+				occupied.await();
+				try (Stream<XmlValidationResponseDto> stream = batchService.streamBatch(requests)) {
+					return stream.toList();
+				}
+			});
+
+			assertValidated(results);
+			assertThat(signatureThreads).hasSize(DOCUMENTS)
+					.allMatch(name -> name.startsWith("xml-validation-") && !name.startsWith(STAGE_THREAD));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private static void assertValidated(List<XmlValidationResponseDto> results) {
+		assertThat(results).hasSize(DOCUMENTS)
+				.allMatch(result -> result.getMaxSeverity().compareTo(DianSeverityLevel.ERROR) < 0);
+		assertThat(results).extracting(XmlValidationResponseDto::getCorrelationId)
+				.containsExactlyInAnyOrder(IntStream.range(0, DOCUMENTS).mapToObj(String::valueOf).toArray(String[]::new));
+	}
+
+	private static List<XmlValidationRequestDto> requests() throws IOException {
+		String xml;
+		try (InputStream in = new ClassPathResource("warmup/invoice.xml").getInputStream()) {
+			xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		return IntStream.range(0, DOCUMENTS).mapToObj(i -> {
+			XmlValidationRequestDto request = new XmlValidationRequestDto();
+			// Un comentario distinto por documento, para que el caché no sirva ninguno
+			request.setXml(xml + "<!-- " + i + " -->");
+			request.setDocumentType(DianSchemaType.INVOICE.name());
+			return request;
+		}).toList();
+	}
+}
@@ -0,0 +1,103 @@
+package com.yesidrangel.dian.xml.validator.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.service.XmlBatchValidationService;
+import com.yesidrangel.dian.xml.validator.service.semantic.DianSemanticValidator;
+
+/**
+ * Lote mayor que {@code batch.parallelism} con hilos virtuales: cada documento ocupa un cupo del
+ * executor de validación mientras envía su firma, así que la firma no puede esperar un cupo del
+ * mismo executor. La extracción se demora para que todos los cupos estén ocupados a la vez.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(properties = {
+		"spring.threads.virtual.enabled=true",
+		"dian.validator.batch.parallelism=2",
+		"dian.validator.warmup.enabled=false" })
+class XmlBatchValidationServiceImplTests {
+
+	private static final int DOCUMENTS = 8;
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	@Autowired
+	private XmlBatchValidationService batchService;
+	@MockitoSpyBean
+	private DianSemanticValidator semanticValidator;
+
+	@BeforeEach
+	void slowExtraction() {
+		doAnswer(invocation -> {
+			Thread.sleep(200);
+			return invocation.callRealMethod();
+		}).when(semanticValidator).extract(any(), any());
+	}
+
+	@Test
+	void validateBatchLargerThanParallelism() throws IOException {
+		List<XmlValidationRequestDto> requests = requests();
+
+		List<XmlValidationResponseDto> results = assertTimeoutPreemptively(TIMEOUT,
+				() -> batchService.validateBatch(requests));
+
+		assertValidated(results);
+	}
+
+	@Test
+	void streamBatchLargerThanParallelism() throws IOException {
+		List<XmlValidationRequestDto> requests = requests();
+
+		List<XmlValidationResponseDto> results = assertTimeoutPreemptively(TIMEOUT, () -> {
+			try (Stream<XmlValidationResponseDto> stream = batchService.streamBatch(requests)) {
+				return stream.toList();
+			}
+		});
+
+		assertValidated(results);
+	}
+
+	private static void assertValidated(List<XmlValidationResponseDto> results) {
+		assertThat(results).hasSize(DOCUMENTS)
+				.allMatch(result -> result.getMaxSeverity().compareTo(DianSeverityLevel.ERROR) < 0);
+		assertThat(results).extracting(XmlValidationResponseDto::getCorrelationId)
+				.containsExactlyInAnyOrder(IntStream.range(0, DOCUMENTS).mapToObj(String::valueOf).toArray(String[]::new));
+	}
+
+	private static List<XmlValidationRequestDto> requests() throws IOException {
+		String xml;
+		try (InputStream in = new ClassPathResource("warmup/invoice.xml").getInputStream()) {
+			xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		return IntStream.range(0, DOCUMENTS).mapToObj(i -> {
+			XmlValidationRequestDto request = new XmlValidationRequestDto();
+			// Un comentario distinto por documento, para que el caché no sirva ninguno
+			request.setXml(xml + "<!-- " + i + " -->");
+			request.setDocumentType(DianSchemaType.INVOICE.name());
+			return request;
+		}).toList();
+	}
+}
@@ -0,0 +1,195 @@
+package com.yesidrangel.dian.xml.validator.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+
+import com.yesidrangel.dian.xml.validator.domain.dto.ValidationErrorDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationRequestDto;
+import com.yesidrangel.dian.xml.validator.domain.dto.XmlValidationResponseDto;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.service.XmlValidationService;
+
+/**
+ * Límites de {@code XmlSecurityPolicy} por las dos entradas del servicio, el XML como texto (JSON)
+ * y como stream (cuerpo crudo): cada documento que los supera se corta en el parseo con un error
+ * FATAL, como uno mal formado, sin llegar a las etapas siguientes. Los errores del parser se reconocen por la
+ * feature o el código JAXP, que no dependen del idioma.
+ */
+@SpringBootTest(properties = {
+		"dian.validator.xml.max-document-size=64KB",
+		"dian.validator.xml.max-element-depth=64",
+		"dian.validator.xml.max-attributes=64",
+		"dian.validator.pipeline.parse-budget=2s",
+		"dian.validator.cache.enabled=false",
+		"dian.validator.warmup.enabled=false" })
+class XmlValidationServiceImplTests {
+
+	private static final int MAX_BYTES = 64 * 1024;
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+	private static final String ROOT = "<Invoice xmlns=\"urn:oasis:names:specification:ubl:schema:xsd:Invoice-2\">";
+
+	@Autowired
+	private XmlValidationService xmlService;
+
+	static Stream<Arguments> rejectedDocuments() {
+		return Stream.of(
+				Arguments.of("DOCTYPE con entidad externa",
+						"<?xml version=\"1.0\"?><!DOCTYPE Invoice [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+								+ ROOT + "&xxe;</Invoice>",
+						"disallow-doctype-decl"),
+				Arguments.of("anidamiento profundo",
+						ROOT + "<a>".repeat(100) + "</a>".repeat(100) + "</Invoice>",
+						"JAXP00010006"),
+				Arguments.of("demasiados atributos",
+						"<Invoice" + IntStream.range(0, 100).mapToObj(i -> " a" + i + "=\"" + i + "\"")
+								.collect(Collectors.joining()) + "/>",
+						"JAXP00010002"),
+				Arguments.of("documento demasiado grande",
+						ROOT + " ".repeat(MAX_BYTES) + "</Invoice>",
+						"tamaño máximo de " + MAX_BYTES));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("rejectedDocuments")
+	void rejectedAsJson(String name, String xml, String reason) {
+		assertFatal(xmlService.validate(request(xml)), reason);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("rejectedDocuments")
+	void rejectedAsRawXml(String name, String xml, String reason) {
+		InputStream in = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+
+		assertFatal(xmlService.validate(in, metadata()), reason);
+	}
+
+	@Test
+	void oversizedStreamIsRejectedBeforeItIsFullyRead() {
+		// Sin fin: si el servicio lo cargara completo antes de parsear, la prueba no terminaría
+		GeneratedInputStream in = new GeneratedInputStream(ROOT, 0);
+
+		XmlValidationResponseDto response = assertTimeoutPreemptively(TIMEOUT,
+				() -> xmlService.validate(in, metadata()));
+
+		assertFatal(response, "tamaño máximo de " + MAX_BYTES);
+		assertThat(in.served).isGreaterThan(MAX_BYTES).isLessThan(2L * MAX_BYTES);
+	}
+
+	@Test
+	void slowStreamIsStoppedAtTheParseBudget() {
+		// 256 bytes cada 50 ms: el presupuesto vence mucho antes del tamaño máximo
+		GeneratedInputStream in = new GeneratedInputStream(ROOT, 50);
+
+		XmlValidationResponseDto response = assertTimeoutPreemptively(TIMEOUT,
+				() -> xmlService.validate(in, metadata()));
+
+		assertThat(response.isValid()).isFalse();
+		assertThat(response.getErrors()).extracting(ValidationErrorDto::getMessage)
+				.anyMatch(message -> message.contains("XSD: se agotó su presupuesto de 2000 ms"));
+		assertThat(in.served).isLessThan(MAX_BYTES);
+	}
+
+	@Test
+	void documentWithinTheLimitsIsNotRejected() throws IOException {
+		String xml;
+		try (InputStream in = new ClassPathResource("warmup/invoice.xml").getInputStream()) {
+			xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		XmlValidationResponseDto fromJson = xmlService.validate(request(xml));
+		XmlValidationResponseDto fromStream = xmlService.validate(
+				new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), metadata());
+
+		assertThat(fromJson.getMaxSeverity()).isLessThan(DianSeverityLevel.ERROR);
+		assertThat(fromStream.getMaxSeverity()).isLessThan(DianSeverityLevel.ERROR);
+	}
+
+	private static void assertFatal(XmlValidationResponseDto response, String reason) {
+		assertThat(response.isValid()).isFalse();
+		assertThat(response.getMaxSeverity()).isEqualTo(DianSeverityLevel.FATAL);
+		// Puede haber errores XSD previos al corte, pero ninguno de etapas posteriores al parseo
+		assertThat(response.getErrors()).extracting(ValidationErrorDto::getType).containsOnly("XSD");
+		assertThat(response.getErrors()).filteredOn(error -> DianSeverityLevel.FATAL.name().equals(error.getSeverity()))
+				.singleElement()
+				.satisfies(error -> assertThat(error.getMessage()).contains(reason).doesNotContain("root:"));
+	}
+
+	private static XmlValidationRequestDto request(String xml) {
+		XmlValidationRequestDto request = metadata();
+		request.setXml(xml);
+		return request;
+	}
+
+	private static XmlValidationRequestDto metadata() {
+		XmlValidationRequestDto metadata = new XmlValidationRequestDto();
+		metadata.setDocumentType(DianSchemaType.INVOICE.name());
+		return metadata;
+	}
+
+	/**
+	 * El prefijo seguido de espacios sin fin, en bloques de 256 bytes con una pausa opcional entre
+	 * lecturas. Cuenta los bytes entregados.
+	 */
+	private static final class GeneratedInputStream extends InputStream {
+
+		private static final int BLOCK = 256;
+
+		private final byte[] prefix;
+		private final long pauseMillis;
+		private long served;
+
+		private GeneratedInputStream(String prefix, long pauseMillis) {
+			this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+			this.pauseMillis = pauseMillis;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			pause();
+			int n = Math.min(length, BLOCK);
+			for (int i = 0; i < n; i++, served++) {
+				buffer[offset + i] = served < prefix.length ? prefix[(int) served] : (byte) ' ';
+			}
+			return n;
+		}
+
+		private void pause() throws IOException {
+			if (pauseMillis == 0) {
+				return;
+			}
+			try {
+				Thread.sleep(pauseMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package com.yesidrangel.dian.xml.validator.service.semantic.rule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSeverityLevel;
+import com.yesidrangel.dian.xml.validator.domain.enums.ValidationFindingType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.DianLineItems;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidityHorizon;
+import com.yesidrangel.dian.xml.validator.util.DianAmountUtil;
+
+/**
+ * Aritmética de las líneas en montos escalados ({@code long}) y su cuadre con el encabezado. Con
+ * tolerancia cero cada centavo de diferencia se reporta, lo que deja ver el redondeo.
+ */
+class DianLineRuleEngineTests {
+
+    private static final long ONE = 1_000_000L;
+
+    private static final String LINE_EXTENSION = "/Invoice/cac:InvoiceLine[%d]/cbc:LineExtensionAmount";
+
+    @Test
+    void lineExtensionRoundsHalfUp() {
+        // 1 × 0,005 = 0,5 centavos, que se redondean a 0,01
+        assertThat(expectedCents(ONE, 5_000L, ONE)).isEqualTo("0.01");
+        assertThat(expectedCents(ONE, 4_999L, ONE)).isEqualTo("0.00");
+        // Lejos de cero también con cantidades negativas
+        assertThat(expectedCents(-ONE, 5_000L, ONE)).isEqualTo("-0.01");
+        assertThat(expectedCents(-ONE, 4_999L, ONE)).isEqualTo("0.00");
+
+        DianLineItems lines = new DianLineItems.Builder()
+                .nextLine().quantity(ONE).priceAmount(5_000L).lineExtension(1L)
+                .build();
+        assertThat(evaluate(engine(0, "0"), fields(lines, MonetaryTotals.ABSENT, Map.of())).isEmpty()).isTrue();
+    }
+
+    @Test
+    void lineExtensionUsesBaseQuantityAllowancesAndCharges() {
+        // 3 × 10,00 / 2 − 1,00 + 0,50 = 14,50
+        DianLineItems lines = new DianLineItems.Builder()
+                .nextLine().quantity(3 * ONE).priceAmount(10 * ONE).baseQuantity(2 * ONE)
+                .addAllowanceCharge(false, 100L).addAllowanceCharge(true, 50L).lineExtension(0L)
+                .build();
+
+        FindingCollector findings = evaluate(engine(0, "0"), fields(lines, MonetaryTotals.ABSENT, Map.of()));
+
+        assertThat(findings.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.dianCode()).isEqualTo("FAU02");
+            assertThat(finding.location()).isEqualTo(LINE_EXTENSION.formatted(1));
+            assertThat(finding.message()).isEqualTo("Línea 1: LineExtensionAmount 0.00 no coincide con "
+                    + "cantidad × precio − descuentos + cargos (14.50)");
+        });
+    }
+
+    @Test
+    void lineWithoutQuantityOrPriceIsSkipped() {
+        DianLineItems lines = new DianLineItems.Builder()
+                .nextLine().priceAmount(ONE).lineExtension(999L)
+                .nextLine().quantity(ONE).lineExtension(999L)
+                .build();
+
+        assertThat(evaluate(engine(0, "0"), fields(lines, MonetaryTotals.ABSENT, Map.of())).isEmpty()).isTrue();
+    }
+
+    @Test
+    void overflowFallsBackToBigDecimal() {
+        // cantidad × precio no cabe en un long; el cociente en centavos sí
+        long quantity = 1_000_000_000_000_000_001L;
+        long price = 5_000_000_000L;
+
+        String expected = expectedCents(quantity, price, ONE);
+
+        BigDecimal exact = BigDecimal.valueOf(quantity).movePointLeft(6)
+                .multiply(BigDecimal.valueOf(price).movePointLeft(6))
+                .setScale(2, RoundingMode.HALF_UP);
+        assertThat(expected).isEqualTo(exact.toPlainString()).isEqualTo("5000000000000000.01");
+    }
+
+    @Test
+    void toleranceIsInclusive() {
+        DianLineItems lines = new DianLineItems.Builder()
+                .nextLine().quantity(ONE).priceAmount(10 * ONE).lineExtension(900L)
+                .nextLine().quantity(ONE).priceAmount(10 * ONE).lineExtension(899L)
+                .build();
+
+        FindingCollector findings = evaluate(engine(Integer.MAX_VALUE, "1.00"),
+                fields(lines, MonetaryTotals.ABSENT, Map.of()));
+
+        assertThat(findings.findings()).extracting(ValidationFinding::location)
+                .containsExactly(LINE_EXTENSION.formatted(2));
+    }
+
+    @Test
+    void forkJoinMatchesTheSequentialPath() {
+        int size = 5_000;
+        DianLineItems.Builder builder = new DianLineItems.Builder();
+        long lineExtension = 0;
+        long taxes = 0;
+        for (int i = 0; i < size; i++) {
+            // Cada 397 líneas una no cuadra, repartidas entre varias tareas hoja
+            long declared = i % 397 == 0 ? 1_001L : 1_000L;
+            builder.nextLine().quantity(2 * ONE).priceAmount(5 * ONE).lineExtension(declared)
+                    .addTax("01", 190L).addTax(i % 2 == 0 ? "04" : "03", i);
+            lineExtension += declared;
+            taxes += i;
+        }
+        DianLineItems lines = builder.build();
+        long evenTaxes = (long) (size / 2) * (size / 2 - 1);
+        MonetaryTotals totals = new MonetaryTotals(lineExtension, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+                DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+                DianAmountUtil.ABSENT);
+        DianDocumentFields fields = fields(lines, totals, Map.of(
+                "01", DianAmountUtil.formatCents(190L * size),
+                "03", DianAmountUtil.formatCents(taxes - evenTaxes),
+                "04", DianAmountUtil.formatCents(evenTaxes)));
+
+        List<String> parallel = render(evaluate(engine(1, "0"), fields));
+        List<String> sequential = render(evaluate(engine(Integer.MAX_VALUE, "0"), fields));
+
+        // Solo las líneas: las sumas combinadas cuadran con el encabezado
+        assertThat(parallel).hasSize((size + 396) / 397).isEqualTo(sequential);
+        assertThat(parallel.get(0)).startsWith(LINE_EXTENSION.formatted(1) + " ");
+        assertThat(parallel.get(parallel.size() - 1)).startsWith(LINE_EXTENSION.formatted(12 * 397 + 1) + " ");
+        assertThat(parallel).isSortedAccordingTo((a, b) -> Integer.compare(lineNumber(a), lineNumber(b)));
+    }
+
+    @Test
+    void forkJoinSumsReachTheHeader() {
+        int size = 3_000;
+        DianLineItems.Builder builder = new DianLineItems.Builder();
+        for (int i = 0; i < size; i++) {
+            builder.nextLine().lineExtension(100L).addTax("01", 19L);
+        }
+        MonetaryTotals totals = new MonetaryTotals(100L * size + 1, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+                DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+                DianAmountUtil.ABSENT);
+        DianDocumentFields fields = fields(builder.build(), totals, Map.of("01", "570.01"));
+
+        List<String> parallel = render(evaluate(engine(1, "0"), fields));
+
+        assertThat(parallel).isEqualTo(render(evaluate(engine(Integer.MAX_VALUE, "0"), fields))).containsExactly(
+                "/Invoice/cac:LegalMonetaryTotal/cbc:LineExtensionAmount ERROR: [FAU02] LegalMonetaryTotal/"
+                        + "LineExtensionAmount 3000.01 no coincide con la suma de las líneas (3000.00)",
+                "/Invoice/cac:TaxTotal ERROR: [FAU02] TaxTotal del tributo 01 570.01 no coincide con la suma de "
+                        + "los impuestos de las líneas (570.00)");
+    }
+
+    @Test
+    void taxInclusiveMismatchIsFau06() {
+        MonetaryTotals totals = new MonetaryTotals(100_000L, DianAmountUtil.ABSENT, 120_000L,
+                DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT, DianAmountUtil.ABSENT,
+                DianAmountUtil.ABSENT);
+
+        FindingCollector findings = evaluate(engine(Integer.MAX_VALUE, "0"),
+                fields(DianLineItems.EMPTY, totals, Map.of("01", "190.00", "04", "0.00")));
+
+        assertThat(findings.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.dianCode()).isEqualTo("FAU06");
+            assertThat(finding.severity()).isEqualTo(DianSeverityLevel.ERROR);
+            assertThat(finding.location()).isEqualTo("/Invoice/cac:LegalMonetaryTotal/cbc:TaxInclusiveAmount");
+            assertThat(finding.message()).isEqualTo("LegalMonetaryTotal/TaxInclusiveAmount 1200.00 no coincide con "
+                    + "LineExtensionAmount + impuestos (1190.00)");
+        });
+    }
+
+    @Test
+    void payableMismatchIsFau14() {
+        // 1190,00 − 10,00 + 5,00 − 100,00 + 0,01 = 1085,01
+        MonetaryTotals totals = new MonetaryTotals(100_000L, DianAmountUtil.ABSENT, 119_000L, 1_000L, 500L,
+                10_000L, 1L, 108_500L);
+
+        FindingCollector findings = evaluate(engine(Integer.MAX_VALUE, "0"),
+                fields(DianLineItems.EMPTY, totals, Map.of("01", "190.00")));
+
+        assertThat(findings.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.dianCode()).isEqualTo("FAU14");
+            assertThat(finding.location()).isEqualTo("/Invoice/cac:LegalMonetaryTotal/cbc:PayableAmount");
+            assertThat(finding.message()).isEqualTo("LegalMonetaryTotal/PayableAmount 1085.00 no coincide con "
+                    + "TaxInclusiveAmount − descuentos + cargos − anticipos (1085.01)");
+        });
+    }
+
+    @Test
+    void balancedHeaderHasNoFindings() {
+        MonetaryTotals totals = new MonetaryTotals(100_000L, DianAmountUtil.ABSENT, 119_000L, 1_000L, 500L,
+                10_000L, 1L, 108_501L);
+
+        FindingCollector findings = evaluate(engine(Integer.MAX_VALUE, "0"),
+                fields(DianLineItems.EMPTY, totals, Map.of("01", "190.00")));
+
+        assertThat(findings.isEmpty()).isTrue();
+    }
+
+    private static DianLineRuleEngine engine(int parallelThreshold, String tolerance) {
+        DianValidatorProperties properties = new DianValidatorProperties();
+        properties.getRules().setParallelThreshold(parallelThreshold);
+        properties.getRules().setAmountTolerance(new BigDecimal(tolerance));
+        return new DianLineRuleEngine(properties);
+    }
+
+    private static FindingCollector evaluate(DianLineRuleEngine engine, DianDocumentFields fields) {
+        FindingCollector findings = new FindingCollector(ValidationFindingType.SEMANTIC);
+        DianRuleContext context = new DianRuleContext(fields, null, new ValidityHorizon(), findings);
+        context.bind(engine.dianCode(), DianSeverityLevel.ERROR);
+        engine.evaluate(context);
+        return findings;
+    }
+
+    // Valor esperado de una sola línea, leído del mensaje con la línea declarada en cero
+    private static String expectedCents(long quantity, long price, long baseQuantity) {
+        DianLineItems lines = new DianLineItems.Builder()
+                .nextLine().quantity(quantity).priceAmount(price).baseQuantity(baseQuantity).lineExtension(0L)
+                .build();
+        FindingCollector findings = evaluate(engine(Integer.MAX_VALUE, "0"),
+                fields(lines, MonetaryTotals.ABSENT, Map.of()));
+        return findings.isEmpty() ? "0.00" : findings.findings().get(0).arguments()[2].toString();
+    }
+
+    private static DianDocumentFields fields(DianLineItems lines, MonetaryTotals totals,
+            Map<String, String> taxAmounts) {
+        return new DianDocumentFields(DianSchemaType.INVOICE, "", "SETP990000001", "2024-01-15", "10:00:00-05:00",
+                "2", "", "", "900123456", "800123456", totals, lines, taxAmounts);
+    }
+
+    private static List<String> render(FindingCollector findings) {
+        return findings.findings().stream().map(finding -> finding.location() + " " + finding.render()).toList();
+    }
+
+    private static int lineNumber(String rendered) {
+        return Integer.parseInt(rendered.substring(rendered.indexOf('[') + 1, rendered.indexOf(']')));
+    }
+}
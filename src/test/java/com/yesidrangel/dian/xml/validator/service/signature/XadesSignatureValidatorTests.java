@@ -0,0 +1,185 @@
+package com.yesidrangel.dian.xml.validator.service.signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMValidateContext;
+import javax.xml.validation.Schema;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import com.yesidrangel.dian.xml.validator.config.DianValidatorProperties;
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.FindingCollector;
+import com.yesidrangel.dian.xml.validator.domain.model.ValidationFinding;
+import com.yesidrangel.dian.xml.validator.infrastructure.xml.XmlInfrastructure;
+import com.yesidrangel.dian.xml.validator.service.schema.DianSchemaRegistry;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationSource;
+import com.yesidrangel.dian.xml.validator.service.signature.revocation.RevocationStatusCache;
+
+/**
+ * La verificación de referencias en streaming ({@link StreamingReferenceDigester}) frente a
+ * {@code XMLSignature.validate} del JDK, sobre una factura firmada con tres referencias:
+ * {@code URI=""} con solo enveloped-signature y {@code #...-signedprops} sin transformaciones, que
+ * terminan en un conjunto de nodos y se canonicalizan con C14N 1.0, y {@code #...-keyinfo} con una
+ * transformación C14N explícita, que escribe directo hacia el digest.
+ */
+class XadesSignatureValidatorTests {
+
+    private static final String FIXTURE = "signature/signed-invoice.xml";
+    private static final String BODY = "";
+    private static final String SIGNED_PROPERTIES = "#xmldsig-fixture-signedprops";
+    private static final String KEY_INFO = "#xmldsig-fixture-keyinfo";
+    private static final String INVALID_SIGNATURE = "La firma digital es inválida";
+
+    private static String signed;
+    private static XmlInfrastructure xmlInfrastructure;
+    private static Schema schema;
+    private static CertificateCache certificates;
+    private static XadesSignatureValidator streaming;
+    private static XadesSignatureValidator jdk;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        try (InputStream in = new ClassPathResource(FIXTURE).getInputStream()) {
+            signed = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        DianValidatorProperties properties = new DianValidatorProperties();
+        xmlInfrastructure = new XmlInfrastructure(properties);
+        schema = new DianSchemaRegistry(properties).getSchema(DianSchemaType.INVOICE);
+        certificates = new CertificateCache(properties,
+                new CertificateTrustValidator(properties, new DefaultResourceLoader()));
+        RevocationStatusCache revocation = new RevocationStatusCache(properties,
+                new StaticListableBeanFactory().getBeanProvider(RevocationSource.class));
+        streaming = validator(true, revocation);
+        jdk = validator(false, revocation);
+    }
+
+    @Test
+    void untouchedDocumentPasses() throws Exception {
+        assertAgree(signed, null);
+    }
+
+    @Test
+    void tamperedBodyIsRejected() throws Exception {
+        String tampered = replaceOnce(signed, "<cbc:ID>SETP990000001</cbc:ID>", "<cbc:ID>SETP990000002</cbc:ID>");
+
+        assertAgree(tampered, BODY);
+    }
+
+    @Test
+    void tamperedSignedPropertiesAreRejected() throws Exception {
+        // Sigue siendo un rol válido: solo cambia el resumen de SignedProperties
+        String tampered = replaceOnce(signed, "<xades:ClaimedRole>supplier</xades:ClaimedRole>",
+                "<xades:ClaimedRole>Supplier</xades:ClaimedRole>");
+
+        assertAgree(tampered, SIGNED_PROPERTIES);
+    }
+
+    @Test
+    void tamperedKeyInfoIsRejected() throws Exception {
+        String tampered = replaceOnce(signed, "<ds:KeyInfo Id=\"xmldsig-fixture-keyinfo\">",
+                "<ds:KeyInfo Id=\"xmldsig-fixture-keyinfo\" xml:lang=\"es\">");
+
+        assertAgree(tampered, KEY_INFO);
+    }
+
+    @Test
+    void canonicalizesTheSameBytesAsTheJdk() throws Exception {
+        Document doc = parse(signed);
+        XMLSignatureFactory factory = XMLSignatureFactory.getInstance("DOM");
+        DOMValidateContext context = context(doc);
+        context.setProperty("javax.xml.crypto.dsig.cacheReference", Boolean.TRUE);
+        XMLSignature signature = factory.unmarshalXMLSignature(context);
+
+        for (Object item : signature.getSignedInfo().getReferences()) {
+            Reference reference = (Reference) item;
+            assertThat(reference.validate(context)).as(reference.getURI()).isTrue();
+            long expected;
+            try (InputStream in = reference.getDigestInputStream()) {
+                expected = in.readAllBytes().length;
+            }
+
+            StreamingReferenceDigester.Result result = StreamingReferenceDigester.verify(factory,
+                    List.of(reference), context(doc));
+
+            assertThat(result.mismatch()).as(reference.getURI()).isNull();
+            assertThat(result.canonicalizedBytes()).as(reference.getURI()).isEqualTo(expected).isPositive();
+        }
+    }
+
+    /**
+     * Ambos modos aceptan o rechazan el documento, y el streaming señala la referencia alterada.
+     */
+    private static void assertAgree(String xml, String tamperedUri) throws Exception {
+        FindingCollector streamed = streaming.validate(parse(xml));
+        FindingCollector validated = jdk.validate(parse(xml));
+
+        List<String> streamedInvalid = invalidSignature(streamed);
+        List<String> validatedInvalid = invalidSignature(validated);
+        if (tamperedUri == null) {
+            assertThat(streamed.hasBlocking()).as("%s", render(streamed)).isFalse();
+            assertThat(validated.hasBlocking()).as("%s", render(validated)).isFalse();
+            assertThat(streamedInvalid).isEmpty();
+            assertThat(validatedInvalid).isEmpty();
+        } else {
+            assertThat(validatedInvalid).containsExactly(INVALID_SIGNATURE);
+            assertThat(streamedInvalid).containsExactly(INVALID_SIGNATURE + ": el resumen de la referencia '"
+                    + tamperedUri + "' no coincide");
+        }
+        // Los demás hallazgos no dependen del modo
+        assertThat(otherFindings(streamed)).isEqualTo(otherFindings(validated));
+    }
+
+    private static List<String> invalidSignature(FindingCollector findings) {
+        return render(findings).stream().filter(message -> message.startsWith(INVALID_SIGNATURE)).toList();
+    }
+
+    private static List<String> otherFindings(FindingCollector findings) {
+        return render(findings).stream().filter(message -> !message.startsWith(INVALID_SIGNATURE)).toList();
+    }
+
+    private static List<String> render(FindingCollector findings) {
+        return findings.findings().stream().map(ValidationFinding::message).toList();
+    }
+
+    private static DOMValidateContext context(Document doc) {
+        Node signature = doc.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature").item(0);
+        return new DOMValidateContext(new X509KeySelector(certificates), signature);
+    }
+
+    /**
+     * Con el esquema, como en el pipeline: registra los atributos {@code Id} que resuelven las
+     * referencias {@code #...}.
+     */
+    private static Document parse(String xml) throws SAXParseException {
+        return xmlInfrastructure.parse(new InputSource(new StringReader(xml)), schema, null);
+    }
+
+    private static String replaceOnce(String text, String target, String replacement) {
+        assertThat(text).containsOnlyOnce(target);
+        return text.replace(target, replacement);
+    }
+
+    private static XadesSignatureValidator validator(boolean streamingDigest, RevocationStatusCache revocation) {
+        DianValidatorProperties properties = new DianValidatorProperties();
+        properties.getSignature().setStreamingDigest(streamingDigest);
+        return new XadesSignatureValidator(xmlInfrastructure, certificates, revocation, properties);
+    }
+}
@@ -0,0 +1,98 @@
+package com.yesidrangel.dian.xml.validator.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.yesidrangel.dian.xml.validator.domain.enums.DianSchemaType;
+import com.yesidrangel.dian.xml.validator.domain.model.DianDocumentFields;
+import com.yesidrangel.dian.xml.validator.domain.model.DianLineItems;
+import com.yesidrangel.dian.xml.validator.domain.model.MonetaryTotals;
+import com.yesidrangel.dian.xml.validator.domain.model.TaxTotals;
+
+/**
+ * El CUFE calculado con los montos escalados ({@link TaxTotals}) frente al camino anterior, que
+ * sumaba con {@code double} y formateaba con {@code String.format("%.2f")}.
+ */
+class CufeGeneratorUtilTests {
+
+    private static final String TECHNICAL_KEY = "693ff6f2a553c3646a063436fd4dd9ded0311471";
+
+    /**
+     * Ejemplo del anexo técnico de factura electrónica de la DIAN.
+     */
+    private static final String ANNEX_CUFE = "8bb918b19ba22a694f1da11c643b5e9de39adf60311cf179179e9b33381030bc"
+            + "d4c3c3f156c506ed5908f9276f5bd9b4";
+
+    @Test
+    void annexExample() {
+        TaxTotals taxes = new TaxTotals();
+        taxes.add("01", DianAmountUtil.parse("285000.00", DianAmountUtil.CENTS));
+
+        DianDocumentFields fields = fields(taxes.toAmounts());
+
+        assertThat(CufeGeneratorUtil.buildInput(fields, TECHNICAL_KEY)).isEqualTo("323200000129"
+                + "2019-01-16" + "10:53:10-05:00" + "1500000.00" + "01" + "285000.00" + "04" + "0.00" + "03"
+                + "0.00" + "1785000.00" + "700085371" + "800199436" + TECHNICAL_KEY + "1");
+        assertThat(CufeGeneratorUtil.generate(fields, TECHNICAL_KEY)).isEqualTo(ANNEX_CUFE);
+        assertThat(CufeGeneratorUtil.sha384(CufeGeneratorUtil.buildInput(fields, TECHNICAL_KEY)))
+                .isEqualTo(ANNEX_CUFE);
+    }
+
+    @Test
+    void sameCufeAsTheDoublePath() {
+        String[][] taxTotals = {
+                { "01", "142,500.00" }, { "01", "142500" }, { "04", "8000.5" }, { "03", "0.10" }, { "03", "0.20" },
+                { "01", "0.005" } };
+        TaxTotals taxes = new TaxTotals();
+        for (String[] taxTotal : taxTotals) {
+            taxes.add(taxTotal[0], DianAmountUtil.parseCentsOrZero(taxTotal[1]));
+        }
+
+        Map<String, String> scaled = taxes.toAmounts();
+        Map<String, String> legacy = legacyTaxAmounts(taxTotals);
+
+        assertThat(scaled).isEqualTo(legacy);
+        assertThat(CufeGeneratorUtil.generate(fields(scaled), TECHNICAL_KEY))
+                .isEqualTo(CufeGeneratorUtil.generate(fields(legacy), TECHNICAL_KEY));
+    }
+
+    @Test
+    void largeAmountsKeepTheirCents() {
+        String[][] taxTotals = { { "01", "12345678901234567.89" } };
+        TaxTotals taxes = new TaxTotals();
+        taxes.add("01", DianAmountUtil.parse(taxTotals[0][1], DianAmountUtil.CENTS));
+
+        // double no representa el monto: el camino anterior lo redondeaba a otro valor
+        assertThat(legacyTaxAmounts(taxTotals)).containsEntry("01", "12345678901234568.00");
+        assertThat(taxes.toAmounts()).containsEntry("01", "12345678901234567.89");
+    }
+
+    private static DianDocumentFields fields(Map<String, String> taxAmounts) {
+        return new DianDocumentFields(DianSchemaType.INVOICE, "", "323200000129", "2019-01-16", "10:53:10-05:00",
+                "1", "1500000.00", "1785000.00", "700085371", "800199436", MonetaryTotals.ABSENT,
+                DianLineItems.EMPTY, taxAmounts);
+    }
+
+    // Extracción previa a los montos escalados, con Locale.ROOT (con es_CO imprimía comas)
+    private static Map<String, String> legacyTaxAmounts(String[][] taxTotals) {
+        Map<String, String> taxes = new HashMap<>();
+        for (String[] taxTotal : taxTotals) {
+            String amount = legacyFormat(Double.parseDouble(taxTotal[1].replace(",", "")));
+            taxes.merge(taxTotal[0], amount,
+                    (existing, current) -> legacyFormat(Double.parseDouble(existing) + Double.parseDouble(current)));
+        }
+        taxes.putIfAbsent("01", "0.00");
+        taxes.putIfAbsent("04", "0.00");
+        taxes.putIfAbsent("03", "0.00");
+        return taxes;
+    }
+
+    private static String legacyFormat(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,103 @@
+package com.yesidrangel.dian.xml.validator.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DianAmountUtilTests {
+
+    @Test
+    void parseRoundsHalfUpOnTheMagnitude() {
+        assertThat(DianAmountUtil.parse("-1,500.005", DianAmountUtil.CENTS)).isEqualTo(-150_001L);
+        assertThat(DianAmountUtil.parse("1,500.004", DianAmountUtil.CENTS)).isEqualTo(150_000L);
+        assertThat(DianAmountUtil.parse("0.125", DianAmountUtil.CENTS)).isEqualTo(13L);
+    }
+
+    @Test
+    void parsePadsMissingDecimals() {
+        assertThat(DianAmountUtil.parse("1500.5", DianAmountUtil.CENTS)).isEqualTo(150_050L);
+        assertThat(DianAmountUtil.parse(" +1500 ", DianAmountUtil.CENTS)).isEqualTo(150_000L);
+        assertThat(DianAmountUtil.parse(".5", DianAmountUtil.CENTS)).isEqualTo(50L);
+        assertThat(DianAmountUtil.parse("2.5", DianAmountUtil.QUANTITY)).isEqualTo(2_500_000L);
+    }
+
+    @Test
+    void parseWithScaleZero() {
+        assertThat(DianAmountUtil.parse("1,234", 0)).isEqualTo(1_234L);
+        assertThat(DianAmountUtil.parse("1234.5", 0)).isEqualTo(1_235L);
+        assertThat(DianAmountUtil.parse("1234.49", 0)).isEqualTo(1_234L);
+        assertThat(DianAmountUtil.parse("-7.", 0)).isEqualTo(-7L);
+    }
+
+    @Test
+    void parseUpToTheLongRange() {
+        assertThat(DianAmountUtil.parse("92,233,720,368,547,758.07", DianAmountUtil.CENTS))
+                .isEqualTo(Long.MAX_VALUE);
+        assertThat(DianAmountUtil.parse("-92233720368547758.07", DianAmountUtil.CENTS))
+                .isEqualTo(-Long.MAX_VALUE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "92233720368547758.08", "92233720368547758.075", "9223372036854775807",
+            "100000000000000000000" })
+    void parseOverflowIsNumberFormatException(String text) {
+        assertThatThrownBy(() -> DianAmountUtil.parse(text, DianAmountUtil.CENTS))
+                .isInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("fuera de rango");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1.2.3", "1.234,5", "1,500.00,1", "12a", "", " ", "-", "+", ".", "--1", "1 000" })
+    void parseRejectsMalformedText(String text) {
+        assertThatThrownBy(() -> DianAmountUtil.parse(text, DianAmountUtil.CENTS))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void parseOrFallback() {
+        assertThat(DianAmountUtil.parseCentsOrZero(null)).isZero();
+        assertThat(DianAmountUtil.parseCentsOrZero("1.2.3")).isZero();
+        assertThat(DianAmountUtil.parseCentsOrZero("19.99")).isEqualTo(1_999L);
+        assertThat(DianAmountUtil.parseOrAbsent(" ", DianAmountUtil.CENTS)).isEqualTo(DianAmountUtil.ABSENT);
+        assertThat(DianAmountUtil.parseOrAbsent("x", DianAmountUtil.CENTS)).isEqualTo(DianAmountUtil.ABSENT);
+        assertThat(DianAmountUtil.parseOrAbsent("0", DianAmountUtil.CENTS)).isZero();
+    }
+
+    @Test
+    void formatWithFixedScale() {
+        assertThat(DianAmountUtil.formatCents(150_000L)).isEqualTo("1500.00");
+        assertThat(DianAmountUtil.formatCents(0L)).isEqualTo("0.00");
+        assertThat(DianAmountUtil.formatCents(-5L)).isEqualTo("-0.05");
+        assertThat(DianAmountUtil.format(7L, 0)).isEqualTo("7");
+        assertThat(DianAmountUtil.format(-1L, DianAmountUtil.QUANTITY)).isEqualTo("-0.000001");
+        assertThat(DianAmountUtil.formatCents(Long.MAX_VALUE)).isEqualTo("92233720368547758.07");
+    }
+
+    @Test
+    void formatLongMinValue() {
+        assertThat(DianAmountUtil.formatCents(Long.MIN_VALUE)).isEqualTo("-92233720368547758.08");
+        assertThat(DianAmountUtil.format(Long.MIN_VALUE, 0)).isEqualTo("-9223372036854775808");
+    }
+
+    @Test
+    void formatIgnoresTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("es-CO"));
+        try {
+            assertThat(DianAmountUtil.formatCents(123_456_789L)).isEqualTo("1234567.89");
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0L, 1L, -1L, 99L, 100L, -150_001L, 1_234_567_890_123L, Long.MAX_VALUE, -Long.MAX_VALUE })
+    void formatAndParseRoundTrip(long cents) {
+        assertThat(DianAmountUtil.parse(DianAmountUtil.formatCents(cents), DianAmountUtil.CENTS)).isEqualTo(cents);
+    }
+}